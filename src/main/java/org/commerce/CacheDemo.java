@@ -1,6 +1,8 @@
 package org.commerce;
 
+import org.commerce.common.CacheRegistry;
 import org.commerce.common.Result;
+import org.commerce.config.ConnectionPool;
 import org.commerce.config.DBConfig;
 import org.commerce.daos.entities.Categories;
 import org.commerce.daos.entities.Product;
@@ -23,16 +25,18 @@ public class CacheDemo {
     public static void main(String[] args) {
         DBConfig dbConfig = new DBConfig();
         
-        try (Connection connection = dbConfig.connectDB()) {
+        try (ConnectionPool pool = dbConfig.createPool()) {
             // Initialize tables
-            UsersModel.initializeTable(connection);
-            CategoriesModel.initializeTable(connection);
-            ProductsModel.initializeTable(connection);
+            try (Connection connection = pool.getConnection()) {
+                UsersModel.initializeTable(connection);
+                CategoriesModel.initializeTable(connection);
+                ProductsModel.initializeTable(connection);
+            }
             
             // Initialize services
-            CategoryService categoryService = new CategoryService(connection);
-            ProductService productService = new ProductService(connection);
-            UserService userService = new UserService(connection);
+            CategoryService categoryService = new CategoryService(pool);
+            ProductService productService = new ProductService(pool);
+            UserService userService = new UserService(pool);
             
             System.out.println("═══════════════════════════════════════════════════");
             System.out.println("   CACHING AND SORTING DEMONSTRATION");
@@ -181,6 +185,8 @@ public class CacheDemo {
         System.out.println("\nUser Service:");
         System.out.println("  " + userService.getCacheStats());
         
+        CacheRegistry.printReport();
+        
         System.out.println("\n═══════════════════════════════════════════════════");
         System.out.println("   DEMONSTRATION COMPLETE");
         System.out.println("═══════════════════════════════════════════════════\n");
@@ -189,7 +195,7 @@ public class CacheDemo {
         System.out.println("   • In-memory caching with TTL");
         System.out.println("   • HashMap for O(1) lookups");
         System.out.println("   • ArrayList sorting with Comparator");
-        System.out.println("   • LRU cache eviction");
+        System.out.println("   • CLOCK cache eviction");
         System.out.println("   • Session management");
         System.out.println("   • Automatic cache invalidation\n");
     }
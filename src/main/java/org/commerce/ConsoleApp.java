@@ -1,6 +1,7 @@
 package org.commerce;
 
 import org.commerce.common.Result;
+import org.commerce.config.ConnectionPool;
 import org.commerce.config.DBConfig;
 import org.commerce.daos.entities.User;
 import org.commerce.daos.entities.Product;
@@ -17,6 +18,7 @@ import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
 
 public class ConsoleApp {
@@ -29,20 +31,22 @@ public class ConsoleApp {
 
     public static void main(String[] args) {
         DBConfig dbConfig = new DBConfig();
-        try (Connection connection = dbConfig.connectDB()) {
+        try (ConnectionPool pool = dbConfig.createPool()) {
             System.out.println("Database connected successfully.\n");
             
-            userService = new UserService(connection);
-            productService = new ProductService(connection);
-            categoryService = new CategoryService(connection);
-            inventoryService = new InventoryService(connection);
-            UsersModel.initializeTable(connection);
-            CategoriesModel.initializeTable(connection);
-            ProductsModel.initializeTable(connection);
-            InventoryModel.initializeTable(connection);
-            OrdersModel.initializeTable(connection);
-            OrderItemsModel.initializeTable(connection);
-            ReviewsModel.initializeTable(connection);
+            userService = new UserService(pool);
+            productService = new ProductService(pool);
+            categoryService = new CategoryService(pool);
+            inventoryService = new InventoryService(pool);
+            try (Connection connection = pool.getConnection()) {
+                UsersModel.initializeTable(connection);
+                CategoriesModel.initializeTable(connection);
+                ProductsModel.initializeTable(connection);
+                InventoryModel.initializeTable(connection);
+                OrdersModel.initializeTable(connection);
+                OrderItemsModel.initializeTable(connection);
+                ReviewsModel.initializeTable(connection);
+            }
 
             seedUser();
 
@@ -268,22 +272,20 @@ public class ConsoleApp {
     private static void viewAllUsersForm(){
         System.out.println("\n--- All Users ---");
         
-        Result<List<User>> result = userService.getAllUsers();
-        List<User> users = result.getData();
-        
-        if(users.isEmpty()){
+        // Users are printed as they are fetched, so large tables never sit in memory
+        System.out.println("\n" + "=".repeat(80));
+        Result<Long> result = userService.forEachUser(user ->
+            System.out.printf("ID: %-5d | Name: %-20s | Email: %-25s | Role: %-10s%n",
+                user.getId(),
+                user.getFirstname() + " " + user.getLastname(),
+                user.getEmail(),
+                user.getUserRole()));
+        System.out.println("=".repeat(80));
+        
+        if(result.getData() == 0){
             System.out.println("No users found");
         }else{
-            System.out.println("\nTotal users: " + users.size());
-            System.out.println("\n" + "=".repeat(80));
-            for(User user : users){
-                System.out.printf("ID: %-5d | Name: %-20s | Email: %-25s | Role: %-10s%n",
-                    user.getId(),
-                    user.getFirstname() + " " + user.getLastname(),
-                    user.getEmail(),
-                    user.getUserRole());
-            }
-            System.out.println("=".repeat(80));
+            System.out.println("Total users: " + result.getData());
         }
     }
     
@@ -428,10 +430,12 @@ public class ConsoleApp {
                 "ID", "Product Name", "Price", "Total Stock", "Description");
             System.out.println("=".repeat(120));
             
+            // Get total stock across all warehouses for every product at once
+            Map<Integer, Integer> stocks = productService
+                .getTotalStocks(products.stream().map(Product::getId).toList()).getData();
+            
             for(Product product : products){
-                // Get total stock across all warehouses
-                Result<Integer> stockResult = productService.getTotalStock(product.getId());
-                int totalStock = stockResult.isSuccess() ? stockResult.getData() : 0;
+                int totalStock = stocks.getOrDefault(product.getId(), 0);
                 
                 // Truncate description if too long
                 String desc = product.getDescription();
@@ -5,6 +5,8 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.commerce.config.ConnectionPool;
+import org.commerce.controllers.BackgroundTasks;
 import org.commerce.config.DBConfig;
 import org.commerce.config.MongoDBConfig;
 import org.commerce.daos.models.*;
@@ -14,18 +16,23 @@ import org.commerce.services.CategoryService;
 import org.commerce.services.InventoryService;
 import org.commerce.services.ReviewService;
 import org.commerce.services.ActivityLogService;
+import org.commerce.services.CacheCoherenceService;
+import org.commerce.services.CacheWarmer;
 import org.commerce.daos.entities.User;
 import org.commerce.enums.UserRole;
 import org.commerce.common.Result;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.Connection;
-import java.sql.SQLException;
 
 /**
  * Main JavaFX Application for Smart E-Commerce System
  */
 public class ECommerceApp extends Application {
-    private static Connection connection;
+    private static ConnectionPool connectionPool;
+    private static CacheCoherenceService cacheCoherence;
     private static UserService userService;
     private static ProductService productService;
     private static CategoryService categoryService;
@@ -38,18 +45,18 @@ public class ECommerceApp extends Application {
     public void start(Stage stage) throws Exception {
         primaryStage = stage;
         
-        // Initialize database connection and services
+        // Initialize database connection pool and services
         DBConfig dbConfig = new DBConfig();
-        connection = dbConfig.connectDB();
+        connectionPool = dbConfig.createPool();
         
         // Initialize MongoDB
         MongoDBConfig.initialize();
         
         // Initialize PostgreSQL services
-        userService = new UserService(connection);
-        productService = new ProductService(connection);
-        categoryService = new CategoryService(connection);
-        inventoryService = new InventoryService(connection);
+        userService = new UserService(connectionPool);
+        productService = new ProductService(connectionPool);
+        categoryService = new CategoryService(connectionPool);
+        inventoryService = new InventoryService(connectionPool);
         
         // Initialize MongoDB services
         reviewService = new ReviewService();
@@ -58,14 +65,24 @@ public class ECommerceApp extends Application {
         // Wire up inventory service with product service for cache invalidation
         inventoryService.setProductService(productService);
         
+        // Keep caches coherent with other instances (LISTEN/NOTIFY on a dedicated connection)
+        cacheCoherence = new CacheCoherenceService(connectionPool, dbConfig::connectDB);
+        productService.setCacheCoherence(cacheCoherence);
+        categoryService.setCacheCoherence(cacheCoherence);
+        userService.setCacheCoherence(cacheCoherence);
+        inventoryService.setCacheCoherence(cacheCoherence);
+        cacheCoherence.start();
+        
         // Initialize database tables
-        UsersModel.initializeTable(connection);
-        CategoriesModel.initializeTable(connection);
-        ProductsModel.initializeTable(connection);
-        InventoryModel.initializeTable(connection);
-        OrdersModel.initializeTable(connection);
-        OrderItemsModel.initializeTable(connection);
-        ReviewsModel.initializeTable(connection);
+        try (Connection connection = connectionPool.getConnection()) {
+            UsersModel.initializeTable(connection);
+            CategoriesModel.initializeTable(connection);
+            ProductsModel.initializeTable(connection);
+            InventoryModel.initializeTable(connection);
+            OrdersModel.initializeTable(connection);
+            OrderItemsModel.initializeTable(connection);
+            ReviewsModel.initializeTable(connection);
+        }
         
         // Seed admin user if it doesn't exist
         seedAdminUser();
@@ -73,6 +90,9 @@ public class ECommerceApp extends Application {
         // Seed sample data (categories, products, inventory)
         seedData();
         
+        // Start with warm catalog caches if the last snapshot is still current
+        restoreCacheSnapshots();
+        
         // Log application startup
         if (activityLogService != null) {
             activityLogService.logActivity(0, "System", "APP_START");
@@ -81,6 +101,9 @@ public class ECommerceApp extends Application {
         // Load login view
         showLoginView();
         
+        // Preload catalog caches in the background while the user logs in
+        CacheWarmer.fromEnvironment(productService, categoryService).start();
+        
         primaryStage.setTitle("Smart E-Commerce System");
         primaryStage.setOnCloseRequest(event -> {
             closeConnection();
@@ -125,27 +148,35 @@ public class ECommerceApp extends Application {
     }
 
     private void closeConnection() {
+        // Drop background UI work that is still running
+        BackgroundTasks.shutdown();
+        
         // Log application shutdown
         if (activityLogService != null) {
             activityLogService.logActivity(0, "System", "APP_STOP");
         }
         
+        // Stop listening for other instances' changes
+        if (cacheCoherence != null) {
+            cacheCoherence.close();
+        }
+        
+        // Save catalog caches for the next start
+        saveCacheSnapshots();
+        
         // Close PostgreSQL
-        try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
-        } catch (SQLException e) {
-            System.err.println("Error closing connection: " + e.getMessage());
+        if (connectionPool != null) {
+            System.out.println(connectionPool.getStats());
+            connectionPool.close();
+            System.out.println("Database connection pool closed.");
         }
         
         // Close MongoDB
         MongoDBConfig.close();
     }
 
-    public static Connection getConnection() {
-        return connection;
+    public static ConnectionPool getConnectionPool() {
+        return connectionPool;
     }
 
     public static UserService getUserService() {
@@ -194,13 +225,55 @@ public class ECommerceApp extends Application {
     
     private static void seedData() {
         try {
-            SeedData seeder = new SeedData(connection);
+            SeedData seeder = new SeedData(connectionPool, cacheCoherence);
             seeder.seedAll();
         } catch (Exception e) {
             System.err.println("Note: Sample data seeding skipped (may already exist)");
         }
     }
     
+    /**
+     * Gets the cache snapshot directory from CACHE_SNAPSHOT_DIR
+     * (default ~/.smart-ecommerce/cache, "none" disables snapshots).
+     */
+    private static Path snapshotDirectory() {
+        String dir = System.getenv("CACHE_SNAPSHOT_DIR");
+        if (dir == null || dir.isBlank()) {
+            return Paths.get(System.getProperty("user.home"), ".smart-ecommerce", "cache");
+        }
+        return "none".equalsIgnoreCase(dir.trim()) ? null : Paths.get(dir.trim());
+    }
+    
+    private static void restoreCacheSnapshots() {
+        Path dir = snapshotDirectory();
+        if (dir == null) {
+            return;
+        }
+        try {
+            String version = productService.getCatalogVersion();
+            int restored = categoryService.restoreSnapshot(dir, version) + productService.restoreSnapshot(dir, version);
+            if (restored > 0) {
+                System.out.println("✓ Restored " + restored + " cache entries from " + dir);
+            }
+        } catch (Exception e) {
+            System.err.println("Note: Cache snapshot restore skipped: " + e.getMessage());
+        }
+    }
+    
+    private static void saveCacheSnapshots() {
+        Path dir = snapshotDirectory();
+        if (dir == null || productService == null) {
+            return;
+        }
+        try {
+            String version = productService.getCatalogVersion();
+            int saved = categoryService.saveSnapshot(dir, version) + productService.saveSnapshot(dir, version);
+            System.out.println("Saved " + saved + " cache entries to " + dir);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to save cache snapshot: " + e.getMessage());
+        }
+    }
+    
     public static Stage getPrimaryStage() {
         return primaryStage;
     }
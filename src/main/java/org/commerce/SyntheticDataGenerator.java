@@ -0,0 +1,649 @@
+package org.commerce;
+
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.PasswordHasher;
+import org.commerce.common.Result;
+import org.commerce.common.ZipfSampler;
+import org.commerce.config.MongoDBConfig;
+import org.commerce.daos.entities.ActivityLog;
+import org.commerce.daos.entities.Categories;
+import org.commerce.daos.entities.Inventory;
+import org.commerce.daos.entities.OrderItems;
+import org.commerce.daos.entities.Orders;
+import org.commerce.daos.entities.Product;
+import org.commerce.daos.entities.Review;
+import org.commerce.daos.entities.User;
+import org.commerce.enums.CopyFormat;
+import org.commerce.enums.UserRole;
+import org.commerce.services.ActivityLogService;
+import org.commerce.services.CacheCoherenceService;
+import org.commerce.services.InventoryService;
+import org.commerce.services.OrderService;
+import org.commerce.services.ProductService;
+import org.commerce.services.ReviewService;
+import org.commerce.services.UserService;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates reproducible synthetic datasets, from a demo catalog up to production
+ * scale (a million products, millions of inventory rows, orders, reviews and
+ * activity logs), so benchmarks measure realistic data volumes and skew.
+ *
+ * Rows are generated and loaded in chunks on several threads through the COPY bulk
+ * load paths. Each chunk draws from its own random generator derived from the seed
+ * and the chunk number, so the same seed and scale always produce the same rows,
+ * whatever the thread scheduling. (Database IDs depend on the sequences' state; rows
+ * reference each other by generation order, not by ID.)
+ *
+ * Skew: product popularity (orders, reviews, views) and user activity follow Zipf
+ * distributions, categories differ in size, prices are log-normal around a
+ * per-category median, and ratings lean positive with per-product quality.
+ */
+public class SyntheticDataGenerator {
+    private static final int CHUNK_SIZE = 50_000;
+    private static final int MONGO_BATCH_SIZE = 10_000;
+
+    // Zipf exponents: 1.0 gives the top 1% of a million products about two thirds of all orders
+    private static final double PRODUCT_SKEW = 1.0;
+    private static final double USER_SKEW = 0.8;
+    private static final double CATEGORY_SKEW = 0.7;
+
+    // Timestamps are spread over the period before this fixed date, so reruns match
+    private static final LocalDateTime DATA_END = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    // All synthetic users share this password (hashed once; BCrypt per user would dominate the load)
+    private static final String SYNTHETIC_PASSWORD = "password123";
+
+    // Salts separating the random streams of each kind of data
+    private static final long PRODUCTS = 1;
+    private static final long USERS = 2;
+    private static final long INVENTORY = 3;
+    private static final long ORDERS = 4;
+    private static final long REVIEWS = 5;
+    private static final long ACTIVITY = 6;
+    private static final long LAYOUT = 7;
+    private static final long QUALITY = 8;
+
+    private static final String[] BRANDS = {
+        "Acme", "Northwind", "Contoso", "Fabrikam", "Globex", "Initech", "Umbrella", "Stark",
+        "Wayne", "Tyrell", "Cyberdyne", "Soylent", "Hooli", "Vandelay", "Wonka", "Aperture",
+        "Oscorp", "Nakatomi", "Gringotts", "Monarch", "Zenith", "Apex", "Nimbus", "Vertex"
+    };
+    private static final String[] ADJECTIVES = {
+        "Ultra", "Pro", "Compact", "Classic", "Smart", "Wireless", "Premium", "Eco", "Deluxe",
+        "Portable", "Heavy-Duty", "Slim", "Advanced", "Essential", "Modern", "Rugged", "Lite", "Max"
+    };
+    private static final String[] NOUNS = {
+        "Headphones", "Laptop", "Blender", "Backpack", "Desk Lamp", "Running Shoes", "Camera",
+        "Smartwatch", "Coffee Maker", "Office Chair", "Speaker", "Tent", "Water Bottle", "Monitor",
+        "Keyboard", "Jacket", "Yoga Mat", "Cookware Set", "Board Game", "Skincare Kit", "Drill",
+        "Bicycle Helmet", "Novel", "Sunglasses", "Toaster", "Router", "Phone Case", "Dumbbells"
+    };
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "John", "Patricia", "Robert", "Jennifer", "Michael", "Linda", "David",
+        "Elizabeth", "Kwame", "Ama", "Kofi", "Abena", "Yaw", "Akosua", "Wei", "Mei", "Hiroshi",
+        "Yuki", "Carlos", "Sofia", "Ahmed", "Fatima", "Ivan", "Olga", "Liam", "Emma", "Noah", "Ava"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Mensah",
+        "Owusu", "Boateng", "Asante", "Chen", "Wang", "Tanaka", "Sato", "Rodriguez", "Lopez",
+        "Khan", "Ali", "Petrov", "Ivanova", "Murphy", "Kelly", "Nguyen", "Kim", "Silva", "Costa"
+    };
+    private static final String[] CITIES = {
+        "New York", "Los Angeles", "Chicago", "Houston", "Phoenix", "Seattle", "Miami", "Boston",
+        "Denver", "Atlanta", "Dallas", "Detroit", "Portland", "Austin", "Nashville", "Memphis",
+        "Columbus", "Charlotte", "Indianapolis", "San Diego", "Las Vegas", "Baltimore", "Louisville",
+        "Milwaukee", "Sacramento"
+    };
+    private static final String[] ORDER_STATUSES = {"DELIVERED", "SHIPPED", "PENDING", "CANCELLED"};
+    private static final double[] ORDER_STATUS_WEIGHTS = {0.70, 0.10, 0.12, 0.08};
+    private static final String[] ACTIONS = {"VIEW_PRODUCT", "SEARCH", "ADD_TO_CART", "LOGIN", "PURCHASE", "LOGOUT"};
+    private static final double[] ACTION_WEIGHTS = {0.55, 0.15, 0.12, 0.08, 0.05, 0.05};
+    private static final String[] CHANNELS = {"web", "mobile", "app"};
+    // Share of each star rating (1-5) for a product of average quality
+    private static final double[] RATING_WEIGHTS = {0.11, 0.07, 0.12, 0.25, 0.45};
+    private static final String[] REVIEW_TITLES = {
+        "Very disappointed", "Not worth it", "It's okay", "Good value", "Absolutely love it"
+    };
+    private static final String[] REVIEW_COMMENTS = {
+        "Stopped working after a week and support was no help.",
+        "Does the job, but the build quality is below what I expected.",
+        "Average product. Some things are great, others less so.",
+        "Works well and arrived quickly. Would buy again.",
+        "Exceeded my expectations in every way, highly recommended!"
+    };
+
+    private final Scale scale;
+    private final long seed;
+    private final int threads;
+    private final CopyFormat format;
+
+    private final ProductService productService;
+    private final InventoryService inventoryService;
+    private final UserService userService;
+    private final OrderService orderService;
+    private final ReviewService reviewService;
+    private final ActivityLogService activityLogService;
+
+    // Generated rows referenced by later stages, indexed by generation order
+    private int[] productIds = new int[0];
+    private long[] productPriceCents = new long[0];
+    private int[] productByPopularity = new int[0];
+    private int[] userIds = new int[0];
+    private int[] userByActivity = new int[0];
+
+    /**
+     * Creates a generator.
+     *
+     * @param cacheCoherence Announces the loads to other instances once the run ends, or null
+     */
+    public SyntheticDataGenerator(DataSource dataSource, CacheCoherenceService cacheCoherence,
+                                  Scale scale, long seed, int threads) {
+        this.scale = scale;
+        this.seed = seed;
+        this.threads = Math.max(1, threads);
+        this.format = CopyFormat.BINARY;
+        this.productService = new ProductService(dataSource);
+        this.inventoryService = new InventoryService(dataSource);
+        this.inventoryService.setProductService(productService);
+        this.userService = new UserService(dataSource);
+        this.orderService = new OrderService(dataSource);
+        if (cacheCoherence != null) {
+            productService.setCacheCoherence(cacheCoherence);
+            inventoryService.setCacheCoherence(cacheCoherence);
+            userService.setCacheCoherence(cacheCoherence);
+        }
+        this.reviewService = MongoDBConfig.isConnected() ? new ReviewService() : null;
+        this.activityLogService = MongoDBConfig.isConnected() ? new ActivityLogService() : null;
+    }
+
+    /**
+     * Creates a generator configured by environment variables: SEED_SCALE (demo or
+     * production), per-table overrides (SEED_PRODUCTS, SEED_USERS, SEED_INVENTORY,
+     * SEED_ORDERS, SEED_REVIEWS, SEED_ACTIVITY_LOGS), SEED_RANDOM_SEED and SEED_THREADS.
+     */
+    public static SyntheticDataGenerator fromEnvironment(DataSource dataSource, CacheCoherenceService cacheCoherence) {
+        int defaultThreads = Math.min(Runtime.getRuntime().availableProcessors(), 4);
+        return new SyntheticDataGenerator(dataSource, cacheCoherence, Scale.fromEnvironment(),
+            longEnv("SEED_RANDOM_SEED", 42), (int) longEnv("SEED_THREADS", defaultThreads));
+    }
+
+    /**
+     * Generates and loads every table, products first so later rows can reference them.
+     *
+     * @param categories Existing categories to place products in
+     */
+    public void generate(List<Categories> categories) {
+        System.out.println("🌱 Generating synthetic data (" + scale + ", seed " + seed + ", "
+            + threads + " threads)");
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            generateProducts(executor, categories);
+            generateUsers(executor);
+            generateInventory(executor);
+            generateOrders(executor);
+            if (reviewService != null) {
+                generateReviews(executor);
+                generateActivityLogs(executor);
+            } else {
+                System.out.println("ℹ MongoDB not connected - skipping reviews and activity logs");
+            }
+        } finally {
+            executor.shutdownNow();
+            // Chunks leave caches alone; other instances drop theirs once, for the whole run
+            productService.finishBulkLoad();
+            userService.finishBulkLoad();
+            inventoryService.finishBulkLoad();
+        }
+        System.out.printf("🎉 Synthetic data generated in %.1f s%n", (System.nanoTime() - start) / 1e9);
+    }
+
+    private void generateProducts(ExecutorService executor, List<Categories> categories) {
+        int count = scale.products;
+        if (count == 0 || categories.isEmpty()) {
+            return;
+        }
+        SplittableRandom layout = random(LAYOUT, 0);
+        int[] categoryBySize = permutation(categories.size(), layout);
+        ZipfSampler categorySizes = new ZipfSampler(categories.size(), CATEGORY_SKEW);
+
+        // Median price per category between $5 and $1,000
+        double[] categoryLogMedian = new double[categories.size()];
+        for (int i = 0; i < categoryLogMedian.length; i++) {
+            categoryLogMedian[i] = Math.log(5) + layout.nextDouble() * Math.log(200);
+        }
+
+        productIds = new int[count];
+        productPriceCents = new long[count];
+        runChunks(executor, "products", count, CHUNK_SIZE, (chunk, from, to) -> {
+            SplittableRandom random = random(PRODUCTS, chunk);
+            List<Product> products = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int category = categoryBySize[categorySizes.sample(random)];
+                String brand = pick(BRANDS, random);
+                String adjective = pick(ADJECTIVES, random);
+                String noun = pick(NOUNS, random);
+                String model = (char) ('A' + random.nextInt(26)) + "" + (char) ('A' + random.nextInt(26))
+                             + "-" + (100 + random.nextInt(9900));
+
+                // Log-normal price ending in .99
+                double price = Math.exp(categoryLogMedian[category] + 0.75 * random.nextGaussian());
+                long cents = Math.min(Math.max((long) price, 0L), 99_999L) * 100 + 99;
+                productPriceCents[i] = cents;
+
+                Product product = new Product();
+                product.setProductName(brand + " " + adjective + " " + noun + " " + model);
+                product.setDescription("The " + adjective.toLowerCase() + " " + noun.toLowerCase() + " from "
+                    + brand + ", model " + model + ".");
+                product.setPrice(BigDecimal.valueOf(cents, 2));
+                product.setCategoryId(categories.get(category).getId());
+                products.add(product);
+            }
+            BulkLoadResult loaded = loaded(productService.bulkLoadProductsChunk(products.stream(), format));
+            copyIds(loaded, productIds, from);
+            return loaded.getRowCount();
+        });
+        productByPopularity = permutation(count, random(LAYOUT, PRODUCTS));
+    }
+
+    private void generateUsers(ExecutorService executor) {
+        int count = scale.users;
+        if (count == 0) {
+            return;
+        }
+        String passwordHash = PasswordHasher.hashPassword(SYNTHETIC_PASSWORD);
+        userIds = new int[count];
+        runChunks(executor, "users", count, CHUNK_SIZE, (chunk, from, to) -> {
+            SplittableRandom random = random(USERS, chunk);
+            List<User> users = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                User user = new User();
+                user.setFirstname(firstName(i));
+                user.setLastname(lastName(i));
+                // Numbered addresses keep emails unique, so reruns update the same users
+                user.setEmail(firstName(i).toLowerCase() + "." + lastName(i).toLowerCase() + "." + (i + 1)
+                    + "@example.com");
+                user.setPhone(String.format("0%02d%07d", 20 + random.nextInt(40), random.nextInt(10_000_000)));
+                user.setUserRole(UserRole.CUSTOMER);
+                user.setPassword(passwordHash);
+                users.add(user);
+            }
+            BulkLoadResult loaded = loaded(userService.bulkLoadUsersChunk(users.stream(), format));
+            copyIds(loaded, userIds, from);
+            return loaded.getRowCount();
+        });
+        userByActivity = permutation(count, random(LAYOUT, USERS));
+    }
+
+    private void generateInventory(ExecutorService executor) {
+        int products = productIds.length;
+        if (products == 0 || scale.inventory == 0) {
+            return;
+        }
+        // Chunks of products sized so each COPY carries about CHUNK_SIZE inventory rows
+        double perProduct = Math.min((double) scale.inventory / products, CITIES.length);
+        int productsPerChunk = Math.max(1, (int) (CHUNK_SIZE / Math.max(perProduct, 1)));
+        runChunks(executor, "inventory", products, productsPerChunk, (chunk, from, to) -> {
+            SplittableRandom random = random(INVENTORY, chunk);
+            List<Inventory> inventories = new ArrayList<>();
+            int[] warehouses = new int[CITIES.length];
+            for (int p = from; p < to; p++) {
+                // Stocked in about perProduct distinct warehouses
+                int count = (int) perProduct + (random.nextDouble() < perProduct % 1 ? 1 : 0);
+                if (count > 1 && random.nextDouble() < 0.3) {
+                    count += random.nextBoolean() ? 1 : -1;
+                }
+                count = Math.min(count, CITIES.length);
+                for (int w = 0; w < warehouses.length; w++) {
+                    warehouses[w] = w;
+                }
+                for (int w = 0; w < count; w++) {
+                    int swap = w + random.nextInt(warehouses.length - w);
+                    int city = warehouses[swap];
+                    warehouses[swap] = warehouses[w];
+                    warehouses[w] = city;
+
+                    // About 8% out of stock, otherwise log-normal around 40 units
+                    int quantity = random.nextDouble() < 0.08
+                        ? 0 : (int) Math.min(Math.max(Math.exp(Math.log(40) + random.nextGaussian()), 1), 10_000);
+                    Inventory inventory = new Inventory();
+                    inventory.setProductId(productIds[p]);
+                    inventory.setWarehouseLocation(CITIES[city] + " Warehouse");
+                    inventory.setQuantity(quantity);
+                    inventories.add(inventory);
+                }
+            }
+            return loaded(inventoryService.bulkLoadInventoryChunk(inventories.stream(), format)).getRowCount();
+        });
+    }
+
+    private void generateOrders(ExecutorService executor) {
+        int count = scale.orders;
+        if (count == 0 || productIds.length == 0 || userIds.length == 0) {
+            return;
+        }
+        ZipfSampler products = new ZipfSampler(productIds.length, PRODUCT_SKEW);
+        ZipfSampler users = new ZipfSampler(userIds.length, USER_SKEW);
+        runChunks(executor, "orders", count, CHUNK_SIZE, (chunk, from, to) -> {
+            SplittableRandom random = random(ORDERS, chunk);
+            List<Orders> orders = new ArrayList<>(to - from);
+            List<OrderItems> items = new ArrayList<>();
+            List<Integer> itemOrder = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                LocalDateTime orderDate = timestamp(random, 365);
+                int lines = Math.min(1 + geometric(random, 0.45), 8);
+                long totalCents = 0;
+                for (int line = 0; line < lines; line++) {
+                    int product = productByPopularity[products.sample(random)];
+                    int quantity = Math.min(1 + geometric(random, 0.6), 5);
+                    totalCents += quantity * productPriceCents[product];
+
+                    OrderItems item = new OrderItems();
+                    item.setProductId(productIds[product]);
+                    item.setQuantity(quantity);
+                    item.setPrice(BigDecimal.valueOf(productPriceCents[product], 2));
+                    item.setCreatedAt(orderDate);
+                    items.add(item);
+                    itemOrder.add(orders.size());
+                }
+
+                Orders order = new Orders();
+                order.setUserId(userIds[userByActivity[users.sample(random)]]);
+                order.setOrderDate(orderDate);
+                order.setStatus(ORDER_STATUSES[weighted(random, ORDER_STATUS_WEIGHTS)]);
+                // Capped to fit DECIMAL(10, 2)
+                order.setTotalAmount(BigDecimal.valueOf(Math.min(totalCents, 9_999_999_999L), 2));
+                orders.add(order);
+            }
+
+            List<Integer> orderIds = loaded(orderService.bulkLoadOrders(orders.stream(), format)).getIds();
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setOrderId(orderIds.get(itemOrder.get(i)));
+            }
+            loaded(orderService.bulkLoadOrderItems(items.stream(), format));
+            return orders.size();
+        });
+    }
+
+    private void generateReviews(ExecutorService executor) {
+        int count = scale.reviews;
+        if (count == 0 || productIds.length == 0 || userIds.length == 0) {
+            return;
+        }
+        ZipfSampler products = new ZipfSampler(productIds.length, PRODUCT_SKEW);
+        ZipfSampler users = new ZipfSampler(userIds.length, USER_SKEW);
+        runChunks(executor, "reviews", count, MONGO_BATCH_SIZE, (chunk, from, to) -> {
+            SplittableRandom random = random(REVIEWS, chunk);
+            List<Review> reviews = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int product = productByPopularity[products.sample(random)];
+                int user = userByActivity[users.sample(random)];
+                int rating = rating(random, unitInterval(mix(seed, QUALITY, product)));
+
+                Review review = new Review(productIds[product], userIds[user],
+                    firstName(user) + " " + lastName(user).charAt(0) + ".",
+                    rating, REVIEW_TITLES[rating - 1], REVIEW_COMMENTS[rating - 1]);
+                review.setVerified(random.nextDouble() < 0.7);
+                review.setHelpfulCount(geometric(random, 0.3));
+                LocalDateTime createdAt = timestamp(random, 365);
+                review.setCreatedAt(createdAt);
+                review.setUpdatedAt(createdAt);
+                reviews.add(review);
+            }
+            return reviewService.createReviews(reviews).getData();
+        });
+    }
+
+    private void generateActivityLogs(ExecutorService executor) {
+        int count = scale.activityLogs;
+        if (count == 0 || userIds.length == 0) {
+            return;
+        }
+        ZipfSampler products = productIds.length > 0 ? new ZipfSampler(productIds.length, PRODUCT_SKEW) : null;
+        ZipfSampler users = new ZipfSampler(userIds.length, USER_SKEW);
+        runChunks(executor, "activity logs", count, MONGO_BATCH_SIZE, (chunk, from, to) -> {
+            SplittableRandom random = random(ACTIVITY, chunk);
+            List<ActivityLog> logs = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int user = userByActivity[users.sample(random)];
+                String action = ACTIONS[weighted(random, ACTION_WEIGHTS)];
+
+                ActivityLog log = new ActivityLog(userIds[user], firstName(user) + " " + lastName(user), action);
+                log.setTimestamp(timestamp(random, 90));
+                log.setMetadata(Map.of("channel", pick(CHANNELS, random)));
+                boolean productAction = action.equals("VIEW_PRODUCT") || action.equals("ADD_TO_CART")
+                                     || action.equals("PURCHASE");
+                if (productAction && products != null) {
+                    log.setEntityType("PRODUCT");
+                    log.setEntityId(productIds[productByPopularity[products.sample(random)]]);
+                }
+                logs.add(log);
+            }
+            return activityLogService.logActivities(logs).getData();
+        });
+    }
+
+    /**
+     * Splits [0, total) into chunks, generates and loads them on the executor and
+     * reports throughput. Fails with the first chunk's failure.
+     */
+    private void runChunks(ExecutorService executor, String label, int total, int chunkSize, ChunkTask task) {
+        long start = System.nanoTime();
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int from = 0, chunk = 0; from < total; from += chunkSize, chunk++) {
+            int chunkIndex = chunk;
+            int chunkFrom = from;
+            int chunkTo = Math.min(from + chunkSize, total);
+            futures.add(executor.submit(() -> task.run(chunkIndex, chunkFrom, chunkTo)));
+        }
+
+        long rows = 0;
+        try {
+            for (Future<Integer> future : futures) {
+                Integer loaded = future.get();
+                rows += loaded != null ? loaded : 0;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generating " + label + " was interrupted", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Generating " + label + " failed: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("✅ Loaded %d %s in %.1f s (%.0f rows/sec)%n", rows, label, seconds,
+            seconds > 0 ? rows / seconds : 0.0);
+    }
+
+    private SplittableRandom random(long salt, long chunk) {
+        return new SplittableRandom(mix(seed, salt, chunk));
+    }
+
+    private String firstName(int user) {
+        return FIRST_NAMES[(int) Math.floorMod(mix(seed, USERS, user), (long) FIRST_NAMES.length)];
+    }
+
+    private String lastName(int user) {
+        return LAST_NAMES[(int) Math.floorMod(mix(seed, USERS, ~user), (long) LAST_NAMES.length)];
+    }
+
+    /**
+     * The load's outcome, or the failure that ends the run.
+     */
+    private static BulkLoadResult loaded(Result<BulkLoadResult> result) {
+        if (!result.isSuccess()) {
+            throw new IllegalStateException(result.getMessage());
+        }
+        return result.getData();
+    }
+
+    private static void copyIds(BulkLoadResult loaded, int[] target, int offset) {
+        List<Integer> ids = loaded.getIds();
+        for (int i = 0; i < ids.size(); i++) {
+            target[offset + i] = ids.get(i);
+        }
+    }
+
+    /**
+     * Draws a star rating: most reviews are positive, shifted up or down by product quality (0-1).
+     */
+    private static int rating(SplittableRandom random, double quality) {
+        double[] weights = new double[RATING_WEIGHTS.length];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = RATING_WEIGHTS[i] * Math.exp((quality - 0.5) * 1.2 * (i - 2));
+        }
+        return weighted(random, weights) + 1;
+    }
+
+    private static int weighted(SplittableRandom random, double[] weights) {
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        double point = random.nextDouble() * total;
+        for (int i = 0; i < weights.length - 1; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    /**
+     * Number of failures before the first success, each trial succeeding with probability p.
+     */
+    private static int geometric(SplittableRandom random, double p) {
+        return (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+    }
+
+    private static LocalDateTime timestamp(SplittableRandom random, int days) {
+        return DATA_END.minusSeconds(random.nextLong(days * 86_400L));
+    }
+
+    private static <T> T pick(T[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * A shuffled 0..n-1, mapping popularity ranks to generated rows so popular rows
+     * are spread over the table rather than being the first ones inserted.
+     */
+    private static int[] permutation(int n, SplittableRandom random) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return order;
+    }
+
+    /**
+     * Mixes the inputs into a well-distributed 64-bit value (SplitMix64 finalizer).
+     */
+    private static long mix(long seed, long salt, long index) {
+        long z = seed + salt * 0x9E3779B97F4A7C15L + index * 0xC2B2AE3D27D4EB4FL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static double unitInterval(long bits) {
+        return (bits >>> 11) * 0x1.0p-53;
+    }
+
+    private static long longEnv(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim().replace("_", ""));
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid " + name + "=" + value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Generates and loads the rows [from, to) of one chunk.
+     */
+    @FunctionalInterface
+    private interface ChunkTask {
+        Integer run(int chunk, int from, int to) throws Exception;
+    }
+
+    /**
+     * Row counts to generate per table.
+     */
+    public static class Scale {
+        private final int products;
+        private final int users;
+        private final int inventory;
+        private final int orders;
+        private final int reviews;
+        private final int activityLogs;
+
+        public Scale(int products, int users, int inventory, int orders, int reviews, int activityLogs) {
+            this.products = products;
+            this.users = users;
+            this.inventory = inventory;
+            this.orders = orders;
+            this.reviews = reviews;
+            this.activityLogs = activityLogs;
+        }
+
+        /**
+         * A small catalog for trying the application.
+         */
+        public static Scale demo() {
+            return new Scale(120, 50, 240, 200, 400, 2_000);
+        }
+
+        /**
+         * Production-sized data for benchmarks.
+         */
+        public static Scale production() {
+            return new Scale(1_000_000, 100_000, 5_000_000, 500_000, 1_000_000, 2_000_000);
+        }
+
+        /**
+         * Reads SEED_SCALE (demo by default) and per-table overrides from the environment.
+         */
+        public static Scale fromEnvironment() {
+            Scale base = "production".equalsIgnoreCase(String.valueOf(System.getenv("SEED_SCALE")).trim())
+                ? production() : demo();
+            return new Scale(
+                (int) longEnv("SEED_PRODUCTS", base.products),
+                (int) longEnv("SEED_USERS", base.users),
+                (int) longEnv("SEED_INVENTORY", base.inventory),
+                (int) longEnv("SEED_ORDERS", base.orders),
+                (int) longEnv("SEED_REVIEWS", base.reviews),
+                (int) longEnv("SEED_ACTIVITY_LOGS", base.activityLogs));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d products, %d users, %d inventory, %d orders, %d reviews, %d activity logs",
+                products, users, inventory, orders, reviews, activityLogs);
+        }
+    }
+}
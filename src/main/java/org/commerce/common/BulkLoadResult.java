@@ -0,0 +1,43 @@
+package org.commerce.common;
+
+import java.util.List;
+
+/**
+ * Outcome of a COPY bulk load: the ids of the loaded rows in input order,
+ * how many rows were inserted or updated, and the load's throughput.
+ */
+public class BulkLoadResult {
+    private final List<Integer> ids;
+    private final long inserted;
+    private final long updated;
+    private final long elapsedNanos;
+
+    public BulkLoadResult(List<Integer> ids, long inserted, long updated, long elapsedNanos) {
+        this.ids = ids;
+        this.inserted = inserted;
+        this.updated = updated;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the id of each input row, in input order. Rows repeating the same key share one id.
+     */
+    public List<Integer> getIds() { return ids; }
+    public int getRowCount() { return ids.size(); }
+    public long getInserted() { return inserted; }
+    public long getUpdated() { return updated; }
+    public double getElapsedMillis() { return elapsedNanos / 1_000_000.0; }
+
+    /**
+     * Gets the number of input rows loaded per second, end to end (staging, merge and id lookup).
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos > 0 ? ids.size() * 1_000_000_000.0 / elapsedNanos : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Loaded %d rows (%d inserted, %d updated) in %.0f ms, %.0f rows/sec",
+            ids.size(), inserted, updated, getElapsedMillis(), getRowsPerSecond());
+    }
+}
@@ -1,174 +1,1185 @@
 package org.commerce.common;
 
+import org.commerce.enums.RemovalCause;
+import org.commerce.exceptions.CacheLoadException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
- * Generic cache manager with TTL (Time-To-Live) and LRU eviction support.
- * Thread-safe implementation for caching frequently accessed data.
+ * Generic cache manager with TTL (Time-To-Live) and CLOCK (second-chance) eviction.
+ * Reads are lock-free; inserts and removals take a short lock and evict in amortized O(1).
+ * Loads are single-flight: concurrent misses on one key share a single supplier call.
+ * getAll loads the misses of many keys with one bulk call, keeping single-flight per key.
+ * Optionally serves stale values while revalidating, and refreshes hot keys ahead of expiry.
+ * Every instance records hit/miss/load/eviction statistics and registers itself in CacheRegistry.
+ * Caches are bounded by entry count and, when given a Weigher, by total estimated bytes.
+ * An optional TinyLFU admission filter keeps rarely used keys from displacing popular ones.
+ * Entries may carry tags (e.g. "product:42") so writes can invalidate just the entries they affect.
+ * Caches can be written to a snapshot file on shutdown and restored lazily on startup.
+ * An optional off-heap tier keeps serialized copies of entries evicted for size.
  */
-public class CacheManager<K, V> {
-    
-    private final Map<K, CacheEntry<V>> cache;
+public final class CacheManager<K, V> {
+
+    private static final long DEFAULT_LOAD_TIMEOUT_MILLIS = 30000;
+    private static final AtomicInteger UNNAMED_COUNTER = new AtomicInteger();
+
+    // Entries measured when estimating memory
+    private static final int MEMORY_SAMPLE_SIZE = 64;
+
+    // Approximate per-entry overhead: clock node + map node
+    private static final long ENTRY_OVERHEAD_BYTES = 72;
+
+    // Longest a restored snapshot is kept; its file is held on the heap until dropped
+    private static final long SNAPSHOT_RETENTION_MILLIS = 10 * 60_000;
+
+    // Small shared pool for background refreshes; excess refreshes are dropped, not queued forever
+    private static final ExecutorService REFRESH_EXECUTOR = createRefreshExecutor();
+
+    private final String name;
+    private final ConcurrentHashMap<K, Node<K, V>> cache;
     private final long ttlMillis;
     private final int maxSize;
-    
+    private final long maxWeight;
+    private final Weigher<? super V> weigher;
+
+    // Sum of entry weights, guarded by the lock
+    private long totalWeight = 0;
+
+    // Loads currently running, keyed by cache key
+    private final ConcurrentHashMap<K, Load<V>> inFlight = new ConcurrentHashMap<>();
+    private volatile long loadTimeoutMillis = DEFAULT_LOAD_TIMEOUT_MILLIS;
+
+    // How long past its TTL a value may still be served while it reloads (0 = disabled)
+    private volatile long staleWhileRevalidateMillis = 0;
+
+    // Window before expiry in which a read triggers a background reload (0 = disabled)
+    private volatile long refreshAheadMillis = 0;
+
+    // Access frequencies for admission decisions (null = admit everything)
+    private volatile FrequencySketch<K> admissionSketch;
+
+    // Guards the clock ring and all structural changes to the map
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Sentinel of the circular clock ring; sentinel.next is the clock hand
+    private final Node<K, V> ring = new Node<>(null, null, 0, 0, Set.of());
+
+    // Keys carrying each tag, guarded by the lock
+    private final Map<String, Set<K>> tagIndex = new HashMap<>();
+
+    // Restored snapshot whose values have not been requested yet (null = none),
+    // and when it is dropped even if some of its keys were never requested
+    private volatile CacheSnapshot<K, V> snapshot;
+    private volatile long snapshotDeadline;
+
+    // Serialized entries evicted from this (on-heap) tier (null = disabled)
+    private volatile OffHeapTier<K, V> offHeap;
+
+    // Position of the incremental expiry sweep (weakly consistent iterator)
+    private final Object sweepMonitor = new Object();
+    private Iterator<Node<K, V>> sweepCursor;
+
+    // Statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadNanos = new LongAdder();
+    private final LongAdder admissionRejections = new LongAdder();
+    private final LatencyHistogram loadLatency = new LatencyHistogram();
+    private final LongAdder[] evictions = new LongAdder[RemovalCause.values().length];
+
     /**
      * Creates a cache manager with TTL and max size.
-     * 
+     *
      * @param ttlMillis Time-to-live in milliseconds (0 for no expiration)
-     * @param maxSize Maximum cache size (uses LRU eviction when exceeded)
+     * @param maxSize Maximum cache size (uses CLOCK eviction when exceeded)
      */
     public CacheManager(long ttlMillis, int maxSize) {
+        this("cache-" + UNNAMED_COUNTER.incrementAndGet(), ttlMillis, maxSize);
+    }
+
+    /**
+     * Creates a named cache manager with TTL and max size.
+     *
+     * @param name Name shown in statistics and the cache registry
+     * @param ttlMillis Time-to-live in milliseconds (0 for no expiration)
+     * @param maxSize Maximum cache size (uses CLOCK eviction when exceeded)
+     */
+    public CacheManager(String name, long ttlMillis, int maxSize) {
+        this(name, ttlMillis, maxSize, Long.MAX_VALUE, null);
+    }
+
+    /**
+     * Creates a named cache manager bounded by total weight (estimated bytes).
+     *
+     * @param name Name shown in statistics and the cache registry
+     * @param ttlMillis Time-to-live in milliseconds (0 for no expiration)
+     * @param maxWeight Maximum sum of entry weights
+     * @param weigher Computes the weight of each value, see Weighers
+     */
+    public CacheManager(String name, long ttlMillis, long maxWeight, Weigher<? super V> weigher) {
+        this(name, ttlMillis, Integer.MAX_VALUE, maxWeight, weigher);
+    }
+
+    /**
+     * Creates a named cache manager bounded by both entry count and total weight.
+     *
+     * @param name Name shown in statistics and the cache registry
+     * @param ttlMillis Time-to-live in milliseconds (0 for no expiration)
+     * @param maxSize Maximum number of entries
+     * @param maxWeight Maximum sum of entry weights (ignored without a weigher)
+     * @param weigher Computes the weight of each value, or null for count-only bounds
+     */
+    public CacheManager(String name, long ttlMillis, int maxSize, long maxWeight, Weigher<? super V> weigher) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if (weigher != null && maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache weight must be positive");
+        }
+        this.name = name;
         this.ttlMillis = ttlMillis;
         this.maxSize = maxSize;
-        
-        // Thread-safe cache with LRU eviction
+        this.maxWeight = weigher != null ? maxWeight : Long.MAX_VALUE;
+        this.weigher = weigher;
         this.cache = new ConcurrentHashMap<>();
+        ring.prev = ring;
+        ring.next = ring;
+        for (int i = 0; i < evictions.length; i++) {
+            evictions[i] = new LongAdder();
+        }
+        // Last, once every field is set; the class is final so no subclass state is pending
+        CacheRegistry.register(this);
+    }
+
+    /**
+     * Gets the cache name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets how long a caller waits for a load started by another thread.
+     *
+     * @param loadTimeoutMillis Wait limit in milliseconds
+     */
+    public void setLoadTimeout(long loadTimeoutMillis) {
+        this.loadTimeoutMillis = loadTimeoutMillis;
+    }
+
+    /**
+     * Serves expired values for up to maxStaleMillis past their TTL while a
+     * background reload runs, instead of blocking the caller on the reload.
+     *
+     * @param maxStaleMillis How long past expiry a value may be served (0 disables)
+     */
+    public void enableStaleWhileRevalidate(long maxStaleMillis) {
+        this.staleWhileRevalidateMillis = Math.max(0, maxStaleMillis);
+    }
+
+    /**
+     * Reloads entries in the background when they are read within
+     * windowMillis of expiring, so hot keys never expire under readers.
+     *
+     * @param windowMillis Refresh window before expiry (0 disables)
+     */
+    public void enableRefreshAhead(long windowMillis) {
+        this.refreshAheadMillis = Math.max(0, windowMillis);
+    }
+
+    /**
+     * Admits a new key into a full cache only if it has been accessed more often
+     * than the entry that would be evicted for it (TinyLFU). One-off keys such as
+     * typed-ahead search prefixes then no longer push out frequently used entries.
+     *
+     * @param expectedEntries Roughly how many entries the cache holds, used to size the sketch
+     */
+    public void enableAdmissionFilter(int expectedEntries) {
+        this.admissionSketch = new FrequencySketch<>(expectedEntries);
+    }
+
+    /**
+     * Moves entries evicted for size into an off-heap buffer of the given capacity
+     * instead of dropping them, and decodes them back on access. The on-heap bounds
+     * then only need to cover the hottest entries. When the buffer is full, the
+     * oldest off-heap entries are overwritten.
+     *
+     * @param capacityBytes Off-heap buffer size (at most 2 GB)
+     * @param codec Serializes values
+     */
+    public void enableOffHeapTier(long capacityBytes, Codec<V> codec) {
+        if (capacityBytes <= 0 || capacityBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap capacity must be between 1 byte and 2 GB");
+        }
+        this.offHeap = new OffHeapTier<>((int) capacityBytes, codec);
+    }
+
+    /**
+     * Gets the off-heap tier statistics, or null if the tier is not enabled.
+     */
+    public OffHeapStats getOffHeapStats() {
+        OffHeapTier<K, V> tier = offHeap;
+        return tier != null ? tier.getStats() : null;
     }
-    
+
     /**
      * Gets a value from cache or computes it if not present/expired.
-     * 
+     * Only one caller per key runs the supplier; the others wait for its result.
+     *
      * @param key The cache key
      * @param supplier Function to compute value if not cached
+     * @param tags Tags attached to the value when it is stored, see invalidateTag
      * @return The cached or computed value
+     * @throws CacheLoadException if waiting on another caller's load times out
      */
-    public V get(K key, Supplier<V> supplier) {
-        CacheEntry<V> entry = cache.get(key);
-        
-        // Check if cache hit and not expired
-        if (entry != null && !isExpired(entry)) {
-            entry.updateAccessTime();
-            return entry.getValue();
-        }
-        
-        // Cache miss or expired - compute and store
-        V value = supplier.get();
-        put(key, value);
-        return value;
+    public V get(K key, Supplier<V> supplier, String... tags) {
+        recordAccess(key);
+        Node<K, V> node = cache.get(key);
+
+        if (node != null) {
+            long age = System.currentTimeMillis() - node.creationTime;
+
+            // Cache hit - refresh in the background if close to expiry
+            if (!isExpired(node)) {
+                hits.increment();
+                node.referenced = true;
+                if (refreshAheadMillis > 0 && ttlMillis > 0 && age > ttlMillis - refreshAheadMillis) {
+                    refreshAsync(key, supplier, node.tags);
+                }
+                return node.value;
+            }
+
+            // Expired but still servable - hand out the stale value and revalidate
+            if (staleWhileRevalidateMillis > 0 && age <= ttlMillis + staleWhileRevalidateMillis) {
+                hits.increment();
+                node.referenced = true;
+                refreshAsync(key, supplier, node.tags);
+                return node.value;
+            }
+        }
+
+        // Cache miss or expired - compute once and share the result
+        misses.increment();
+        return load(key, supplier, tagSet(tags));
+    }
+
+    /**
+     * Runs the supplier for a key, or joins a load already in progress.
+     */
+    private V load(K key, Supplier<V> supplier, Set<String> tags) {
+        Load<V> future = new Load<>(tags);
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return await(key, running);
+        }
+
+        // Another loader may have finished between our miss and registering
+        Node<K, V> node = cache.get(key);
+        if (node != null && !isExpired(node)) {
+            future.complete(node.value);
+            inFlight.remove(key, future);
+            return node.value;
+        }
+
+        if (loadFromColdTiers(key, future)) {
+            return future.getNow(null);
+        }
+        return runLoad(key, supplier, future);
+    }
+
+    /**
+     * Gets the values for several keys, loading all misses with one bulk call.
+     * Loading stays single-flight per key: keys another caller is already loading
+     * are awaited rather than requested again, and concurrent get() calls for the
+     * keys handed to the bulk loader wait for its result.
+     *
+     * @param keys The cache keys
+     * @param bulkLoader Loads the missing keys; keys absent from its result are not cached
+     * @param tagger Tags attached to each loaded value, see invalidateTag
+     * @return Values in key order; keys with no value are omitted
+     * @throws CacheLoadException if waiting on another caller's load times out
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> bulkLoader,
+                            Function<? super K, String[]> tagger) {
+        Map<K, V> result = new LinkedHashMap<>();
+        Map<K, Load<V>> owned = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> joined = new LinkedHashMap<>();
+
+        for (K key : new LinkedHashSet<>(keys)) {
+            recordAccess(key);
+            Node<K, V> node = cache.get(key);
+            if (node != null && !isExpired(node)) {
+                hits.increment();
+                node.referenced = true;
+                result.put(key, node.value);
+                continue;
+            }
+            misses.increment();
+            Load<V> future = new Load<>(tagSet(tagger.apply(key)));
+            CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+            if (running != null) {
+                joined.put(key, running);
+            } else {
+                owned.put(key, future);
+            }
+            // Placeholder keeps the result in key order
+            result.put(key, null);
+        }
+
+        // Cold copies and loads finished since the miss need no database call
+        owned.entrySet().removeIf(entry -> {
+            K key = entry.getKey();
+            Load<V> future = entry.getValue();
+            Node<K, V> node = cache.get(key);
+            if (node != null && !isExpired(node)) {
+                future.complete(node.value);
+                inFlight.remove(key, future);
+                result.put(key, node.value);
+                return true;
+            }
+            if (loadFromColdTiers(key, future)) {
+                result.put(key, future.getNow(null));
+                return true;
+            }
+            return false;
+        });
+
+        if (!owned.isEmpty()) {
+            runBulkLoad(owned, bulkLoader, result);
+        }
+        for (Map.Entry<K, CompletableFuture<V>> entry : joined.entrySet()) {
+            result.put(entry.getKey(), await(entry.getKey(), entry.getValue()));
+        }
+        result.values().removeIf(Objects::isNull);
+        return result;
+    }
+
+    /**
+     * Gets the values for several keys without tagging loaded entries, see getAll above.
+     */
+    public Map<K, V> getAll(Collection<K> keys, Function<Set<K>, Map<K, V>> bulkLoader) {
+        return getAll(keys, bulkLoader, key -> new String[0]);
+    }
+
+    /**
+     * Runs the bulk loader for registered loads and publishes each result to its waiters.
+     */
+    private void runBulkLoad(Map<K, Load<V>> owned, Function<Set<K>, Map<K, V>> bulkLoader, Map<K, V> result) {
+        long start = System.nanoTime();
+        try {
+            Map<K, V> loaded = bulkLoader.apply(Collections.unmodifiableSet(owned.keySet()));
+            recordLoad(System.nanoTime() - start, true);
+            for (Map.Entry<K, Load<V>> entry : owned.entrySet()) {
+                K key = entry.getKey();
+                V value = loaded != null ? loaded.get(key) : null;
+                if (value != null) {
+                    putIfStillLoading(key, value, entry.getValue());
+                }
+                entry.getValue().complete(value);
+                result.put(key, value);
+            }
+        } catch (RuntimeException | Error e) {
+            recordLoad(System.nanoTime() - start, false);
+            owned.values().forEach(future -> future.completeExceptionally(e));
+            throw e;
+        } finally {
+            owned.forEach(inFlight::remove);
+        }
+    }
+
+    /**
+     * Completes a registered load from the off-heap tier or the restored snapshot.
+     *
+     * @return true if a cold copy was found and the load is complete
+     */
+    private boolean loadFromColdTiers(K key, Load<V> future) {
+        // An off-heap copy keeps its original age, so it expires on schedule
+        OffHeapTier.Promoted<V> promoted = takeFromOffHeap(key);
+        if (promoted != null) {
+            lock.lock();
+            try {
+                if (inFlight.get(key) == future) {
+                    store(key, promoted.value, promoted.tags, promoted.creationTime);
+                }
+            } finally {
+                lock.unlock();
+            }
+            future.complete(promoted.value);
+            inFlight.remove(key, future);
+            return true;
+        }
+
+        // A restored snapshot saves the trip to the database
+        V restored = takeFromSnapshot(key);
+        if (restored != null) {
+            runLoad(key, () -> restored, future);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Starts a background reload unless one is already running for the key.
+     */
+    private void refreshAsync(K key, Supplier<V> supplier, Set<String> tags) {
+        Load<V> future = new Load<>(tags);
+        if (inFlight.putIfAbsent(key, future) != null) {
+            return;
+        }
+        try {
+            REFRESH_EXECUTOR.execute(() -> {
+                try {
+                    runLoad(key, supplier, future);
+                } catch (RuntimeException | Error e) {
+                    // Keep serving the current value; the next read retries
+                    System.err.println("[CACHE] Background refresh failed for key " + key + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, future);
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * Runs the supplier for a registered load and publishes the result to waiters.
+     */
+    private V runLoad(K key, Supplier<V> supplier, Load<V> future) {
+        long start = System.nanoTime();
+        try {
+            V value = supplier.get();
+            recordLoad(System.nanoTime() - start, true);
+            putIfStillLoading(key, value, future);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            recordLoad(System.nanoTime() - start, false);
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Waits for another caller's load of the same key.
+     */
+    private V await(K key, CompletableFuture<V> running) {
+        try {
+            return running.get(loadTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new CacheLoadException(
+                "Timed out after " + loadTimeoutMillis + " ms waiting for cache load of key " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CacheLoadException("Interrupted while waiting for cache load of key " + key, e);
+        } catch (CancellationException e) {
+            throw new CacheLoadException("Cache load was cancelled for key " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CacheLoadException("Cache load failed for key " + key, cause);
+        }
+    }
+
+    /**
+     * Stores a loaded value unless the key was invalidated while it was loading,
+     * in which case the value may already be stale and is only handed to waiters.
+     */
+    private void putIfStillLoading(K key, V value, Load<V> future) {
+        lock.lock();
+        try {
+            if (inFlight.get(key) == future) {
+                store(key, value, future.tags, System.currentTimeMillis());
+            }
+        } finally {
+            lock.unlock();
+        }
     }
-    
+
     /**
      * Gets a value from cache without computing.
-     * 
+     *
      * @param key The cache key
      * @return Optional containing the value if present and not expired
      */
     public Optional<V> getIfPresent(K key) {
-        CacheEntry<V> entry = cache.get(key);
-        if (entry != null && !isExpired(entry)) {
-            entry.updateAccessTime();
-            return Optional.of(entry.getValue());
+        recordAccess(key);
+        Node<K, V> node = cache.get(key);
+        if (node != null && !isExpired(node)) {
+            hits.increment();
+            node.referenced = true;
+            return Optional.ofNullable(node.value);
         }
+        misses.increment();
         return Optional.empty();
     }
-    
+
+    /**
+     * Checks whether a fresh entry exists, without touching statistics or recency.
+     *
+     * @param key The cache key
+     * @return true if the key is cached and not expired
+     */
+    public boolean isCached(K key) {
+        Node<K, V> node = cache.get(key);
+        if (node != null && !isExpired(node)) {
+            return true;
+        }
+        CacheSnapshot<K, V> restored = liveSnapshot();
+        OffHeapTier<K, V> tier = offHeap;
+        return (restored != null && restored.contains(key)) || (tier != null && tier.contains(key));
+    }
+
     /**
-     * Puts a value into cache.
-     * 
+     * Puts a value into cache, evicting entries when the cache is full.
+     * With an admission filter, a new key may be rejected instead if it is
+     * used less often than the eviction victim. A load of the same key that
+     * is still running is detached, since the caller's value is newer.
+     *
      * @param key The cache key
      * @param value The value to cache
+     * @param tags Tags attached to the entry, see invalidateTag
+     */
+    public void put(K key, V value, String... tags) {
+        lock.lock();
+        try {
+            inFlight.remove(key);
+            discardColdCopies(key);
+            store(key, value, tagSet(tags), System.currentTimeMillis());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces a fresh entry with a value derived from it, keeping its tags and age,
+     * e.g. to patch a single element into a cached list after a write. A running
+     * load of the key is detached either way, since it may predate the change.
+     *
+     * @param key The cache key
+     * @param remapping Computes the new value from the cached one; null removes the entry
+     * @return true if an entry was present and updated
+     */
+    public boolean computeIfPresent(K key, UnaryOperator<V> remapping) {
+        lock.lock();
+        try {
+            inFlight.remove(key);
+            discardColdCopies(key);
+            Node<K, V> node = cache.get(key);
+            if (node == null || isExpired(node)) {
+                return false;
+            }
+            V value = remapping.apply(node.value);
+            if (value == null) {
+                removeNode(node, RemovalCause.EXPLICIT);
+            } else {
+                store(key, value, node.tags, node.creationTime);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Detaches running loads whose values would be stored with the given tag, so a
+     * load that may have read data from before a write cannot populate the cache.
+     * Snapshot and off-heap copies carrying the tag are discarded for the same reason.
+     *
+     * @param tag The tag whose loads to detach
+     */
+    public void cancelLoads(String tag) {
+        lock.lock();
+        try {
+            inFlight.values().removeIf(load -> load.tags.contains(tag));
+            CacheSnapshot<K, V> restored = liveSnapshot();
+            if (restored != null) {
+                restored.discardTag(tag);
+            }
+            OffHeapTier<K, V> tier = offHeap;
+            if (tier != null) {
+                tier.removeTag(tag);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets a snapshot of the currently cached keys, including expired ones not yet purged.
      */
-    public void put(K key, V value) {
-        // Enforce size limit with LRU eviction
-        if (cache.size() >= maxSize) {
-            evictLRU();
+    public Set<K> keys() {
+        return Set.copyOf(cache.keySet());
+    }
+
+    private void store(K key, V value, Set<String> tags, long creationTime) {
+        long weight = weigher != null ? Math.max(0, weigher.weigh(value)) : 0;
+        Node<K, V> node = new Node<>(key, value, creationTime, weight, tags);
+        lock.lock();
+        try {
+            Node<K, V> old = cache.get(key);
+
+            // A value larger than the whole budget is never cached
+            if (weight > maxWeight) {
+                if (old != null) {
+                    removeNode(old, RemovalCause.SIZE);
+                }
+                return;
+            }
+
+            if (old != null) {
+                unlink(old);
+                untag(old);
+                totalWeight -= old.weight;
+            } else if (!admit(key, weight)) {
+                admissionRejections.increment();
+                return;
+            }
+            // Make room first so the map never exceeds its bounds
+            while (((old == null && cache.size() >= maxSize) || totalWeight + weight > maxWeight) && evictOne()) {
+                // keep evicting
+            }
+            cache.put(key, node);
+            linkLast(node);
+            tag(node);
+            totalWeight += weight;
+        } finally {
+            lock.unlock();
         }
-        
-        cache.put(key, new CacheEntry<>(value, System.currentTimeMillis()));
     }
-    
+
     /**
      * Invalidates (removes) a specific cache entry.
-     * 
+     *
      * @param key The cache key to invalidate
      */
     public void invalidate(K key) {
-        cache.remove(key);
+        lock.lock();
+        try {
+            inFlight.remove(key);
+            discardColdCopies(key);
+            Node<K, V> node = cache.get(key);
+            if (node != null) {
+                removeNode(node, RemovalCause.EXPLICIT);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
-    
+
     /**
      * Clears all cache entries.
      */
     public void invalidateAll() {
-        cache.clear();
+        lock.lock();
+        try {
+            inFlight.clear();
+            snapshot = null;
+            OffHeapTier<K, V> tier = offHeap;
+            if (tier != null) {
+                tier.clear();
+            }
+            evictions[RemovalCause.EXPLICIT.ordinal()].add(cache.size());
+            cache.clear();
+            tagIndex.clear();
+            totalWeight = 0;
+            ring.prev = ring;
+            ring.next = ring;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalidates every entry carrying the given tag. Loads of tagged keys that are
+     * still running are detached, so they cannot store a value read before the change.
+     *
+     * @param tag The tag to invalidate, e.g. "product:42"
+     */
+    public void invalidateTag(String tag) {
+        lock.lock();
+        try {
+            cancelLoads(tag);
+            Set<K> keys = tagIndex.remove(tag);
+            if (keys == null) {
+                return;
+            }
+            for (K key : new ArrayList<>(keys)) {
+                Node<K, V> node = cache.get(key);
+                if (node != null) {
+                    removeNode(node, RemovalCause.EXPLICIT);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes the fresh entries of this cache to directory/name.snap, stamped with the
+     * catalog version they belong to.
+     *
+     * @param directory Directory holding snapshot files
+     * @param catalogVersion Version of the underlying data, checked on restore
+     * @param keyCodec Encodes keys
+     * @param valueCodec Encodes values
+     * @return Number of entries written
+     * @throws IOException if the file cannot be written
+     */
+    public int writeSnapshot(Path directory, String catalogVersion, Codec<K> keyCodec, Codec<V> valueCodec)
+            throws IOException {
+        Map<K, CacheSnapshot.SnapshotEntry<V>> entries = new LinkedHashMap<>();
+        for (Node<K, V> node : cache.values()) {
+            if (node.value != null && !isExpired(node)) {
+                entries.put(node.key, new CacheSnapshot.SnapshotEntry<>(node.value, node.tags));
+            }
+        }
+        return CacheSnapshot.write(snapshotFile(directory), catalogVersion, entries, keyCodec, valueCodec);
+    }
+
+    /**
+     * Reads directory/name.snap if it was written at the given catalog version. Values are
+     * decoded on first access, replacing the supplier call of a regular miss. A missing,
+     * corrupt or outdated file is ignored and the cache starts cold. The snapshot is
+     * dropped once every entry was taken, or after the TTL (at most ten minutes), so keys
+     * that are never requested do not keep the file on the heap.
+     *
+     * @param directory Directory holding snapshot files
+     * @param catalogVersion Current version of the underlying data
+     * @param keyCodec Decodes keys
+     * @param valueCodec Decodes values
+     * @return Number of entries available from the snapshot
+     */
+    public int restoreSnapshot(Path directory, String catalogVersion, Codec<K> keyCodec, Codec<V> valueCodec) {
+        CacheSnapshot<K, V> restored = CacheSnapshot.open(snapshotFile(directory), catalogVersion, keyCodec, valueCodec);
+        if (restored == null || restored.isEmpty()) {
+            return 0;
+        }
+        long retention = ttlMillis > 0 ? Math.min(ttlMillis, SNAPSHOT_RETENTION_MILLIS) : SNAPSHOT_RETENTION_MILLIS;
+        snapshotDeadline = System.currentTimeMillis() + retention;
+        snapshot = restored;
+        return restored.size();
+    }
+
+    private Path snapshotFile(Path directory) {
+        return directory.resolve(name + ".snap");
+    }
+
+    private V takeFromSnapshot(K key) {
+        CacheSnapshot<K, V> restored = liveSnapshot();
+        if (restored == null) {
+            return null;
+        }
+        V value = restored.take(key);
+        if (restored.isEmpty()) {
+            snapshot = null; // Release the file's bytes once everything was taken
+        }
+        return value;
+    }
+
+    /**
+     * Gets the restored snapshot, dropping it if its retention has passed.
+     */
+    private CacheSnapshot<K, V> liveSnapshot() {
+        CacheSnapshot<K, V> restored = snapshot;
+        if (restored != null && System.currentTimeMillis() >= snapshotDeadline) {
+            snapshot = null;
+            return null;
+        }
+        return restored;
+    }
+
+    private OffHeapTier.Promoted<V> takeFromOffHeap(K key) {
+        OffHeapTier<K, V> tier = offHeap;
+        if (tier == null) {
+            return null;
+        }
+        OffHeapTier.Promoted<V> promoted = tier.take(key);
+        if (promoted == null || (ttlMillis > 0 && System.currentTimeMillis() - promoted.creationTime > ttlMillis)) {
+            return null;
+        }
+        return promoted;
+    }
+
+    /**
+     * Drops the snapshot and off-heap copies of a key, which a write has made stale.
+     */
+    private void discardColdCopies(K key) {
+        CacheSnapshot<K, V> restored = liveSnapshot();
+        if (restored != null) {
+            restored.discard(key);
+        }
+        OffHeapTier<K, V> tier = offHeap;
+        if (tier != null) {
+            tier.remove(key);
+        }
     }
-    
+
     /**
      * Gets the current cache size.
      */
     public int size() {
         return cache.size();
     }
-    
+
+    /**
+     * Gets the sum of entry weights (0 when no weigher is configured).
+     */
+    public long weightedSize() {
+        lock.lock();
+        try {
+            return totalWeight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Checks if a cache entry is expired.
      */
-    private boolean isExpired(CacheEntry<V> entry) {
+    private boolean isExpired(Node<K, V> node) {
         if (ttlMillis <= 0) {
             return false; // No expiration
         }
-        return (System.currentTimeMillis() - entry.getCreationTime()) > ttlMillis;
+        return (System.currentTimeMillis() - node.creationTime) > ttlMillis;
+    }
+
+    /**
+     * Checks if a cache entry is past both its TTL and any stale-serving window.
+     */
+    private boolean isDead(Node<K, V> node) {
+        if (ttlMillis <= 0) {
+            return false;
+        }
+        return (System.currentTimeMillis() - node.creationTime) > ttlMillis + staleWhileRevalidateMillis;
+    }
+
+    /**
+     * Advances the clock hand and evicts the first entry that is expired or
+     * has not been referenced since the hand last passed it.
+     * Must be called while holding the lock.
+     *
+     * @return true if an entry was evicted
+     */
+    private boolean evictOne() {
+        Node<K, V> victim = selectVictim();
+        if (victim == null) {
+            return false;
+        }
+        if (isExpired(victim)) {
+            removeNode(victim, RemovalCause.EXPIRED);
+            return true;
+        }
+        removeNode(victim, RemovalCause.SIZE);
+        OffHeapTier<K, V> tier = offHeap;
+        if (tier != null && victim.value != null) {
+            tier.demote(victim.key, victim.value, victim.tags, victim.creationTime);
+        }
+        return true;
+    }
+
+    /**
+     * Advances the clock hand to the next entry to evict, without removing it.
+     * Must be called while holding the lock.
+     */
+    private Node<K, V> selectVictim() {
+        // Each pass clears reference bits, so the hand stops within two revolutions
+        while (ring.next != ring) {
+            Node<K, V> hand = ring.next;
+            if (hand.referenced && !isExpired(hand)) {
+                hand.referenced = false;
+                unlink(hand);
+                linkLast(hand);
+                continue;
+            }
+            return hand;
+        }
+        return null;
+    }
+
+    /**
+     * Decides whether a new key may enter the cache. Always true when the cache has
+     * room, admission is disabled or the victim has expired; otherwise the candidate
+     * must be estimated more frequent than the victim. Must be called while holding the lock.
+     */
+    private boolean admit(K key, long weight) {
+        FrequencySketch<K> sketch = admissionSketch;
+        if (sketch == null || (cache.size() < maxSize && totalWeight + weight <= maxWeight)) {
+            return true;
+        }
+        Node<K, V> victim = selectVictim();
+        if (victim == null || isExpired(victim)) {
+            return true;
+        }
+        return sketch.frequency(key) > sketch.frequency(victim.key);
+    }
+
+    private void recordAccess(K key) {
+        FrequencySketch<K> sketch = admissionSketch;
+        if (sketch != null) {
+            sketch.increment(key);
+        }
+    }
+
+    /**
+     * Removes a node from the map and ring and updates weight and statistics.
+     * Must be called while holding the lock.
+     */
+    private void removeNode(Node<K, V> node, RemovalCause cause) {
+        if (cache.remove(node.key, node)) {
+            unlink(node);
+            untag(node);
+            totalWeight -= node.weight;
+            recordEviction(cause);
+        }
+    }
+
+    /**
+     * Adds a node's key to the index of each of its tags. Must be called while holding the lock.
+     */
+    private void tag(Node<K, V> node) {
+        for (String tag : node.tags) {
+            tagIndex.computeIfAbsent(tag, t -> new HashSet<>()).add(node.key);
+        }
     }
-    
+
     /**
-     * Evicts the least recently used entry.
+     * Removes a node's key from the index of each of its tags. Must be called while holding the lock.
      */
-    private void evictLRU() {
-        K oldestKey = null;
-        long oldestAccessTime = Long.MAX_VALUE;
-        
-        for (Map.Entry<K, CacheEntry<V>> entry : cache.entrySet()) {
-            long accessTime = entry.getValue().getLastAccessTime();
-            if (accessTime < oldestAccessTime) {
-                oldestAccessTime = accessTime;
-                oldestKey = entry.getKey();
+    private void untag(Node<K, V> node) {
+        for (String tag : node.tags) {
+            Set<K> keys = tagIndex.get(tag);
+            if (keys != null && keys.remove(node.key) && keys.isEmpty()) {
+                tagIndex.remove(tag);
             }
         }
-        
-        if (oldestKey != null) {
-            cache.remove(oldestKey);
+    }
+
+    private static Set<String> tagSet(String... tags) {
+        return tags == null || tags.length == 0 ? Set.of() : Set.copyOf(Arrays.asList(tags));
+    }
+
+    private void linkLast(Node<K, V> node) {
+        node.prev = ring.prev;
+        node.next = ring;
+        ring.prev.next = node;
+        ring.prev = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        if (node.prev == null) {
+            return;
         }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
     }
-    
+
     /**
-     * Removes expired entries from cache.
+     * Removes all expired entries from cache.
+     * Entries are removed one at a time, so readers and writers are never blocked for the whole scan.
      */
     public void cleanUp() {
-        cache.entrySet().removeIf(entry -> isExpired(entry.getValue()));
+        sweepExpired(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Examines up to budget entries, continuing where the previous sweep stopped,
+     * and removes those past their TTL (and stale window). Also drops a restored
+     * snapshot whose retention has passed. Called periodically by CacheSweeper.
+     *
+     * @param budget Maximum number of entries to examine
+     * @return Number of entries removed
+     */
+    int sweepExpired(int budget) {
+        liveSnapshot();
+        if (ttlMillis <= 0) {
+            return 0;
+        }
+        synchronized (sweepMonitor) {
+            int examined = 0;
+            int removed = 0;
+            while (examined < budget) {
+                if (sweepCursor == null || !sweepCursor.hasNext()) {
+                    // Start a new pass, but never revisit entries within one call
+                    if (sweepCursor != null && examined > 0) {
+                        sweepCursor = null;
+                        break;
+                    }
+                    sweepCursor = cache.values().iterator();
+                    if (!sweepCursor.hasNext()) {
+                        break;
+                    }
+                }
+                Node<K, V> node = sweepCursor.next();
+                examined++;
+                if (isDead(node) && removeIfSame(node)) {
+                    removed++;
+                }
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * Removes a node only if it is still the current mapping for its key.
+     */
+    private boolean removeIfSame(Node<K, V> node) {
+        lock.lock();
+        try {
+            if (cache.get(node.key) == node) {
+                removeNode(node, RemovalCause.EXPIRED);
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void recordLoad(long nanos, boolean success) {
+        (success ? loadSuccesses : loadFailures).increment();
+        totalLoadNanos.add(nanos);
+        loadLatency.record(nanos);
+    }
+
+    private void recordEviction(RemovalCause cause) {
+        evictions[cause.ordinal()].increment();
+    }
+
+    /**
+     * Gets a snapshot of this cache's statistics.
+     */
+    public CacheStats getStats() {
+        return new CacheStats(
+            name,
+            cache.size(),
+            maxSize,
+            hits.sum(),
+            misses.sum(),
+            loadSuccesses.sum(),
+            loadFailures.sum(),
+            totalLoadNanos.sum(),
+            loadLatency.percentileMillis(50),
+            loadLatency.percentileMillis(95),
+            loadLatency.percentileMillis(99),
+            evictions[RemovalCause.SIZE.ordinal()].sum(),
+            evictions[RemovalCause.EXPIRED.ordinal()].sum(),
+            evictions[RemovalCause.EXPLICIT.ordinal()].sum(),
+            weigher != null ? weightedSize() : estimateMemory(),
+            weightedSize(),
+            weigher != null ? maxWeight : 0,
+            admissionRejections.sum()
+        );
+    }
+
+    /**
+     * Estimates heap usage by measuring a sample of entries and extrapolating.
+     */
+    private long estimateMemory() {
+        int size = cache.size();
+        if (size == 0) {
+            return 0;
+        }
+        long sampled = 0;
+        int count = 0;
+        Iterator<Node<K, V>> it = cache.values().iterator();
+        while (it.hasNext() && count < MEMORY_SAMPLE_SIZE) {
+            Node<K, V> node = it.next();
+            sampled += ENTRY_OVERHEAD_BYTES + MemoryEstimator.estimate(node.key) + MemoryEstimator.estimate(node.value);
+            count++;
+        }
+        return count > 0 ? sampled * size / count : 0;
+    }
+
+    private static ExecutorService createRefreshExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            2, 2, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(256),
+            r -> {
+                Thread t = new Thread(r, "cache-refresh-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
-    
+
     /**
-     * Inner class representing a cache entry with timestamps.
+     * Inner class representing a cache entry and its position in the clock ring.
      */
-    private static class CacheEntry<V> {
+    private static class Node<K, V> {
+        private final K key;
         private final V value;
         private final long creationTime;
-        private volatile long lastAccessTime;
-        
-        public CacheEntry(V value, long creationTime) {
+        private final long weight;
+        private final Set<String> tags;
+
+        // Set on every read, cleared when the clock hand passes
+        private volatile boolean referenced;
+
+        // Ring links, guarded by the cache lock
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(K key, V value, long creationTime, long weight, Set<String> tags) {
+            this.key = key;
             this.value = value;
             this.creationTime = creationTime;
-            this.lastAccessTime = creationTime;
-        }
-        
-        public V getValue() {
-            return value;
-        }
-        
-        public long getCreationTime() {
-            return creationTime;
-        }
-        
-        public long getLastAccessTime() {
-            return lastAccessTime;
+            this.weight = weight;
+            this.tags = tags;
         }
-        
-        public void updateAccessTime() {
-            this.lastAccessTime = System.currentTimeMillis();
+    }
+
+    /**
+     * A running load, remembering the tags its value will be stored with.
+     */
+    private static class Load<V> extends CompletableFuture<V> {
+        private final Set<String> tags;
+
+        Load(Set<String> tags) {
+            this.tags = tags;
         }
     }
 }
@@ -0,0 +1,76 @@
+package org.commerce.common;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Registry of all live CacheManager instances.
+ * Caches register themselves on construction; entries are weakly held so a
+ * discarded service does not keep its caches alive.
+ */
+public class CacheRegistry {
+
+    private static final ConcurrentLinkedQueue<WeakReference<CacheManager<?, ?>>> caches =
+        new ConcurrentLinkedQueue<>();
+
+    private CacheRegistry() {
+    }
+
+    /**
+     * Registers a cache. Called by the CacheManager constructor.
+     */
+    static void register(CacheManager<?, ?> cache) {
+        caches.add(new WeakReference<>(cache));
+        CacheSweeper.ensureStarted();
+    }
+
+    /**
+     * Gets all live caches, dropping references to collected ones.
+     */
+    public static List<CacheManager<?, ?>> getAll() {
+        List<CacheManager<?, ?>> live = new ArrayList<>();
+        Iterator<WeakReference<CacheManager<?, ?>>> it = caches.iterator();
+        while (it.hasNext()) {
+            CacheManager<?, ?> cache = it.next().get();
+            if (cache == null) {
+                it.remove();
+            } else {
+                live.add(cache);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Gets a statistics snapshot for every live cache.
+     */
+    public static List<CacheStats> snapshot() {
+        List<CacheStats> stats = new ArrayList<>();
+        for (CacheManager<?, ?> cache : getAll()) {
+            stats.add(cache.getStats());
+        }
+        return stats;
+    }
+
+    /**
+     * Prints a statistics report for every live cache to console.
+     */
+    public static void printReport() {
+        System.out.println("\n============ CACHE REPORT ============");
+        List<CacheManager<?, ?>> all = getAll();
+        if (all.isEmpty()) {
+            System.out.println("No caches registered.");
+        }
+        for (CacheManager<?, ?> cache : all) {
+            System.out.println(cache.getStats());
+            OffHeapStats offHeap = cache.getOffHeapStats();
+            if (offHeap != null) {
+                System.out.println("  " + offHeap);
+            }
+        }
+        System.out.println("======================================\n");
+    }
+}
@@ -0,0 +1,181 @@
+package org.commerce.common;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * On-disk snapshot of a cache, used to start warm after a restart.
+ * The file holds a header with the catalog version it was taken at, followed by
+ * entries of key, tags and length-prefixed value. Opening a snapshot reads the
+ * file into memory and indexes only the keys; values are decoded when first requested.
+ * The file is read rather than memory-mapped: a live mapping keeps it open, and on
+ * Windows the next save could not replace it.
+ *
+ * Layout: magic, format version, catalog version, entry count,
+ * then per entry: key, tag count, tags, value length, value bytes.
+ */
+final class CacheSnapshot<K, V> {
+
+    private static final int MAGIC = 0x43534E50; // "CSNP"
+    private static final int FORMAT_VERSION = 1;
+
+    private final ByteBuffer buffer;
+    private final Codec<V> valueCodec;
+    private final Map<K, Entry> entries;
+
+    private CacheSnapshot(ByteBuffer buffer, Codec<V> valueCodec, Map<K, Entry> entries) {
+        this.buffer = buffer;
+        this.valueCodec = valueCodec;
+        this.entries = entries;
+    }
+
+    /**
+     * Writes entries to a temporary file and atomically moves it into place.
+     *
+     * @return Number of entries written
+     */
+    static <K, V> int write(Path file, String catalogVersion, Map<K, SnapshotEntry<V>> values,
+                            Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        ByteArrayOutputStream valueBytes = new ByteArrayOutputStream();
+        DataOutputStream valueOut = new DataOutputStream(valueBytes);
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            EntityCodecs.writeString(catalogVersion, out);
+            out.writeInt(values.size());
+            for (Map.Entry<K, SnapshotEntry<V>> entry : values.entrySet()) {
+                keyCodec.write(entry.getKey(), out);
+                Set<String> tags = entry.getValue().tags;
+                out.writeInt(tags.size());
+                for (String tag : tags) {
+                    EntityCodecs.writeString(tag, out);
+                }
+                valueBytes.reset();
+                valueCodec.write(entry.getValue().value, valueOut);
+                out.writeInt(valueBytes.size());
+                valueBytes.writeTo(out);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return values.size();
+    }
+
+    /**
+     * Reads a snapshot file and indexes its keys.
+     *
+     * @return The snapshot, or null if the file is missing, corrupt or from another catalog version
+     */
+    static <K, V> CacheSnapshot<K, V> open(Path file, String catalogVersion, Codec<K> keyCodec, Codec<V> valueCodec) {
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("[CACHE] Could not read snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                System.err.println("[CACHE] Ignoring snapshot " + file + ": unknown format");
+                return null;
+            }
+            String snapshotVersion = EntityCodecs.readString(buffer);
+            if (!catalogVersion.equals(snapshotVersion)) {
+                System.out.println("[CACHE] Snapshot " + file.getFileName() + " is out of date, starting cold");
+                return null;
+            }
+            int count = buffer.getInt();
+            Map<K, Entry> entries = new ConcurrentHashMap<>(Math.max(16, count * 2));
+            for (int i = 0; i < count; i++) {
+                K key = keyCodec.read(buffer);
+                int tagCount = buffer.getInt();
+                Set<String> tags = new HashSet<>(tagCount * 2);
+                for (int t = 0; t < tagCount; t++) {
+                    tags.add(EntityCodecs.readString(buffer));
+                }
+                int length = buffer.getInt();
+                entries.put(key, new Entry(buffer.position(), Set.copyOf(tags)));
+                buffer.position(buffer.position() + length);
+            }
+            return new CacheSnapshot<>(buffer, valueCodec, entries);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("[CACHE] Ignoring corrupt snapshot " + file);
+            return null;
+        }
+    }
+
+    /**
+     * Decodes and removes the value for a key, or returns null if the snapshot does not have it.
+     */
+    V take(K key) {
+        Entry entry = entries.remove(key);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            return valueCodec.read(buffer.duplicate().position(entry.offset));
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    void discard(K key) {
+        entries.remove(key);
+    }
+
+    void discardTag(String tag) {
+        entries.values().removeIf(entry -> entry.tags.contains(tag));
+    }
+
+    boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * A value and its tags as captured for writing.
+     */
+    static final class SnapshotEntry<V> {
+        private final V value;
+        private final Set<String> tags;
+
+        SnapshotEntry(V value, Set<String> tags) {
+            this.value = value;
+            this.tags = tags;
+        }
+    }
+
+    private static final class Entry {
+        private final int offset;
+        private final Set<String> tags;
+
+        Entry(int offset, Set<String> tags) {
+            this.offset = offset;
+            this.tags = tags;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.commerce.common;
+
+/**
+ * Immutable snapshot of a cache's statistics.
+ * Obtained from CacheManager.getStats() or CacheRegistry.snapshot().
+ */
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long totalLoadTimeNanos;
+    private final double loadP50Millis;
+    private final double loadP95Millis;
+    private final double loadP99Millis;
+    private final long sizeEvictionCount;
+    private final long expiredEvictionCount;
+    private final long explicitEvictionCount;
+    private final long estimatedMemoryBytes;
+    private final long weightedSize;
+    private final long maxWeight;
+    private final long admissionRejectionCount;
+
+    public CacheStats(String name, int size, int maxSize, long hitCount, long missCount,
+                      long loadSuccessCount, long loadFailureCount, long totalLoadTimeNanos,
+                      double loadP50Millis, double loadP95Millis, double loadP99Millis,
+                      long sizeEvictionCount, long expiredEvictionCount, long explicitEvictionCount,
+                      long estimatedMemoryBytes, long weightedSize, long maxWeight,
+                      long admissionRejectionCount) {
+        this.name = name;
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.totalLoadTimeNanos = totalLoadTimeNanos;
+        this.loadP50Millis = loadP50Millis;
+        this.loadP95Millis = loadP95Millis;
+        this.loadP99Millis = loadP99Millis;
+        this.sizeEvictionCount = sizeEvictionCount;
+        this.expiredEvictionCount = expiredEvictionCount;
+        this.explicitEvictionCount = explicitEvictionCount;
+        this.estimatedMemoryBytes = estimatedMemoryBytes;
+        this.weightedSize = weightedSize;
+        this.maxWeight = maxWeight;
+        this.admissionRejectionCount = admissionRejectionCount;
+    }
+
+    public String getName() { return name; }
+    public int getSize() { return size; }
+    public int getMaxSize() { return maxSize; }
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+    public long getLoadSuccessCount() { return loadSuccessCount; }
+    public long getLoadFailureCount() { return loadFailureCount; }
+    public long getTotalLoadTimeNanos() { return totalLoadTimeNanos; }
+    public double getLoadP50Millis() { return loadP50Millis; }
+    public double getLoadP95Millis() { return loadP95Millis; }
+    public double getLoadP99Millis() { return loadP99Millis; }
+    public long getSizeEvictionCount() { return sizeEvictionCount; }
+    public long getExpiredEvictionCount() { return expiredEvictionCount; }
+    public long getExplicitEvictionCount() { return explicitEvictionCount; }
+    public long getEstimatedMemoryBytes() { return estimatedMemoryBytes; }
+    public long getWeightedSize() { return weightedSize; }
+
+    /**
+     * Gets the weight bound, or 0 if the cache is bounded by entry count only.
+     */
+    public long getMaxWeight() { return maxWeight; }
+
+    /**
+     * Gets how many new entries the admission filter turned away.
+     */
+    public long getAdmissionRejectionCount() { return admissionRejectionCount; }
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Fraction of requests served from cache (0.0 - 1.0).
+     */
+    public double getHitRate() {
+        long requests = getRequestCount();
+        return requests > 0 ? (double) hitCount / requests : 0;
+    }
+
+    public long getLoadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    public double getAverageLoadMillis() {
+        long loads = getLoadCount();
+        return loads > 0 ? totalLoadTimeNanos / 1_000_000.0 / loads : 0;
+    }
+
+    public long getEvictionCount() {
+        return sizeEvictionCount + expiredEvictionCount + explicitEvictionCount;
+    }
+
+    @Override
+    public String toString() {
+        String bounds = maxWeight > 0
+            ? String.format("%d entries, %.1f/%.1f MB", size, weightedSize / 1048576.0, maxWeight / 1048576.0)
+            : String.format("%d/%d entries, ~%.1f KB", size, maxSize, estimatedMemoryBytes / 1024.0);
+        return String.format(
+            "%s: %s, %d hits / %d misses (%.1f%% hit rate), %d loads avg %.2f ms p95 %.2f ms p99 %.2f ms, " +
+            "evictions size=%d ttl=%d explicit=%d, rejected=%d",
+            name, bounds, hitCount, missCount, getHitRate() * 100,
+            getLoadCount(), getAverageLoadMillis(), loadP95Millis, loadP99Millis,
+            sizeEvictionCount, expiredEvictionCount, explicitEvictionCount, admissionRejectionCount
+        );
+    }
+}
@@ -0,0 +1,103 @@
+package org.commerce.common;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared background sweeper that purges expired entries from every registered cache.
+ * A single daemon thread visits each cache on a fixed cadence and examines at most
+ * a fixed budget of entries per cache per run, so no run scans a whole cache at once.
+ *
+ * Cadence and budget default to CACHE_SWEEP_INTERVAL_MS and CACHE_SWEEP_BUDGET
+ * environment variables and can be changed at runtime with configure().
+ */
+public class CacheSweeper {
+
+    private static final long DEFAULT_INTERVAL_MILLIS = 5000;
+    private static final int DEFAULT_BUDGET = 1000;
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cache-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static ScheduledFuture<?> task;
+    private static long intervalMillis = longEnv("CACHE_SWEEP_INTERVAL_MS", DEFAULT_INTERVAL_MILLIS);
+    private static volatile int budget = (int) longEnv("CACHE_SWEEP_BUDGET", DEFAULT_BUDGET);
+    private static volatile long lastRunRemoved = 0;
+    private static volatile long totalRemoved = 0;
+
+    private CacheSweeper() {
+    }
+
+    /**
+     * Starts the sweeper if it is not running. Called when the first cache registers.
+     */
+    static synchronized void ensureStarted() {
+        if (task == null && intervalMillis > 0) {
+            task = scheduler.scheduleWithFixedDelay(CacheSweeper::sweep, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Changes the sweep cadence and per-cache budget.
+     *
+     * @param intervalMillis Delay between runs in milliseconds (0 stops the sweeper)
+     * @param budget Maximum entries examined per cache per run
+     */
+    public static synchronized void configure(long intervalMillis, int budget) {
+        CacheSweeper.intervalMillis = intervalMillis;
+        CacheSweeper.budget = Math.max(1, budget);
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        ensureStarted();
+    }
+
+    /**
+     * Runs one sweep over all registered caches.
+     */
+    static void sweep() {
+        long removed = 0;
+        for (CacheManager<?, ?> cache : CacheRegistry.getAll()) {
+            try {
+                removed += cache.sweepExpired(budget);
+            } catch (RuntimeException e) {
+                System.err.println("[CACHE] Sweep failed for " + cache.getName() + ": " + e.getMessage());
+            }
+        }
+        lastRunRemoved = removed;
+        totalRemoved += removed;
+    }
+
+    /**
+     * Gets the number of entries removed by the most recent run.
+     */
+    public static long getLastRunRemoved() {
+        return lastRunRemoved;
+    }
+
+    /**
+     * Gets the number of entries removed since startup.
+     */
+    public static long getTotalRemoved() {
+        return totalRemoved;
+    }
+
+    private static long longEnv(String name, long defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid " + name + "=" + value);
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.commerce.common;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary encoding of cache keys and values, used for cache snapshots.
+ * Values are written with DataOutput and read back from a ByteBuffer.
+ *
+ * @param <T> Encoded type
+ */
+public interface Codec<T> {
+
+    void write(T value, DataOutput out) throws IOException;
+
+    T read(ByteBuffer in);
+}
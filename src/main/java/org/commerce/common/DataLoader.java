@@ -0,0 +1,88 @@
+package org.commerce.common;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Collects lookups by key during one render pass and resolves them with a single
+ * batch call, instead of one query per rendered row or card. Callers queue keys
+ * with load() and attach callbacks; dispatch() runs the batch and completes every
+ * caller together. A loader is meant to live for one pass: it remembers each
+ * key's future, so repeated lookups of the same key share one result.
+ */
+public class DataLoader<K, V> {
+    private final Function<Set<K>, Map<K, V>> batchLoader;
+
+    // Every key requested in this pass, and the keys not yet dispatched
+    private final Map<K, CompletableFuture<V>> futures = new HashMap<>();
+    private final Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * Creates a loader backed by a batch lookup.
+     *
+     * @param batchLoader Looks up all queued keys at once; keys missing from its result resolve to null
+     */
+    public DataLoader(Function<Set<K>, Map<K, V>> batchLoader) {
+        this.batchLoader = batchLoader;
+    }
+
+    /**
+     * Queues a key for the next dispatch.
+     *
+     * @param key The key to look up
+     * @return Completes with the key's value (or null) when the loader is dispatched
+     */
+    public synchronized CompletableFuture<V> load(K key) {
+        return futures.computeIfAbsent(key, k -> {
+            CompletableFuture<V> future = new CompletableFuture<>();
+            pending.put(k, future);
+            return future;
+        });
+    }
+
+    /**
+     * Resolves every queued key with one batch call. Callbacks attached to the
+     * futures run on the calling thread. If the batch fails, every queued future
+     * completes exceptionally with the failure.
+     *
+     * @return true if any keys were queued
+     */
+    public boolean dispatch() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return false;
+            }
+            batch = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+
+        Map<K, V> values;
+        try {
+            values = batchLoader.apply(batch.keySet());
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+            return true;
+        }
+        batch.forEach((key, future) -> future.complete(values != null ? values.get(key) : null));
+        return true;
+    }
+
+    /**
+     * Dispatches several loaders, e.g. all lookups queued while rendering one view.
+     * Repeats until no loader has queued keys, so callbacks may issue further lookups.
+     */
+    public static void dispatchAll(DataLoader<?, ?>... loaders) {
+        boolean dispatched;
+        do {
+            dispatched = false;
+            for (DataLoader<?, ?> loader : loaders) {
+                dispatched |= loader.dispatch();
+            }
+        } while (dispatched);
+    }
+}
@@ -0,0 +1,183 @@
+package org.commerce.common;
+
+import org.commerce.daos.entities.Categories;
+import org.commerce.daos.entities.Product;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary codecs for the entities kept in snapshotted caches.
+ * Strings are length-prefixed UTF-8 (length -1 for null); timestamps are
+ * epoch seconds plus nanos with a presence flag.
+ */
+public final class EntityCodecs {
+
+    public static final Codec<String> STRING = new Codec<>() {
+        @Override
+        public void write(String value, DataOutput out) throws IOException {
+            writeString(value, out);
+        }
+
+        @Override
+        public String read(ByteBuffer in) {
+            return readString(in);
+        }
+    };
+
+    public static final Codec<Integer> INTEGER = new Codec<>() {
+        @Override
+        public void write(Integer value, DataOutput out) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public Integer read(ByteBuffer in) {
+            return in.getInt();
+        }
+    };
+
+    public static final Codec<Product> PRODUCT = new Codec<>() {
+        @Override
+        public void write(Product product, DataOutput out) throws IOException {
+            out.writeInt(product.getId());
+            writeString(product.getProductName(), out);
+            writeString(product.getDescription(), out);
+            writeDecimal(product.getPrice(), out);
+            out.writeInt(product.getCategoryId());
+            writeDateTime(product.getCreatedAt(), out);
+            writeDateTime(product.getUpdatedAt(), out);
+        }
+
+        @Override
+        public Product read(ByteBuffer in) {
+            Product product = new Product();
+            product.setId(in.getInt());
+            product.setProductName(readString(in));
+            product.setDescription(readString(in));
+            product.setPrice(readDecimal(in));
+            product.setCategoryId(in.getInt());
+            product.setCreatedAt(readDateTime(in));
+            product.setUpdatedAt(readDateTime(in));
+            return product;
+        }
+    };
+
+    public static final Codec<Categories> CATEGORY = new Codec<>() {
+        @Override
+        public void write(Categories category, DataOutput out) throws IOException {
+            out.writeInt(category.getId());
+            writeString(category.getCategoryName(), out);
+            writeString(category.getDescription(), out);
+            writeDateTime(category.getCreatedAt(), out);
+            writeDateTime(category.getUpdatedAt(), out);
+        }
+
+        @Override
+        public Categories read(ByteBuffer in) {
+            Categories category = new Categories();
+            category.setId(in.getInt());
+            category.setCategoryName(readString(in));
+            category.setDescription(readString(in));
+            category.setCreatedAt(readDateTime(in));
+            category.setUpdatedAt(readDateTime(in));
+            return category;
+        }
+    };
+
+    public static final Codec<List<Product>> PRODUCT_LIST = listOf(PRODUCT);
+
+    public static final Codec<List<Categories>> CATEGORY_LIST = listOf(CATEGORY);
+
+    private EntityCodecs() {
+    }
+
+    /**
+     * Creates a codec for lists whose elements use the given codec.
+     */
+    public static <T> Codec<List<T>> listOf(Codec<T> elementCodec) {
+        return new Codec<>() {
+            @Override
+            public void write(List<T> values, DataOutput out) throws IOException {
+                out.writeInt(values.size());
+                for (T value : values) {
+                    elementCodec.write(value, out);
+                }
+            }
+
+            @Override
+            public List<T> read(ByteBuffer in) {
+                int size = in.getInt();
+                List<T> values = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    values.add(elementCodec.read(in));
+                }
+                return values;
+            }
+        };
+    }
+
+    static void writeString(String value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDecimal(BigDecimal value, DataOutput out) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    private static BigDecimal readDecimal(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.getInt());
+    }
+
+    private static void writeDateTime(LocalDateTime value, DataOutput out) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readDateTime(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+}
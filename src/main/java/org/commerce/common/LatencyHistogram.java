@@ -0,0 +1,64 @@
+package org.commerce.common;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets.
+ * Each bucket is 25% wider than the previous one, so percentiles are accurate
+ * to within one bucket while using a fixed, small amount of memory.
+ */
+public class LatencyHistogram {
+
+    private static final double GROWTH = 1.25;
+    private static final double LOG_GROWTH = Math.log(GROWTH);
+    private static final int BUCKETS = 100; // 1 µs up to ~80 minutes
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    /**
+     * Records one measurement.
+     *
+     * @param nanos Duration in nanoseconds
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketFor(nanos));
+    }
+
+    /**
+     * Gets the approximate value at a percentile.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return The upper bound of the matching bucket in milliseconds, or 0 if empty
+     */
+    public double percentileMillis(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(rank, 1)) {
+                return upperBoundMicros(i) / 1000.0;
+            }
+        }
+        return upperBoundMicros(BUCKETS - 1) / 1000.0;
+    }
+
+    private static int bucketFor(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        int index = (int) Math.ceil(Math.log(micros) / LOG_GROWTH);
+        return Math.min(Math.max(index, 0), BUCKETS - 1);
+    }
+
+    private static double upperBoundMicros(int bucket) {
+        return Math.pow(GROWTH, bucket);
+    }
+}
@@ -0,0 +1,141 @@
+package org.commerce.common;
+
+import org.commerce.daos.entities.Categories;
+import org.commerce.daos.entities.Inventory;
+import org.commerce.daos.entities.Product;
+import org.commerce.daos.entities.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Rough heap-size estimates for cached values (64-bit JVM, compressed oops).
+ * Good enough to compare caches and size budgets; not an exact measurement.
+ */
+public final class MemoryEstimator {
+
+    private static final long OBJECT_HEADER = 16;
+    private static final long REFERENCE = 4;
+    private static final long LOCAL_DATE_TIME = 72; // LocalDateTime + LocalDate + LocalTime
+    private static final long BIG_DECIMAL = 40;
+    private static final long BOXED = 16;
+
+    // Elements measured per collection before extrapolating
+    private static final int SAMPLE_SIZE = 32;
+
+    private MemoryEstimator() {
+    }
+
+    /**
+     * Estimates the retained size of a value in bytes.
+     */
+    public static long estimate(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Product product) {
+            return estimateProduct(product);
+        }
+        if (value instanceof User user) {
+            return estimateUser(user);
+        }
+        if (value instanceof Categories category) {
+            return align(OBJECT_HEADER + 4 + 4 * REFERENCE)
+                + estimateString(category.getCategoryName())
+                + estimateString(category.getDescription())
+                + dateTime(category.getCreatedAt()) + dateTime(category.getUpdatedAt());
+        }
+        if (value instanceof Inventory inventory) {
+            return align(OBJECT_HEADER + 3 * 4 + 3 * REFERENCE)
+                + estimateString(inventory.getWarehouseLocation())
+                + dateTime(inventory.getCreatedAt()) + dateTime(inventory.getLastUpdated());
+        }
+        if (value instanceof String string) {
+            return estimateString(string);
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return value instanceof BigDecimal ? BIG_DECIMAL : BOXED;
+        }
+        if (value instanceof LocalDateTime) {
+            return LOCAL_DATE_TIME;
+        }
+        if (value instanceof Collection<?> collection) {
+            return estimateCollection(collection);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return align(48 + 32L * map.size())
+                + estimateCollection(map.keySet()) + estimateCollection(map.values());
+        }
+        return OBJECT_HEADER;
+    }
+
+    /**
+     * Estimates the size of a Product including its strings, price and timestamps.
+     */
+    public static long estimateProduct(Product product) {
+        if (product == null) {
+            return 0;
+        }
+        return align(OBJECT_HEADER + 2 * 4 + 5 * REFERENCE)
+            + estimateString(product.getProductName())
+            + estimateString(product.getDescription())
+            + (product.getPrice() != null ? BIG_DECIMAL : 0)
+            + dateTime(product.getCreatedAt()) + dateTime(product.getUpdatedAt());
+    }
+
+    /**
+     * Estimates the size of a User including its strings and timestamp.
+     */
+    public static long estimateUser(User user) {
+        if (user == null) {
+            return 0;
+        }
+        return align(OBJECT_HEADER + 4 + 7 * REFERENCE)
+            + estimateString(user.getFirstname())
+            + estimateString(user.getLastname())
+            + estimateString(user.getPhone())
+            + estimateString(user.getEmail())
+            + estimateString(user.getPassword())
+            + dateTime(user.getCreatedAt());
+    }
+
+    /**
+     * Estimates a String assuming compact (Latin-1) storage.
+     */
+    public static long estimateString(String string) {
+        if (string == null) {
+            return 0;
+        }
+        return align(24) + align(OBJECT_HEADER + string.length());
+    }
+
+    /**
+     * Estimates an ArrayList-like collection by sampling its first elements.
+     */
+    private static long estimateCollection(Collection<?> collection) {
+        int size = collection.size();
+        long shell = align(24) + align(OBJECT_HEADER + REFERENCE * (long) size);
+        if (size == 0) {
+            return shell;
+        }
+        long sampled = 0;
+        int count = 0;
+        for (Object element : collection) {
+            sampled += estimate(element);
+            if (++count == SAMPLE_SIZE) {
+                break;
+            }
+        }
+        return shell + sampled * size / count;
+    }
+
+    private static long dateTime(LocalDateTime value) {
+        return value != null ? LOCAL_DATE_TIME : 0;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
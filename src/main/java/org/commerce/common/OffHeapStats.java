@@ -0,0 +1,63 @@
+package org.commerce.common;
+
+/**
+ * Immutable snapshot of an off-heap cache tier's usage and effectiveness.
+ */
+public class OffHeapStats {
+    private final long capacityBytes;
+    private final long usedBytes;
+    private final int entryCount;
+    private final long hitCount;
+    private final long missCount;
+    private final long demotionCount;
+    private final long overwriteCount;
+    private final long rejectionCount;
+
+    public OffHeapStats(long capacityBytes, long usedBytes, int entryCount, long hitCount, long missCount,
+                        long demotionCount, long overwriteCount, long rejectionCount) {
+        this.capacityBytes = capacityBytes;
+        this.usedBytes = usedBytes;
+        this.entryCount = entryCount;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.demotionCount = demotionCount;
+        this.overwriteCount = overwriteCount;
+        this.rejectionCount = rejectionCount;
+    }
+
+    public long getCapacityBytes() { return capacityBytes; }
+    public long getUsedBytes() { return usedBytes; }
+    public int getEntryCount() { return entryCount; }
+    public long getHitCount() { return hitCount; }
+    public long getMissCount() { return missCount; }
+
+    /**
+     * Gets how many entries were moved off-heap after on-heap eviction.
+     */
+    public long getDemotionCount() { return demotionCount; }
+
+    /**
+     * Gets how many live entries were lost because the buffer wrapped around.
+     */
+    public long getOverwriteCount() { return overwriteCount; }
+
+    /**
+     * Gets how many values could not be stored (too large or not encodable).
+     */
+    public long getRejectionCount() { return rejectionCount; }
+
+    public double getHitRate() {
+        long total = hitCount + missCount;
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "off-heap: %d entries, %.1f/%.1f MB, %d hits / %d misses (%.1f%% hit rate), " +
+            "demoted=%d overwritten=%d rejected=%d",
+            entryCount, usedBytes / 1048576.0, capacityBytes / 1048576.0, hitCount, missCount,
+            getHitRate() * 100, demotionCount, overwriteCount, rejectionCount
+        );
+    }
+}
@@ -0,0 +1,188 @@
+package org.commerce.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Second cache tier holding serialized values in one direct (off-heap) buffer.
+ * Values evicted from the on-heap tier are appended to the buffer as a circular
+ * log; when it is full the oldest records are overwritten (FIFO). Only a small
+ * index of keys to offsets stays on-heap, so large catalogs add little GC work.
+ * Values are decoded again when a key is promoted back to the on-heap tier.
+ */
+final class OffHeapTier<K, V> {
+
+    private final ByteBuffer slab;
+    private final Codec<V> codec;
+
+    // Live records by key, and every record in write (= address) order; guarded by this
+    private final Map<K, Slot<K>> index = new HashMap<>();
+    private final ArrayDeque<Slot<K>> log = new ArrayDeque<>();
+    private int writePosition = 0;
+    private long usedBytes = 0;
+
+    // Statistics, guarded by this
+    private long hits;
+    private long misses;
+    private long demotions;
+    private long overwrites;
+    private long rejections;
+
+    private final ByteArrayOutputStream encodeBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream encodeOut = new DataOutputStream(encodeBuffer);
+
+    OffHeapTier(int capacityBytes, Codec<V> codec) {
+        this.slab = ByteBuffer.allocateDirect(capacityBytes);
+        this.codec = codec;
+    }
+
+    /**
+     * Stores a value evicted from the on-heap tier, overwriting the oldest records if needed.
+     */
+    synchronized void demote(K key, V value, Set<String> tags, long creationTime) {
+        remove(key);
+        byte[] bytes;
+        try {
+            encodeBuffer.reset();
+            codec.write(value, encodeOut);
+            bytes = encodeBuffer.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            rejections++;
+            return;
+        }
+        int length = bytes.length;
+        if (length > slab.capacity()) {
+            rejections++;
+            return;
+        }
+
+        // Wrap around: records at the end of the buffer are the oldest in the log
+        if (writePosition + length > slab.capacity()) {
+            while (!log.isEmpty() && log.peekFirst().offset >= writePosition) {
+                overwrite(log.pollFirst());
+            }
+            writePosition = 0;
+        }
+        while (!log.isEmpty() && log.peekFirst().offset >= writePosition
+                && log.peekFirst().offset < writePosition + length) {
+            overwrite(log.pollFirst());
+        }
+
+        slab.put(writePosition, bytes);
+        Slot<K> slot = new Slot<>(key, writePosition, length, tags, creationTime);
+        log.addLast(slot);
+        index.put(key, slot);
+        writePosition += length;
+        usedBytes += length;
+        demotions++;
+    }
+
+    /**
+     * Removes a key from the tier and decodes its value.
+     *
+     * @return The entry, or null if the key is not held off-heap
+     */
+    Promoted<V> take(K key) {
+        byte[] bytes;
+        Slot<K> slot;
+        synchronized (this) {
+            slot = index.remove(key);
+            if (slot == null) {
+                misses++;
+                return null;
+            }
+            slot.live = false;
+            usedBytes -= slot.length;
+            hits++;
+            bytes = new byte[slot.length];
+            slab.get(slot.offset, bytes);
+        }
+        try {
+            return new Promoted<>(codec.read(ByteBuffer.wrap(bytes)), slot.tags, slot.creationTime);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    synchronized boolean contains(K key) {
+        return index.containsKey(key);
+    }
+
+    synchronized void remove(K key) {
+        Slot<K> slot = index.remove(key);
+        if (slot != null) {
+            slot.live = false;
+            usedBytes -= slot.length;
+        }
+    }
+
+    synchronized void removeTag(String tag) {
+        index.values().removeIf(slot -> {
+            if (slot.tags.contains(tag)) {
+                slot.live = false;
+                usedBytes -= slot.length;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    synchronized void clear() {
+        index.clear();
+        log.clear();
+        writePosition = 0;
+        usedBytes = 0;
+    }
+
+    synchronized OffHeapStats getStats() {
+        return new OffHeapStats(slab.capacity(), usedBytes, index.size(),
+                                hits, misses, demotions, overwrites, rejections);
+    }
+
+    private void overwrite(Slot<K> slot) {
+        if (slot.live) {
+            index.remove(slot.key);
+            usedBytes -= slot.length;
+            overwrites++;
+        }
+    }
+
+    /**
+     * A value decoded from the tier, with the tags and age it had when demoted.
+     */
+    static final class Promoted<V> {
+        final V value;
+        final Set<String> tags;
+        final long creationTime;
+
+        Promoted(V value, Set<String> tags, long creationTime) {
+            this.value = value;
+            this.tags = tags;
+            this.creationTime = creationTime;
+        }
+    }
+
+    private static final class Slot<K> {
+        private final K key;
+        private final int offset;
+        private final int length;
+        private final Set<String> tags;
+        private final long creationTime;
+        private boolean live = true;
+
+        Slot(K key, int offset, int length, Set<String> tags, long creationTime) {
+            this.key = key;
+            this.offset = offset;
+            this.length = length;
+            this.tags = tags;
+            this.creationTime = creationTime;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.commerce.common;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * The next cursor is opaque: pass it back unchanged to fetch the following page.
+ * It stays valid when rows are inserted or deleted before it, so paging never
+ * skips or repeats rows the way OFFSET paging does.
+ *
+ * @param <T> The type of the items
+ */
+public class Page<T> {
+    /** Largest page size the services accept. */
+    public static final int MAX_SIZE = 500;
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    /**
+     * @param items The rows of this page, in sort order
+     * @param nextCursor Cursor of the following page, or null if this is the last page
+     */
+    public Page(List<T> items, String nextCursor) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Page of %d items%s", items.size(), hasNext() ? ", more available" : "");
+    }
+}
@@ -29,6 +29,16 @@ public class PasswordHasher {
         return BCrypt.hashpw(plainPassword, BCrypt.gensalt(BCRYPT_WORK_FACTOR));
     }
     
+    /**
+     * Checks if a value is already a BCrypt hash, e.g. a password exported from another system.
+     * 
+     * @param password The value to check
+     * @return true if the value has the BCrypt hash format
+     */
+    public static boolean isHashed(String password) {
+        return password != null && password.matches("\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}");
+    }
+    
     /**
      * Verifies a plain text password against a hashed password.
      * 
@@ -2,6 +2,7 @@ package org.commerce.common;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -10,8 +11,9 @@ import java.util.concurrent.TimeUnit;
  */
 public class PerformanceMonitor {
     
-    private static final Map<String, PerformanceMetrics> metricsStore = new HashMap<>();
-    private static boolean enabled = true;
+    // Concurrent: background tasks such as cache warm-up record timings from several threads
+    private static final Map<String, PerformanceMetrics> metricsStore = new ConcurrentHashMap<>();
+    private static volatile boolean enabled = true;
     
     /**
      * Starts timing an operation.
@@ -156,30 +158,30 @@ public class PerformanceMonitor {
         private long minDuration = Long.MAX_VALUE;
         private long maxDuration = 0;
         
-        public void addMeasurement(long durationMillis) {
+        public synchronized void addMeasurement(long durationMillis) {
             count++;
             totalDuration += durationMillis;
             minDuration = Math.min(minDuration, durationMillis);
             maxDuration = Math.max(maxDuration, durationMillis);
         }
         
-        public long getCount() {
+        public synchronized long getCount() {
             return count;
         }
         
-        public long getTotalDuration() {
+        public synchronized long getTotalDuration() {
             return totalDuration;
         }
         
-        public double getAverageDuration() {
+        public synchronized double getAverageDuration() {
             return count > 0 ? (double) totalDuration / count : 0;
         }
         
-        public long getMinDuration() {
+        public synchronized long getMinDuration() {
             return minDuration == Long.MAX_VALUE ? 0 : minDuration;
         }
         
-        public long getMaxDuration() {
+        public synchronized long getMaxDuration() {
             return maxDuration;
         }
         
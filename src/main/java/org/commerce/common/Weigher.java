@@ -0,0 +1,16 @@
+package org.commerce.common;
+
+/**
+ * Computes the weight of a cached value, used by CacheManager to enforce a total weight bound.
+ * Weights are usually estimated heap bytes; see Weighers for the built-in implementations.
+ *
+ * @param <V> Value type
+ */
+@FunctionalInterface
+public interface Weigher<V> {
+
+    /**
+     * Returns the weight of a value. Must be non-negative and stable while the value is cached.
+     */
+    long weigh(V value);
+}
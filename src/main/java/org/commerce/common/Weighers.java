@@ -0,0 +1,74 @@
+package org.commerce.common;
+
+import org.commerce.daos.entities.Product;
+import org.commerce.daos.entities.User;
+
+import java.util.List;
+
+/**
+ * Built-in weighers that measure cached entities in estimated heap bytes.
+ */
+public final class Weighers {
+
+    // Per-entry overhead of CacheManager (map entry + ring node)
+    private static final long ENTRY_OVERHEAD = 72;
+
+    // ArrayList shell plus backing array header
+    private static final long LIST_OVERHEAD = 40;
+
+    private Weighers() {
+    }
+
+    /**
+     * Weighs a single Product.
+     */
+    public static Weigher<Product> product() {
+        return product -> ENTRY_OVERHEAD + MemoryEstimator.estimateProduct(product);
+    }
+
+    /**
+     * Weighs a list of products by summing every element, so large search results count in full.
+     */
+    public static Weigher<List<Product>> productList() {
+        return products -> {
+            long weight = ENTRY_OVERHEAD + LIST_OVERHEAD;
+            if (products != null) {
+                weight += 4L * products.size();
+                for (Product product : products) {
+                    weight += MemoryEstimator.estimateProduct(product);
+                }
+            }
+            return weight;
+        };
+    }
+
+    /**
+     * Weighs a page of products like a list, plus its cursor.
+     */
+    public static Weigher<Page<Product>> productPage() {
+        Weigher<List<Product>> items = productList();
+        return page -> items.weigh(page.getItems())
+            + (page.getNextCursor() != null ? 40L + 2L * page.getNextCursor().length() : 0);
+    }
+
+    /**
+     * Weighs a single User.
+     */
+    public static Weigher<User> user() {
+        return user -> ENTRY_OVERHEAD + MemoryEstimator.estimateUser(user);
+    }
+
+    /**
+     * Weighs any value using MemoryEstimator's sampled estimate.
+     */
+    public static Weigher<Object> estimated() {
+        return value -> ENTRY_OVERHEAD + MemoryEstimator.estimate(value);
+    }
+
+    /**
+     * Converts megabytes to a weight bound in bytes.
+     */
+    public static long megabytes(double megabytes) {
+        return (long) (megabytes * 1024 * 1024);
+    }
+}
@@ -0,0 +1,49 @@
+package org.commerce.common;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Samples ranks 0..n-1 from a Zipf distribution, where rank r is drawn with probability
+ * proportional to 1 / (r + 1)^exponent. Models skewed popularity: with exponent 1, the
+ * top 1% of a million items receive about two thirds of all draws. Uses a precomputed
+ * cumulative table (8 bytes per rank) and a binary search per sample. Thread-safe;
+ * callers supply their own random generator.
+ */
+public class ZipfSampler {
+    private final double[] cumulative;
+
+    /**
+     * Creates a sampler.
+     *
+     * @param n Number of ranks
+     * @param exponent Skew; 0 is uniform, larger values concentrate draws on the top ranks
+     */
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n must be positive");
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 0; rank < n; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    /**
+     * Draws a rank; 0 is the most likely.
+     */
+    public int sample(RandomGenerator random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    public int size() {
+        return cumulative.length;
+    }
+}
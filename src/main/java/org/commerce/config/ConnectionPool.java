@@ -0,0 +1,711 @@
+package org.commerce.config;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool.
+ * Hands out proxied connections whose close() returns the physical connection to the pool.
+ * Supports acquire timeout, validation on borrow, idle eviction and leak detection.
+ * Each physical connection keeps an LRU cache of prepared statements keyed by SQL text,
+ * so hot queries skip re-parsing and reach the driver's server-side prepared plans.
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+    /**
+     * Opens a new physical connection for the pool.
+     */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 64;
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final int minIdle;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final long leakThresholdMillis;
+    private final long validationIntervalMillis;
+    private final int statementCacheSize;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Map<PooledConnection, Lease> leased = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionsEvicted = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    /**
+     * Creates a connection pool with the default statement cache size.
+     *
+     * @param factory Opens physical connections
+     * @param maxSize Maximum number of open connections
+     * @param minIdle Idle connections kept open by the evictor
+     * @param acquireTimeoutMillis How long getConnection() waits for a free connection
+     * @param idleTimeoutMillis Idle time after which surplus connections are closed
+     * @param leakThresholdMillis Borrow time after which a connection is reported as leaked (0 disables)
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, int minIdle,
+                          long acquireTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis) {
+        this(factory, maxSize, minIdle, acquireTimeoutMillis, idleTimeoutMillis, leakThresholdMillis,
+             DEFAULT_STATEMENT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a connection pool.
+     *
+     * @param factory Opens physical connections
+     * @param maxSize Maximum number of open connections
+     * @param minIdle Idle connections kept open by the evictor
+     * @param acquireTimeoutMillis How long getConnection() waits for a free connection
+     * @param idleTimeoutMillis Idle time after which surplus connections are closed
+     * @param leakThresholdMillis Borrow time after which a connection is reported as leaked (0 disables)
+     * @param statementCacheSize Prepared statements cached per physical connection (0 disables)
+     */
+    public ConnectionPool(ConnectionFactory factory, int maxSize, int minIdle,
+                          long acquireTimeoutMillis, long idleTimeoutMillis, long leakThresholdMillis,
+                          int statementCacheSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(Math.max(minIdle, 0), maxSize);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.leakThresholdMillis = leakThresholdMillis;
+        this.validationIntervalMillis = 5000;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = Math.max(1000, Math.min(idleTimeoutMillis, 30000) / 2);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout.
+     * The caller must close it (try-with-resources) to return it to the pool.
+     *
+     * @return A pooled connection
+     * @throws SQLTimeoutException if no connection became available in time
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (!acquired) {
+            timeouts.incrementAndGet();
+            throw new SQLTimeoutException(String.format(
+                "Timed out after %d ms waiting for a database connection (active=%d, max=%d)",
+                acquireTimeoutMillis, leased.size(), maxSize));
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = openNew();
+            }
+            recordWait(System.nanoTime() - start);
+            leased.put(pooled, new Lease(leakThresholdMillis > 0 ? new Throwable("Connection acquired here") : null));
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pool credentials are fixed by DBConfig");
+    }
+
+    /**
+     * Pops idle connections (most recently used first) until one passes validation.
+     */
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (pooled.isUsable(validationIntervalMillis)) {
+                return pooled;
+            }
+            validationFailures.incrementAndGet();
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private PooledConnection openNew() throws SQLException {
+        Connection physical = factory.create();
+        totalConnections.incrementAndGet();
+        connectionsCreated.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void recordWait(long waitNanos) {
+        acquisitions.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * Returns a connection to the pool, resetting any transaction state left behind.
+     */
+    private void release(PooledConnection pooled) {
+        if (leased.remove(pooled) == null) {
+            return;
+        }
+        try {
+            if (closed || !pooled.reset()) {
+                discard(pooled);
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        pooled.closePhysical();
+    }
+
+    /**
+     * Evicts surplus idle connections and reports connections held past the leak threshold.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            if (idleTimeoutMillis > 0) {
+                Iterator<PooledConnection> it = idle.descendingIterator();
+                while (it.hasNext() && idle.size() > minIdle) {
+                    PooledConnection pooled = it.next();
+                    if (now - pooled.lastUsed > idleTimeoutMillis && idle.remove(pooled)) {
+                        connectionsEvicted.incrementAndGet();
+                        discard(pooled);
+                    }
+                }
+            }
+
+            if (leakThresholdMillis > 0) {
+                for (Lease lease : leased.values()) {
+                    if (!lease.reported && now - lease.borrowedAt > leakThresholdMillis) {
+                        lease.reported = true;
+                        leaksDetected.incrementAndGet();
+                        System.err.printf("[DB POOL] Possible connection leak: held for %d ms%n",
+                            now - lease.borrowedAt);
+                        if (lease.origin != null) {
+                            lease.origin.printStackTrace();
+                        }
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("[DB POOL] Housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Closes idle connections and stops the housekeeper.
+     * Leased connections are closed as they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * Gets a snapshot of pool metrics.
+     */
+    public PoolStats getStats() {
+        return new PoolStats(
+            maxSize,
+            totalConnections.get(),
+            leased.size(),
+            idle.size(),
+            permits.getQueueLength(),
+            acquisitions.get(),
+            timeouts.get(),
+            totalWaitNanos.get(),
+            maxWaitNanos.get(),
+            connectionsCreated.get(),
+            connectionsEvicted.get(),
+            validationFailures.get(),
+            leaksDetected.get(),
+            statementCacheHits.get(),
+            statementCacheMisses.get()
+        );
+    }
+
+    // DataSource boilerplate
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * Bookkeeping for a borrowed connection.
+     */
+    private static class Lease {
+        private final long borrowedAt = System.currentTimeMillis();
+        private final Throwable origin;
+        private volatile boolean reported = false;
+
+        Lease(Throwable origin) {
+            this.origin = origin;
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        // Open statements by SQL text, least recently used first (guarded by this)
+        private final LinkedHashMap<String, CachedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        /**
+         * Creates the handle given to callers; each borrow gets a fresh handle
+         * so a stale reference cannot close a connection someone else is using.
+         */
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new Handle(this)
+            );
+        }
+
+        boolean isUsable(long validationInterval) {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (System.currentTimeMillis() - lastUsed < validationInterval) {
+                    return true;
+                }
+                return physical.isValid(2);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Prepares a statement, reusing the cached one for the same SQL when it is free.
+         * A statement still open by the borrower (e.g. nested queries) gets an uncached copy.
+         */
+        synchronized PreparedStatement prepare(String sql, Connection handle) throws SQLException {
+            if (statementCacheSize == 0) {
+                return physical.prepareStatement(sql);
+            }
+            CachedStatement cached = statements.get(sql);
+            if (cached != null && cached.inUse) {
+                statementCacheMisses.incrementAndGet();
+                return physical.prepareStatement(sql);
+            }
+            if (cached != null && cached.statement.isClosed()) {
+                statements.remove(sql);
+                cached = null;
+            }
+            if (cached == null) {
+                statementCacheMisses.incrementAndGet();
+                cached = new CachedStatement(sql, physical.prepareStatement(sql));
+                statements.put(sql, cached);
+                evictStatements();
+            } else {
+                statementCacheHits.incrementAndGet();
+            }
+            cached.inUse = true;
+            return cached.newHandle(this, handle);
+        }
+
+        /**
+         * Closes least recently used statements beyond the cache size. A statement
+         * in use is only detached, and closed when its borrower releases it.
+         */
+        private void evictStatements() {
+            Iterator<CachedStatement> it = statements.values().iterator();
+            while (statements.size() > statementCacheSize && it.hasNext()) {
+                CachedStatement eldest = it.next();
+                it.remove();
+                if (!eldest.inUse) {
+                    eldest.closePhysical();
+                }
+            }
+        }
+
+        /**
+         * Makes a statement available again, or closes it if it has been evicted or is broken.
+         * Parameters and queued batch rows are cleared so a failed executeBatch() cannot
+         * leak rows into the next borrower's batch.
+         */
+        synchronized void releaseStatement(CachedStatement cached) {
+            cached.inUse = false;
+            boolean reusable = statements.get(cached.sql) == cached;
+            if (reusable) {
+                try {
+                    cached.statement.clearParameters();
+                    cached.statement.clearBatch();
+                    cached.statement.clearWarnings();
+                } catch (SQLException e) {
+                    statements.remove(cached.sql);
+                    reusable = false;
+                }
+            }
+            if (!reusable) {
+                cached.closePhysical();
+            }
+        }
+
+        /**
+         * Drops statements a borrower left open; they may still be referenced by that caller.
+         */
+        private synchronized void dropLeakedStatements() {
+            statements.values().removeIf(cached -> {
+                if (cached.inUse) {
+                    cached.closePhysical();
+                    return true;
+                }
+                return false;
+            });
+        }
+
+        /**
+         * Rolls back unfinished work and restores auto-commit so the next borrower starts clean.
+         */
+        boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                dropLeakedStatements();
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                physical.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                System.err.println("[DB POOL] Error closing connection: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A prepared statement kept open on its physical connection between borrows.
+     */
+    private static class CachedStatement {
+        private final String sql;
+        private final PreparedStatement statement;
+        private boolean inUse = false;
+
+        CachedStatement(String sql, PreparedStatement statement) {
+            this.sql = sql;
+            this.statement = statement;
+        }
+
+        void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                System.err.println("[DB POOL] Error closing statement: " + e.getMessage());
+            }
+        }
+
+        PreparedStatement newHandle(PooledConnection owner, Connection connection) {
+            return (PreparedStatement) Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class},
+                new StatementHandle(owner, this, connection)
+            );
+        }
+    }
+
+    /**
+     * Proxy handler for cached statements: close() hands the statement back to its
+     * connection's cache, everything else is delegated.
+     */
+    private static class StatementHandle implements InvocationHandler {
+        private final PooledConnection owner;
+        private final CachedStatement cached;
+        private final Connection connection;
+        private boolean closed = false;
+
+        StatementHandle(PooledConnection owner, CachedStatement cached, Connection connection) {
+            this.owner = owner;
+            this.cached = cached;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        owner.releaseStatement(cached);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachedStatement[" + cached.sql + "]";
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            try {
+                return method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Proxy handler: close() returns the connection, prepareStatement(sql) goes
+     * through the statement cache, everything else is delegated.
+     */
+    private class Handle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private volatile boolean released = false;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (method.getName().equals("prepareStatement") && args.length == 1) {
+                return pooled.prepare((String) args[0], (Connection) proxy);
+            }
+            try {
+                return method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * Snapshot of pool utilization and wait-time metrics.
+     */
+    public static class PoolStats {
+        private final int maxSize;
+        private final int totalConnections;
+        private final int activeConnections;
+        private final int idleConnections;
+        private final int waitingThreads;
+        private final long acquisitions;
+        private final long timeouts;
+        private final long totalWaitNanos;
+        private final long maxWaitNanos;
+        private final long connectionsCreated;
+        private final long connectionsEvicted;
+        private final long validationFailures;
+        private final long leaksDetected;
+        private final long statementCacheHits;
+        private final long statementCacheMisses;
+
+        public PoolStats(int maxSize, int totalConnections, int activeConnections, int idleConnections,
+                         int waitingThreads, long acquisitions, long timeouts, long totalWaitNanos,
+                         long maxWaitNanos, long connectionsCreated, long connectionsEvicted,
+                         long validationFailures, long leaksDetected,
+                         long statementCacheHits, long statementCacheMisses) {
+            this.maxSize = maxSize;
+            this.totalConnections = totalConnections;
+            this.activeConnections = activeConnections;
+            this.idleConnections = idleConnections;
+            this.waitingThreads = waitingThreads;
+            this.acquisitions = acquisitions;
+            this.timeouts = timeouts;
+            this.totalWaitNanos = totalWaitNanos;
+            this.maxWaitNanos = maxWaitNanos;
+            this.connectionsCreated = connectionsCreated;
+            this.connectionsEvicted = connectionsEvicted;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+            this.statementCacheHits = statementCacheHits;
+            this.statementCacheMisses = statementCacheMisses;
+        }
+
+        public int getMaxSize() { return maxSize; }
+        public int getTotalConnections() { return totalConnections; }
+        public int getActiveConnections() { return activeConnections; }
+        public int getIdleConnections() { return idleConnections; }
+        public int getWaitingThreads() { return waitingThreads; }
+        public long getAcquisitions() { return acquisitions; }
+        public long getTimeouts() { return timeouts; }
+        public long getConnectionsCreated() { return connectionsCreated; }
+        public long getConnectionsEvicted() { return connectionsEvicted; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getLeaksDetected() { return leaksDetected; }
+        public long getStatementCacheHits() { return statementCacheHits; }
+        public long getStatementCacheMisses() { return statementCacheMisses; }
+
+        /**
+         * Fraction of prepareStatement calls served from the statement cache (0.0 - 1.0).
+         */
+        public double getStatementCacheHitRate() {
+            long total = statementCacheHits + statementCacheMisses;
+            return total > 0 ? (double) statementCacheHits / total : 0;
+        }
+
+        /**
+         * Fraction of the pool currently leased (0.0 - 1.0).
+         */
+        public double getUtilization() {
+            return maxSize > 0 ? (double) activeConnections / maxSize : 0;
+        }
+
+        public double getAverageWaitMillis() {
+            return acquisitions > 0 ? totalWaitNanos / 1_000_000.0 / acquisitions : 0;
+        }
+
+        public double getMaxWaitMillis() {
+            return maxWaitNanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "Pool: %d/%d active, %d idle, %d waiting, utilization %.0f%%, avg wait %.2f ms, max wait %.2f ms, %d timeouts, %d leaks, statement cache %.0f%% hits",
+                activeConnections, maxSize, idleConnections, waitingThreads, getUtilization() * 100,
+                getAverageWaitMillis(), getMaxWaitMillis(), timeouts, leaksDetected, getStatementCacheHitRate() * 100
+            );
+        }
+    }
+}
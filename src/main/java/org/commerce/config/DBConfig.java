@@ -8,13 +8,29 @@ public class DBConfig {
     private final String username = System.getenv("DB_USER");
     private final String password = System.getenv("DB_PASSWORD");
 
+    // Pool settings (overridable through environment variables)
+    private final int poolMaxSize = intEnv("DB_POOL_MAX_SIZE", 10);
+    private final int poolMinIdle = intEnv("DB_POOL_MIN_IDLE", 2);
+    private final long poolAcquireTimeoutMillis = intEnv("DB_POOL_ACQUIRE_TIMEOUT_MS", 10000);
+    private final long poolIdleTimeoutMillis = intEnv("DB_POOL_IDLE_TIMEOUT_MS", 300000);
+    private final long poolLeakThresholdMillis = intEnv("DB_POOL_LEAK_THRESHOLD_MS", 60000);
+    private final int statementCacheSize = intEnv("DB_STATEMENT_CACHE_SIZE", 64);
+
+    // Driver settings: executions of a statement before it is prepared server-side,
+    // and how many server-prepared queries the driver keeps per connection
+    private final int prepareThreshold = intEnv("DB_PREPARE_THRESHOLD", 3);
+    private final int preparedStatementCacheQueries = intEnv("DB_PREPARED_STATEMENT_CACHE_QUERIES", 256);
+
     public Connection connectDB() throws SQLException {
         if (dbName == null || username == null || password == null) {
             throw new SQLException("Database configuration is incomplete. Please set DB_NAME, DB_USER, and DB_PASSWORD environment variables.");
         }
-        
-        String url = String.format("jdbc:postgresql://%s:%s/%s", dbHost, dbPort, dbName);
-        
+
+        // reWriteBatchedInserts lets the driver send JDBC batches of INSERTs as multi-row statements
+        String url = String.format(
+            "jdbc:postgresql://%s:%s/%s?prepareThreshold=%d&preparedStatementCacheQueries=%d&reWriteBatchedInserts=true",
+            dbHost, dbPort, dbName, prepareThreshold, preparedStatementCacheQueries);
+
         try {
             return DriverManager.getConnection(url, username, password);
         } catch (SQLException e) {
@@ -23,4 +39,40 @@ public class DBConfig {
         }
     }
 
+    /**
+     * Creates a connection pool backed by connectDB().
+     * Opens one connection eagerly so configuration errors surface at startup.
+     */
+    public ConnectionPool createPool() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(
+            this::connectDB,
+            poolMaxSize,
+            poolMinIdle,
+            poolAcquireTimeoutMillis,
+            poolIdleTimeoutMillis,
+            poolLeakThresholdMillis,
+            statementCacheSize
+        );
+        try (Connection probe = pool.getConnection()) {
+            probe.isValid(2);
+        } catch (SQLException e) {
+            pool.close();
+            throw e;
+        }
+        return pool;
+    }
+
+    private static int intEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid " + name + "=" + value);
+            return defaultValue;
+        }
+    }
+
 }
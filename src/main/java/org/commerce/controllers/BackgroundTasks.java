@@ -0,0 +1,130 @@
+package org.commerce.controllers;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.concurrent.Task;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * Runs service calls off the JavaFX application thread, so database latency and
+ * password hashing never freeze the UI. Each call runs as a JavaFX Task on its own
+ * virtual thread; its success and failure handlers run on the FX thread (Task
+ * delivers its state changes through Platform.runLater), where they may touch nodes
+ * and observable lists.
+ */
+public final class BackgroundTasks {
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private BackgroundTasks() {
+    }
+
+    /**
+     * Runs work in the background. Must be called on the FX thread.
+     *
+     * @param work The blocking work, e.g. a service call
+     * @param onSuccess Receives the work's value on the FX thread
+     * @param onFailure Receives what the work threw on the FX thread
+     * @return The running task
+     */
+    public static <T> Task<T> run(Callable<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = newTask(work);
+        task.setOnSucceeded(e -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(e -> onFailure.accept(task.getException()));
+        EXECUTOR.execute(task);
+        return task;
+    }
+
+    private static <T> Task<T> newTask(Callable<T> work) {
+        return new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+    }
+
+    /**
+     * Stops accepting work; called when the application exits.
+     */
+    public static void shutdown() {
+        EXECUTOR.shutdownNow();
+    }
+
+    /**
+     * The message to show for a failed task.
+     */
+    public static String describe(Throwable error) {
+        return error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+    }
+
+    /**
+     * Holds the latest task of one kind (e.g. "load the product table"). Submitting a
+     * new task supersedes the running one: it is cancelled and its handlers never run,
+     * so a slow, stale response cannot overwrite a newer one. Superseded tasks are not
+     * interrupted, since interrupting a virtual thread blocked on a socket closes it and
+     * would break a pooled connection mid-query; they finish and their result is dropped.
+     * All methods must be called on the FX thread.
+     */
+    public static final class Slot {
+        private final ReadOnlyBooleanWrapper running = new ReadOnlyBooleanWrapper(false);
+        private Task<?> current;
+
+        /**
+         * Cancels the running task, if any, and starts a new one.
+         *
+         * @param work The blocking work
+         * @param onSuccess Receives the value on the FX thread, unless the task was superseded
+         * @param onFailure Receives the failure on the FX thread, unless the task was superseded
+         * @return The running task
+         */
+        public <T> Task<T> submit(Callable<T> work, Consumer<? super T> onSuccess, Consumer<Throwable> onFailure) {
+            cancel();
+            Task<T> task = newTask(work);
+            task.setOnSucceeded(e -> {
+                finish(task);
+                onSuccess.accept(task.getValue());
+            });
+            task.setOnFailed(e -> {
+                finish(task);
+                onFailure.accept(task.getException());
+            });
+            current = task;
+            running.set(true);
+            EXECUTOR.execute(task);
+            return task;
+        }
+
+        /**
+         * Cancels the running task, if any, without starting another.
+         */
+        public void cancel() {
+            if (current != null) {
+                current.cancel(false);
+                current = null;
+                running.set(false);
+            }
+        }
+
+        public boolean isRunning() {
+            return running.get();
+        }
+
+        /**
+         * True while a task is running; bind loading indicators to it.
+         */
+        public ReadOnlyBooleanProperty runningProperty() {
+            return running.getReadOnlyProperty();
+        }
+
+        private void finish(Task<?> task) {
+            if (current == task) {
+                current = null;
+                running.set(false);
+            }
+        }
+    }
+}
@@ -2,8 +2,11 @@ package org.commerce.controllers;
 
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
+import org.commerce.common.Result;
 
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
 
 /**
  * Base controller providing common utility methods for all controllers.
@@ -69,6 +72,23 @@ public abstract class BaseController {
         return result.isPresent() && result.get() == ButtonType.OK;
     }
     
+    /**
+     * Runs a service call in the background and handles its Result on the FX thread.
+     * Failed results and exceptions are shown as error dialogs.
+     * 
+     * @param call The service call
+     * @param onSuccess Receives the result's data on the FX thread
+     */
+    protected <T> void callService(Callable<Result<T>> call, Consumer<? super T> onSuccess) {
+        BackgroundTasks.run(call, result -> {
+            if (result.isSuccess()) {
+                onSuccess.accept(result.getData());
+            } else {
+                showError("Error", result.getMessage());
+            }
+        }, error -> showError("Error", BackgroundTasks.describe(error)));
+    }
+    
     /**
      * Shows a "No Selection" warning dialog.
      * 
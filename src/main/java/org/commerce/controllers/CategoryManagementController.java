@@ -1,10 +1,10 @@
 package org.commerce.controllers;
 
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.collections.ObservableList;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import org.commerce.ECommerceApp;
-import org.commerce.common.Result;
 import org.commerce.daos.entities.Categories;
 
 import java.util.List;
@@ -18,6 +18,7 @@ import java.util.Optional;
 public class CategoryManagementController extends BaseController {
     
     private final ObservableList<Categories> categoriesList;
+    private final BackgroundTasks.Slot loading = new BackgroundTasks.Slot();
     
     public CategoryManagementController(ObservableList<Categories> categoriesList) {
         this.categoriesList = categoriesList;
@@ -27,12 +28,29 @@ public class CategoryManagementController extends BaseController {
      * Loads all categories from the service and updates the observable list.
      */
     public void loadCategories() {
-        categoriesList.clear();
-        Result<List<Categories>> result = ECommerceApp.getCategoryService().getAllCategories();
-        
-        if (result.isSuccess()) {
-            categoriesList.addAll(result.getData());
-        }
+        loadCategories(null);
+    }
+    
+    /**
+     * Loads all categories in the background, replacing any load still running,
+     * and updates the observable list when they arrive.
+     * 
+     * @param onLoaded Called on the FX thread once the list is updated, or null
+     */
+    public void loadCategories(Runnable onLoaded) {
+        loading.submit(() -> ECommerceApp.getCategoryService().getAllCategories(), result -> {
+            categoriesList.setAll(result.isSuccess() ? result.getData() : List.of());
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+        }, error -> showError("Error", "Failed to load categories: " + BackgroundTasks.describe(error)));
+    }
+    
+    /**
+     * True while categories are loading.
+     */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.runningProperty();
     }
     
     /**
@@ -64,16 +82,13 @@ public class CategoryManagementController extends BaseController {
     public void handleDelete(Categories selected, Runnable onProductsNeedRefresh) {
         if (selected != null) {
             if (showConfirmation("Delete Category", "Are you sure you want to delete this category?")) {
-                Result<Boolean> result = ECommerceApp.getCategoryService().deleteCategory(selected.getId());
-                if (result.isSuccess()) {
+                callService(() -> ECommerceApp.getCategoryService().deleteCategory(selected.getId()), deleted -> {
                     showAlert("Success", "Category deleted successfully!");
                     loadCategories();
                     if (onProductsNeedRefresh != null) {
                         onProductsNeedRefresh.run(); // Refresh products as they reference categories
                     }
-                } else {
-                    showError("Error", result.getMessage());
-                }
+                });
             }
         } else {
             showNoSelectionWarning("category", "delete");
@@ -120,17 +135,11 @@ public class CategoryManagementController extends BaseController {
         });
 
         Optional<Categories> result = dialog.showAndWait();
-        result.ifPresent(c -> {
-            Result<Categories> saveResult = category == null 
+        result.ifPresent(c -> callService(() -> category == null
                 ? ECommerceApp.getCategoryService().createCategory(c)
-                : ECommerceApp.getCategoryService().updateCategory(c);
-            
-            if (saveResult.isSuccess()) {
-                showAlert("Success", "Category saved successfully!");
-                loadCategories();
-            } else {
-                showError("Error", saveResult.getMessage());
-            }
-        });
+                : ECommerceApp.getCategoryService().updateCategory(c), saved -> {
+            showAlert("Success", "Category saved successfully!");
+            loadCategories();
+        }));
     }
 }
@@ -6,6 +6,8 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import org.commerce.ECommerceApp;
+import org.commerce.common.CacheRegistry;
+import org.commerce.common.CacheStats;
 import org.commerce.daos.entities.Categories;
 import org.commerce.daos.entities.User;
 import org.commerce.controllers.ProductManagementController.ProductDisplay;
@@ -20,6 +22,7 @@ public class DashboardController extends BaseController {
 
     @FXML private Label welcomeLabel;
     @FXML private Label userRoleLabel;
+    @FXML private ProgressIndicator loadingIndicator;
     
     // Products Tab
     @FXML private TableView<ProductDisplay> productsTable;
@@ -80,7 +83,14 @@ public class DashboardController extends BaseController {
         setupInventoryTable();
         setupUsersTable();
         
-        loadAllData();
+        // Spins while any table is loading in the background
+        loadingIndicator.visibleProperty().bind(
+            productController.loadingProperty()
+                .or(categoryController.loadingProperty())
+                .or(inventoryController.loadingProperty())
+                .or(userController.loadingProperty()));
+        
+        loadAllData(null);
     }
 
     private void setupProductsTable() {
@@ -127,11 +137,22 @@ public class DashboardController extends BaseController {
         usersTable.setItems(usersList);
     }
 
-    private void loadAllData() {
-        productController.loadProducts();
-        categoryController.loadCategories();
-        inventoryController.loadInventory();
-        userController.loadUsers();
+    /**
+     * Loads all four tables in parallel in the background.
+     * 
+     * @param onAllLoaded Called on the FX thread once every table is updated, or null
+     */
+    private void loadAllData(Runnable onAllLoaded) {
+        int[] pending = {4};
+        Runnable onLoaded = () -> {
+            if (--pending[0] == 0 && onAllLoaded != null) {
+                onAllLoaded.run();
+            }
+        };
+        productController.loadProducts(onLoaded);
+        categoryController.loadCategories(onLoaded);
+        inventoryController.loadInventory(onLoaded);
+        userController.loadUsers(onLoaded);
     }
 
     // ================== Product Actions ==================
@@ -197,12 +218,13 @@ public class DashboardController extends BaseController {
     @FXML
     private void handleRefresh() {
         long startTime = System.nanoTime();
-        loadAllData();
-        long duration = (System.nanoTime() - startTime) / 1_000_000;
-        
-        showAlert("Refreshed", String.format("Data refreshed successfully in %dms!\n\n%s", 
-            duration,
-            getCacheStatsMessage()));
+        loadAllData(() -> {
+            long duration = (System.nanoTime() - startTime) / 1_000_000;
+            
+            showAlert("Refreshed", String.format("Data refreshed successfully in %dms!\n\n%s", 
+                duration,
+                getCacheStatsMessage()));
+        });
     }
     
     private String getCacheStatsMessage() {
@@ -218,11 +240,21 @@ public class DashboardController extends BaseController {
                       "Product Service:\n  " + ECommerceApp.getProductService().getCacheStats() + "\n\n" +
                       "Category Service:\n  " + ECommerceApp.getCategoryService().getCacheStats() + "\n\n" +
                       "User Service:\n  " + ECommerceApp.getUserService().getCacheStats() + "\n\n" +
+                      "Database:\n  " + ECommerceApp.getConnectionPool().getStats() + "\n\n" +
+                      "All Caches:\n" + getRegistryStats() + "\n" +
                       "💡 Tip: Click 'Clear Cache' then 'Refresh' to see database query time vs cache hit time.";
         
         showAlert("Cache Statistics", stats);
     }
     
+    private String getRegistryStats() {
+        StringBuilder details = new StringBuilder();
+        for (CacheStats stats : CacheRegistry.snapshot()) {
+            details.append("  • ").append(stats).append("\n");
+        }
+        return details.toString();
+    }
+    
     @FXML
     private void handleClearCache() {
         ECommerceApp.getProductService().invalidateAllCaches();
@@ -38,12 +38,12 @@ public class InventoryController {
         Result<List<Product>> productsResult = ECommerceApp.getProductService().getAllProducts();
         if (!productsResult.isSuccess()) return;
         
+        // Every product's inventory is fetched by one query when the loaders dispatch
+        RenderLoaders loaders = new RenderLoaders();
         for (Product product : productsResult.getData()) {
-            Result<List<Inventory>> inventoryResult = 
-                ECommerceApp.getInventoryService().getInventoryByProductId(product.getId());
-            
-            if (inventoryResult.isSuccess()) {
-                for (Inventory inv : inventoryResult.getData()) {
+            loaders.inventory(product.getId()).thenAccept(inventories -> {
+                if (inventories == null) return;
+                for (Inventory inv : inventories) {
                     inventoryList.add(new InventoryDisplay(
                         inv.getId(),
                         inv.getProductId(),
@@ -52,8 +52,9 @@ public class InventoryController {
                         inv.getWarehouseLocation()
                     ));
                 }
-            }
+            });
         }
+        loaders.dispatch();
     }
 
     /**
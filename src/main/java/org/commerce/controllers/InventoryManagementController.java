@@ -1,5 +1,6 @@
 package org.commerce.controllers;
 
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.collections.ObservableList;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
@@ -7,7 +8,9 @@ import org.commerce.ECommerceApp;
 import org.commerce.common.Result;
 import org.commerce.daos.entities.Inventory;
 import org.commerce.daos.entities.Product;
+import org.commerce.exceptions.ServiceException;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -19,6 +22,7 @@ import java.util.Optional;
 public class InventoryManagementController extends BaseController {
     
     private final ObservableList<InventoryDisplay> inventoryList;
+    private final BackgroundTasks.Slot loading = new BackgroundTasks.Slot();
     
     public InventoryManagementController(ObservableList<InventoryDisplay> inventoryList) {
         this.inventoryList = inventoryList;
@@ -28,18 +32,45 @@ public class InventoryManagementController extends BaseController {
      * Loads all inventory records from the service and updates the observable list.
      */
     public void loadInventory() {
-        inventoryList.clear();
-        
+        loadInventory(null);
+    }
+    
+    /**
+     * Loads all inventory records in the background, replacing any load still running,
+     * and updates the observable list when they arrive.
+     * 
+     * @param onLoaded Called on the FX thread once the list is updated, or null
+     */
+    public void loadInventory(Runnable onLoaded) {
+        loading.submit(this::fetchInventory, rows -> {
+            inventoryList.setAll(rows);
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+        }, error -> showError("Error", "Failed to load inventory: " + BackgroundTasks.describe(error)));
+    }
+    
+    /**
+     * True while inventory is loading.
+     */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.runningProperty();
+    }
+    
+    private List<InventoryDisplay> fetchInventory() {
         Result<List<Product>> productsResult = ECommerceApp.getProductService().getAllProducts();
-        if (!productsResult.isSuccess()) return;
+        if (!productsResult.isSuccess()) {
+            throw new ServiceException(productsResult.getMessage());
+        }
         
+        // Every product's inventory is fetched by one query when the loaders dispatch
+        List<InventoryDisplay> rows = new ArrayList<>();
+        RenderLoaders loaders = new RenderLoaders();
         for (Product product : productsResult.getData()) {
-            Result<List<Inventory>> inventoryResult = 
-                ECommerceApp.getInventoryService().getInventoryByProductId(product.getId());
-            
-            if (inventoryResult.isSuccess()) {
-                for (Inventory inv : inventoryResult.getData()) {
-                    inventoryList.add(new InventoryDisplay(
+            loaders.inventory(product.getId()).thenAccept(inventories -> {
+                if (inventories == null) return;
+                for (Inventory inv : inventories) {
+                    rows.add(new InventoryDisplay(
                         inv.getId(),
                         inv.getProductId(),
                         product.getProductName(),
@@ -47,8 +78,10 @@ public class InventoryManagementController extends BaseController {
                         inv.getWarehouseLocation()
                     ));
                 }
-            }
+            });
         }
+        loaders.dispatch();
+        return rows;
     }
     
     /**
@@ -89,11 +122,12 @@ public class InventoryManagementController extends BaseController {
 
         VBox content = new VBox(10);
         
+        // The dialog opens at once; the product choices fill in when they arrive
         ComboBox<Product> productCombo = new ComboBox<>();
-        Result<List<Product>> productsResult = ECommerceApp.getProductService().getAllProducts();
-        if (productsResult.isSuccess()) {
-            productCombo.getItems().addAll(productsResult.getData());
-        }
+        callService(() -> ECommerceApp.getProductService().getAllProducts(), products -> {
+            productCombo.getItems().setAll(products);
+            productCombo.setPromptText("Select Product");
+        });
         productCombo.setConverter(new javafx.util.StringConverter<Product>() {
             @Override
             public String toString(Product p) {
@@ -104,7 +138,7 @@ public class InventoryManagementController extends BaseController {
                 return null;
             }
         });
-        productCombo.setPromptText("Select Product");
+        productCombo.setPromptText("Loading products...");
         
         TextField quantityField = new TextField();
         quantityField.setPromptText("Quantity");
@@ -142,19 +176,13 @@ public class InventoryManagementController extends BaseController {
         });
 
         Optional<Inventory> result = dialog.showAndWait();
-        result.ifPresent(inv -> {
-            Result<Inventory> saveResult = ECommerceApp.getInventoryService().createInventory(inv);
-            
-            if (saveResult.isSuccess()) {
-                showAlert("Success", "Inventory created successfully!");
-                loadInventory();
-                if (onProductsNeedRefresh != null) {
-                    onProductsNeedRefresh.run();
-                }
-            } else {
-                showError("Error", saveResult.getMessage());
+        result.ifPresent(inv -> callService(() -> ECommerceApp.getInventoryService().createInventory(inv), saved -> {
+            showAlert("Success", "Inventory created successfully!");
+            loadInventory();
+            if (onProductsNeedRefresh != null) {
+                onProductsNeedRefresh.run();
             }
-        });
+        }));
     }
     
     /**
@@ -200,24 +228,17 @@ public class InventoryManagementController extends BaseController {
         });
 
         Optional<Integer> result = dialog.showAndWait();
-        result.ifPresent(adjustment -> {
-            Result<Inventory> adjustResult = ECommerceApp.getInventoryService().adjustInventory(
+        result.ifPresent(adjustment -> callService(() -> ECommerceApp.getInventoryService().adjustInventory(
                 inventory.getProductId(), 
                 inventory.getWarehouseLocation(), 
                 adjustment
-            );
-            
-            if (adjustResult.isSuccess()) {
-                showAlert("Success", "Inventory adjusted successfully!\nNew quantity: " + 
-                         adjustResult.getData().getQuantity());
-                loadInventory();
-                if (onProductsNeedRefresh != null) {
-                    onProductsNeedRefresh.run();
-                }
-            } else {
-                showError("Error", adjustResult.getMessage());
+            ), adjusted -> {
+            showAlert("Success", "Inventory adjusted successfully!\nNew quantity: " + adjusted.getQuantity());
+            loadInventory();
+            if (onProductsNeedRefresh != null) {
+                onProductsNeedRefresh.run();
             }
-        });
+        }));
     }
     
     /**
@@ -1,5 +1,6 @@
 package org.commerce.controllers;
 
+import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
@@ -29,11 +30,19 @@ public class LoginController {
     private VBox loginBox;
     
     private static User currentUser;
+    
+    // Password verification is deliberately slow, so it runs in the background
+    private final BackgroundTasks.Slot signIn = new BackgroundTasks.Slot();
 
     @FXML
     private void initialize() {
         errorLabel.setVisible(false);
         
+        // Block repeat submissions and show progress while signing in
+        loginButton.disableProperty().bind(signIn.runningProperty());
+        loginButton.textProperty().bind(Bindings.when(signIn.runningProperty())
+            .then("Signing in...").otherwise(loginButton.getText()));
+        
         // Add enter key support
         passwordField.setOnAction(event -> handleLogin());
         emailField.setOnAction(event -> passwordField.requestFocus());
@@ -49,22 +58,37 @@ public class LoginController {
             showError("Please enter both email and password");
             return;
         }
+        if (signIn.isRunning()) {
+            return; // Enter pressed again while the first attempt is being checked
+        }
 
-        // Attempt login
-        Result<User> result = ECommerceApp.getUserService().login(email, password);
+        // Attempt login (and log the attempt) off the FX thread
+        signIn.submit(() -> {
+            Result<User> result = ECommerceApp.getUserService().login(email, password);
+            if (result.isSuccess()) {
+                User user = result.getData();
+                ECommerceApp.getActivityLogService().logActivity(
+                    user.getId(),
+                    user.getFirstname() + " " + user.getLastname(),
+                    "LOGIN",
+                    "USER",
+                    user.getId()
+                );
+            } else {
+                ECommerceApp.getActivityLogService().logActivity(
+                    0,
+                    email,
+                    "LOGIN_FAILED"
+                );
+            }
+            return result;
+        }, this::completeLogin, error -> showError("Login failed: " + BackgroundTasks.describe(error)));
+    }
 
+    private void completeLogin(Result<User> result) {
         if (result.isSuccess()) {
             currentUser = result.getData();
             
-            // Log successful login
-            ECommerceApp.getActivityLogService().logActivity(
-                currentUser.getId(),
-                currentUser.getFirstname() + " " + currentUser.getLastname(),
-                "LOGIN",
-                "USER",
-                currentUser.getId()
-            );
-            
             // Route based on user role
             try {
                 if (currentUser.getUserRole() == UserRole.CUSTOMER) {
@@ -78,13 +102,6 @@ public class LoginController {
                 showError("Error loading application: " + e.getMessage());
             }
         } else {
-            // Log failed login attempt
-            ECommerceApp.getActivityLogService().logActivity(
-                0,
-                email,
-                "LOGIN_FAILED"
-            );
-            
             showError(result.getMessage());
             passwordField.clear();
         }
@@ -10,8 +10,10 @@ import org.commerce.daos.entities.Categories;
 import org.commerce.daos.entities.Product;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller responsible for Product-related operations.
@@ -39,21 +41,24 @@ public class ProductController {
         Result<List<Product>> result = ECommerceApp.getProductService().getAllProducts();
         
         if (result.isSuccess()) {
+            // Rows queue their stock and category lookups; one dispatch resolves them all
+            RenderLoaders loaders = new RenderLoaders();
+            List<CompletableFuture<ProductDisplay>> rows = new ArrayList<>();
             for (Product product : result.getData()) {
-                Result<Integer> stockResult = ECommerceApp.getProductService().getTotalStock(product.getId());
-                int totalStock = stockResult.isSuccess() ? stockResult.getData() : 0;
-                
-                // Get category name
-                Result<Categories> catResult = ECommerceApp.getCategoryService().getCategoryById(product.getCategoryId());
-                String categoryName = catResult.isSuccess() ? catResult.getData().getCategoryName() : "Unknown";
-                
-                productsList.add(new ProductDisplay(
-                    product.getId(),
-                    product.getProductName(),
-                    product.getPrice(),
-                    totalStock,
-                    categoryName
-                ));
+                rows.add(loaders.stock(product.getId()).thenCombine(
+                    loaders.category(product.getCategoryId()),
+                    (totalStock, category) -> new ProductDisplay(
+                        product.getId(),
+                        product.getProductName(),
+                        product.getPrice(),
+                        totalStock != null ? totalStock : 0,
+                        category != null ? category.getCategoryName() : "Unknown"
+                    )));
+            }
+            loaders.dispatch();
+            
+            for (CompletableFuture<ProductDisplay> row : rows) {
+                productsList.add(row.join());
             }
         }
     }
@@ -0,0 +1,376 @@
+package org.commerce.controllers;
+
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import org.commerce.common.Page;
+import org.commerce.common.Result;
+import org.commerce.config.MongoDBConfig;
+import org.commerce.daos.entities.Product;
+import org.commerce.services.ProductService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Virtualized product grid: a ListView whose cells each hold one row of product cards.
+ * The ListView only creates cells for the rows on screen and rebinds them while
+ * scrolling, so the scene graph stays a few screens of cards however large the
+ * catalog is. Products are fetched a page at a time as the user nears the end of
+ * what is loaded, and each page's category, stock and rating lookups run as one
+ * batched render pass. Fetches and lookups run in the background; showing a new
+ * source supersedes any fetch still running for the old one.
+ */
+class ProductGrid {
+    /** Products fetched per page. */
+    static final int PAGE_SIZE = ProductService.LISTING_PAGE_SIZE;
+
+    private static final double CARD_WIDTH = 280;
+    private static final double CARD_HEIGHT = 380;
+    private static final double GAP = 20;
+    // Room for the row padding and the vertical scroll bar
+    private static final double ROW_INSETS = 40;
+    // The next page is requested once a row this close to the end is shown
+    private static final int PREFETCH_ROWS = 3;
+
+    /**
+     * Supplies products one page at a time.
+     */
+    @FunctionalInterface
+    interface PageSource {
+        Result<Page<Product>> fetch(String cursor, int pageSize);
+
+        /**
+         * Pages through the products of a query that returns them all at once, such as
+         * a search. The query runs with the first fetch; later pages slice its result.
+         */
+        static PageSource of(Supplier<Result<List<Product>>> query) {
+            return new PageSource() {
+                private List<Product> products;
+
+                @Override
+                public Result<Page<Product>> fetch(String cursor, int pageSize) {
+                    if (products == null) {
+                        Result<List<Product>> result = query.get();
+                        if (!result.isSuccess()) {
+                            return Result.failure(result.getMessage());
+                        }
+                        products = result.getData();
+                    }
+                    int from = cursor == null ? 0 : Integer.parseInt(cursor);
+                    int to = Math.min(products.size(), from + pageSize);
+                    String next = to < products.size() ? Integer.toString(to) : null;
+                    return Result.success(new Page<>(products.subList(from, to), next));
+                }
+            };
+        }
+    }
+
+    /**
+     * A product with the details its card shows, looked up once per page.
+     */
+    static final class Tile {
+        private final Product product;
+        private String categoryName = "Unknown";
+        private int stock;
+        private Double rating;
+
+        private Tile(Product product) {
+            this.product = product;
+        }
+    }
+
+    private final ListView<List<Tile>> view;
+    private final Consumer<Product> onAddToCart;
+    private final Consumer<Product> onShowDetails;
+    private final List<Tile> tiles = new ArrayList<>();
+    private final BackgroundTasks.Slot fetches = new BackgroundTasks.Slot();
+    private PageSource source;
+    private String nextCursor;
+    private boolean exhausted = true;
+    private int columns = 1;
+
+    ProductGrid(ListView<List<Tile>> view, Consumer<Product> onAddToCart, Consumer<Product> onShowDetails) {
+        this.view = view;
+        this.onAddToCart = onAddToCart;
+        this.onShowDetails = onShowDetails;
+
+        view.setCellFactory(listView -> new RowCell());
+        view.setFixedCellSize(CARD_HEIGHT + GAP); // lets the VirtualFlow skip measuring rows
+        view.setFocusTraversable(false);
+        Text placeholder = new Text("No products found");
+        placeholder.setStyle("-fx-font-size: 18px; -fx-fill: #64748b;");
+        view.setPlaceholder(placeholder);
+        view.widthProperty().addListener((obs, oldWidth, newWidth) -> relayout(newWidth.doubleValue()));
+    }
+
+    /**
+     * Switches to a new source and fetches its first page in the background. The
+     * current cards stay on screen until that page arrives, so typing a search does
+     * not flash an empty grid; a fetch still running for the previous source is
+     * superseded and its page dropped.
+     *
+     * @param source Where products come from
+     * @param onFirstPage Receives the result of the first fetch on the FX thread
+     */
+    void show(PageSource source, Consumer<Result<Page<Product>>> onFirstPage) {
+        this.source = source;
+        fetches.submit(() -> fetch(source, null), batch -> {
+            tiles.clear();
+            view.getItems().clear();
+            append(batch);
+            view.scrollTo(0);
+            onFirstPage.accept(batch.result);
+        }, error -> {
+            exhausted = true;
+            onFirstPage.accept(Result.failure(BackgroundTasks.describe(error)));
+        });
+    }
+
+    /**
+     * Number of products fetched so far (not the number of cards, which stays
+     * bounded by what fits on screen).
+     */
+    int loadedCount() {
+        return tiles.size();
+    }
+
+    boolean hasMore() {
+        return !exhausted;
+    }
+
+    /**
+     * True while a page is being fetched; bind loading indicators to it.
+     */
+    ReadOnlyBooleanProperty loadingProperty() {
+        return fetches.runningProperty();
+    }
+
+    /**
+     * A fetched page together with its looked-up tiles.
+     */
+    private static final class Batch {
+        private final Result<Page<Product>> result;
+        private final List<Tile> tiles;
+
+        private Batch(Result<Page<Product>> result, List<Tile> tiles) {
+            this.result = result;
+            this.tiles = tiles;
+        }
+    }
+
+    /**
+     * Fetches one page and its card details. Runs in the background.
+     */
+    private static Batch fetch(PageSource source, String cursor) {
+        Result<Page<Product>> result = source.fetch(cursor, PAGE_SIZE);
+        List<Tile> tiles = result.isSuccess() ? lookUp(result.getData().getItems()) : List.of();
+        return new Batch(result, tiles);
+    }
+
+    /**
+     * Appends a fetched page's rows, filling up the last partial row first.
+     */
+    private void append(Batch batch) {
+        if (!batch.result.isSuccess()) {
+            exhausted = true;
+            return;
+        }
+        Page<Product> page = batch.result.getData();
+        nextCursor = page.getNextCursor();
+        exhausted = !page.hasNext();
+
+        int firstChangedRow = tiles.size() / columns;
+        tiles.addAll(batch.tiles);
+        ObservableList<List<Tile>> rows = view.getItems();
+        if (firstChangedRow < rows.size()) {
+            rows.remove(firstChangedRow, rows.size());
+        }
+        rows.addAll(rowsFrom(firstChangedRow * columns));
+    }
+
+    /**
+     * Called by cells near the end of the loaded rows. The page is appended by the
+     * task's success handler, after the current layout pass, since the ListView's
+     * items must not change while its cells are being updated.
+     */
+    private void requestNextPage() {
+        if (exhausted || fetches.isRunning()) {
+            return; // Nothing left, or a fetch (possibly for a new source) is under way
+        }
+        fetches.submit(() -> fetch(source, nextCursor), batch -> {
+            append(batch);
+            if (!batch.result.isSuccess()) {
+                System.err.println("Failed to load next product page: " + batch.result.getMessage());
+            }
+        }, error -> {
+            exhausted = true;
+            System.err.println("Failed to load next product page: " + BackgroundTasks.describe(error));
+        });
+    }
+
+    private void relayout(double width) {
+        int fitting = Math.max(1, (int) ((width - ROW_INSETS + GAP) / (CARD_WIDTH + GAP)));
+        if (fitting != columns) {
+            columns = fitting;
+            view.getItems().setAll(rowsFrom(0));
+        }
+    }
+
+    private List<List<Tile>> rowsFrom(int firstTile) {
+        List<List<Tile>> rows = new ArrayList<>();
+        for (int i = firstTile; i < tiles.size(); i += columns) {
+            rows.add(List.copyOf(tiles.subList(i, Math.min(i + columns, tiles.size()))));
+        }
+        return rows;
+    }
+
+    /**
+     * Looks up the categories, stock and ratings of one page in a single batched pass.
+     */
+    private static List<Tile> lookUp(List<Product> products) {
+        RenderLoaders loaders = new RenderLoaders();
+        boolean ratings = MongoDBConfig.isConnected();
+        List<Tile> page = new ArrayList<>(products.size());
+        for (Product product : products) {
+            Tile tile = new Tile(product);
+            loaders.category(product.getCategoryId()).thenAccept(category -> {
+                if (category != null) {
+                    tile.categoryName = category.getCategoryName();
+                }
+            });
+            loaders.stock(product.getId()).thenAccept(stock -> tile.stock = stock != null ? stock : 0);
+            if (ratings) {
+                // Null when the ratings lookup failed; the card then shows no rating
+                loaders.rating(product.getId()).thenAccept(rating -> tile.rating = rating);
+            }
+            page.add(tile);
+        }
+        loaders.dispatch();
+        return page;
+    }
+
+    /**
+     * One row of cards. Cards are created once per cell and rebound as the cell is reused.
+     */
+    private final class RowCell extends ListCell<List<Tile>> {
+        private final HBox row = new HBox(GAP);
+        private final List<Card> cards = new ArrayList<>();
+
+        RowCell() {
+            row.setPadding(new Insets(0, 10, 0, 10));
+        }
+
+        @Override
+        protected void updateItem(List<Tile> items, boolean empty) {
+            super.updateItem(items, empty);
+            setText(null);
+            if (empty || items == null) {
+                setGraphic(null);
+                return;
+            }
+
+            while (cards.size() < items.size()) {
+                Card card = new Card();
+                cards.add(card);
+                row.getChildren().add(card);
+            }
+            for (int i = 0; i < cards.size(); i++) {
+                Card card = cards.get(i);
+                boolean used = i < items.size();
+                card.setVisible(used);
+                card.setManaged(used);
+                if (used) {
+                    card.bind(items.get(i));
+                }
+            }
+            setGraphic(row);
+
+            if (getIndex() >= getListView().getItems().size() - PREFETCH_ROWS) {
+                requestNextPage();
+            }
+        }
+    }
+
+    /**
+     * A product card whose nodes are built once and refilled by bind().
+     */
+    private final class Card extends VBox {
+        private final Label nameLabel = new Label();
+        private final Label categoryLabel = new Label();
+        private final Label descLabel = new Label();
+        private final Label priceLabel = new Label();
+        private final Label ratingLabel = new Label();
+        private final Label stockLabel = new Label();
+        private final Button addToCartBtn = new Button("Add to Cart");
+        private Product product;
+
+        Card() {
+            super(10);
+            getStyleClass().add("product-card");
+            setPadding(new Insets(20));
+            setPrefWidth(CARD_WIDTH);
+            setMaxWidth(CARD_WIDTH);
+            setPrefHeight(CARD_HEIGHT);
+            setMaxHeight(CARD_HEIGHT);
+
+            nameLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #1e293b;");
+            nameLabel.setWrapText(true);
+            categoryLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #667eea; -fx-background-color: #e0e7ff; " +
+                                  "-fx-padding: 4px 12px; -fx-background-radius: 12px; -fx-font-weight: 700;");
+            descLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #64748b;");
+            descLabel.setWrapText(true);
+            descLabel.setMaxHeight(60);
+            priceLabel.setStyle("-fx-font-size: 24px; -fx-font-weight: bold; -fx-text-fill: #10b981;");
+            ratingLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #f59e0b;");
+
+            addToCartBtn.getStyleClass().add("primary-button");
+            addToCartBtn.setMaxWidth(Double.MAX_VALUE);
+            addToCartBtn.setOnAction(e -> onAddToCart.accept(product));
+
+            Button viewReviewsBtn = new Button("View Details & Reviews");
+            viewReviewsBtn.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; -fx-font-size: 14px; " +
+                                   "-fx-padding: 10px 20px; -fx-background-radius: 8px; -fx-cursor: hand;");
+            viewReviewsBtn.setMaxWidth(Double.MAX_VALUE);
+            viewReviewsBtn.setOnAction(e -> onShowDetails.accept(product));
+
+            Region spacer = new Region();
+            VBox.setVgrow(spacer, Priority.ALWAYS);
+
+            getChildren().addAll(nameLabel, categoryLabel, descLabel, spacer, priceLabel,
+                                 ratingLabel, stockLabel, addToCartBtn, viewReviewsBtn);
+        }
+
+        void bind(Tile tile) {
+            product = tile.product;
+            nameLabel.setText(product.getProductName());
+            categoryLabel.setText(tile.categoryName);
+            descLabel.setText(product.getDescription());
+            priceLabel.setText("$" + product.getPrice().toString());
+
+            boolean rated = tile.rating != null;
+            ratingLabel.setManaged(rated);
+            ratingLabel.setVisible(rated);
+            if (rated) {
+                ratingLabel.setText(String.format("%s %.1f", ProductListingController.getStarRating(tile.rating), tile.rating));
+            }
+
+            stockLabel.setText(tile.stock > 0 ? "In Stock (" + tile.stock + ")" : "Out of Stock");
+            stockLabel.setStyle(tile.stock > 0
+                ? "-fx-font-size: 13px; -fx-text-fill: #10b981; -fx-font-weight: 600;"
+                : "-fx-font-size: 13px; -fx-text-fill: #ef4444; -fx-font-weight: 600;");
+            addToCartBtn.setDisable(tile.stock == 0);
+        }
+    }
+}
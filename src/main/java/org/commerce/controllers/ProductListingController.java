@@ -7,14 +7,16 @@ import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.scene.text.Text;
 import org.commerce.ECommerceApp;
+import org.commerce.common.CacheRegistry;
+import org.commerce.common.CacheStats;
 import org.commerce.common.PerformanceMonitor;
 import org.commerce.common.Result;
 import org.commerce.daos.entities.Categories;
 import org.commerce.daos.entities.Product;
 import org.commerce.daos.entities.User;
 import org.commerce.daos.entities.Review;
+import org.commerce.services.ProductService;
 
 // import java.math.BigDecimal;
 import java.util.List;
@@ -26,16 +28,17 @@ import java.util.Optional;
 public class ProductListingController {
 
     @FXML private Label welcomeLabel;
-    @FXML private FlowPane productsContainer;
+    @FXML private ListView<List<ProductGrid.Tile>> productsGrid;
     @FXML private ComboBox<String> categoryFilter;
     @FXML private TextField searchField;
     @FXML private ComboBox<String> sortComboBox;
     @FXML private Label cacheStatsLabel;
     @FXML private Label performanceLabel;
+    @FXML private ProgressIndicator loadingIndicator;
     
-    private ObservableList<Product> allProducts = FXCollections.observableArrayList();
     private ObservableList<Categories> categories = FXCollections.observableArrayList();
     private User currentUser;
+    private ProductGrid grid;
 
     @FXML
     private void initialize() {
@@ -43,6 +46,10 @@ public class ProductListingController {
         if (currentUser != null) {
             welcomeLabel.setText("Welcome, " + currentUser.getFirstname() + "!");
         }
+        grid = new ProductGrid(productsGrid, this::handleAddToCart, this::showProductDetails);
+        if (loadingIndicator != null) {
+            loadingIndicator.visibleProperty().bind(grid.loadingProperty());
+        }
 
         loadCategories();
         setupSortComboBox();
@@ -67,46 +74,49 @@ public class ProductListingController {
     }
 
     private void loadCategories() {
-        Result<List<Categories>> result = ECommerceApp.getCategoryService().getAllCategories();
-        if (result.isSuccess()) {
-            categories.addAll(result.getData());
-            categoryFilter.getItems().add("All Categories");
-            for (Categories cat : categories) {
-                categoryFilter.getItems().add(cat.getCategoryName());
+        // The default is selectable right away; the category names follow when loaded
+        categoryFilter.getItems().add("All Categories");
+        categoryFilter.setValue("All Categories");
+        BackgroundTasks.run(() -> ECommerceApp.getCategoryService().getAllCategories(), result -> {
+            if (result.isSuccess()) {
+                categories.addAll(result.getData());
+                for (Categories cat : categories) {
+                    categoryFilter.getItems().add(cat.getCategoryName());
+                }
             }
-            categoryFilter.setValue("All Categories");
-        }
+        }, error -> System.err.println("Failed to load categories: " + BackgroundTasks.describe(error)));
     }
 
     private void loadProducts() {
-        productsContainer.getChildren().clear();
-        allProducts.clear();
-        
         // Measure performance
         long startTime = System.nanoTime();
         
         // Get sort option
         String sortOption = getSortOptionKey();
+        ProductService productService = ECommerceApp.getProductService();
+        boolean cached = productService.isPageCached(sortOption, null, ProductGrid.PAGE_SIZE);
         
-        Result<List<Product>> result = ECommerceApp.getProductService().getAllProductsSorted(sortOption);
-        
-        long duration = (System.nanoTime() - startTime) / 1_000_000; // Convert to ms
+        if (performanceLabel != null) {
+            performanceLabel.setText("Loading products...");
+        }
         
-        if (result.isSuccess()) {
-            allProducts.addAll(result.getData());
-            displayProducts(allProducts);
+        // Only the first page is fetched here; the grid pages in the rest as the user scrolls
+        grid.show((cursor, pageSize) -> productService.getProductsPage(sortOption, cursor, pageSize), result -> {
+            long duration = (System.nanoTime() - startTime) / 1_000_000; // Convert to ms
             
-            // Show performance info
-            if (performanceLabel != null) {
-                performanceLabel.setText(String.format("⚡ Loaded %d products in %dms (Cached: %s)", 
-                    allProducts.size(), duration, duration < 10 ? "YES" : "NO"));
-                performanceLabel.setStyle("-fx-text-fill: " + (duration < 10 ? "#10b981" : "#f59e0b") + ";");
+            if (result.isSuccess()) {
+                // Show performance info
+                if (performanceLabel != null) {
+                    performanceLabel.setText(String.format("⚡ Loaded first %d products in %dms (Cached: %s)%s", 
+                        grid.loadedCount(), duration, cached ? "YES" : "NO", grid.hasMore() ? ", more on scroll" : ""));
+                    performanceLabel.setStyle("-fx-text-fill: " + (cached ? "#10b981" : "#f59e0b") + ";");
+                }
+            } else {
+                showAlert("Error", result.getMessage());
             }
-        } else {
-            showAlert("Error", result.getMessage());
-        }
-        
-        updateCacheStats();
+            
+            updateCacheStats();
+        });
     }
     
     private String getSortOptionKey() {
@@ -131,85 +141,7 @@ public class ProductListingController {
         }
     }
 
-    private void displayProducts(List<Product> products) {
-        productsContainer.getChildren().clear();
-        
-        for (Product product : products) {
-            VBox productCard = createProductCard(product);
-            productsContainer.getChildren().add(productCard);
-        }
-        
-        if (products.isEmpty()) {
-            Text noProducts = new Text("No products found");
-            noProducts.setStyle("-fx-font-size: 18px; -fx-fill: #64748b;");
-            productsContainer.getChildren().add(noProducts);
-        }
-    }
-
-    private VBox createProductCard(Product product) {
-        VBox card = new VBox(10);
-        card.getStyleClass().add("product-card");
-        card.setPadding(new Insets(20));
-        card.setPrefWidth(280);
-        card.setMaxWidth(280);
-        
-        // Product Name
-        Label nameLabel = new Label(product.getProductName());
-        nameLabel.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-text-fill: #1e293b;");
-        nameLabel.setWrapText(true);
-        
-        // Category
-        Result<Categories> catResult = ECommerceApp.getCategoryService().getCategoryById(product.getCategoryId());
-        String categoryName = catResult.isSuccess() ? catResult.getData().getCategoryName() : "Unknown";
-        Label categoryLabel = new Label(categoryName);
-        categoryLabel.setStyle("-fx-font-size: 12px; -fx-text-fill: #667eea; -fx-background-color: #e0e7ff; " +
-                              "-fx-padding: 4px 12px; -fx-background-radius: 12px; -fx-font-weight: 700;");
-        
-        // Description
-        Label descLabel = new Label(product.getDescription());
-        descLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #64748b;");
-        descLabel.setWrapText(true);
-        descLabel.setMaxHeight(60);
-        
-        // Price
-        Label priceLabel = new Label("$" + product.getPrice().toString());
-        priceLabel.setStyle("-fx-font-size: 24px; -fx-font-weight: bold; -fx-text-fill: #10b981;");
-        
-        // Skip rating display on card to avoid MongoDB queries for every product
-        // Users can click "View Details & Reviews" to see ratings
-        
-        // Stock
-        Result<Integer> stockResult = ECommerceApp.getProductService().getTotalStock(product.getId());
-        int stock = stockResult.isSuccess() ? stockResult.getData() : 0;
-        Label stockLabel = new Label(stock > 0 ? "In Stock (" + stock + ")" : "Out of Stock");
-        stockLabel.setStyle(stock > 0 
-            ? "-fx-font-size: 13px; -fx-text-fill: #10b981; -fx-font-weight: 600;" 
-            : "-fx-font-size: 13px; -fx-text-fill: #ef4444; -fx-font-weight: 600;");
-        
-        // Add to Cart Button
-        Button addToCartBtn = new Button("Add to Cart");
-        addToCartBtn.getStyleClass().add("primary-button");
-        addToCartBtn.setMaxWidth(Double.MAX_VALUE);
-        addToCartBtn.setDisable(stock == 0);
-        addToCartBtn.setOnAction(e -> handleAddToCart(product));
-        
-        // View Reviews Button
-        Button viewReviewsBtn = new Button("View Details & Reviews");
-        viewReviewsBtn.setStyle("-fx-background-color: #667eea; -fx-text-fill: white; -fx-font-size: 14px; " +
-                               "-fx-padding: 10px 20px; -fx-background-radius: 8px; -fx-cursor: hand;");
-        viewReviewsBtn.setMaxWidth(Double.MAX_VALUE);
-        viewReviewsBtn.setOnAction(e -> showProductDetails(product));
-        
-        // Spacer
-        Region spacer = new Region();
-        VBox.setVgrow(spacer, Priority.ALWAYS);
-        
-        card.getChildren().addAll(nameLabel, categoryLabel, descLabel, spacer, priceLabel, stockLabel, addToCartBtn, viewReviewsBtn);
-        
-        return card;
-    }
-    
-    private String getStarRating(double rating) {
+    static String getStarRating(double rating) {
         StringBuilder stars = new StringBuilder();
         int fullStars = (int) rating;
         boolean hasHalfStar = (rating - fullStars) >= 0.5;
@@ -245,14 +177,8 @@ public class ProductListingController {
         descLabel.setWrapText(true);
         descLabel.setStyle("-fx-font-size: 14px; -fx-text-fill: #475569;");
         
-        // Rating summary
-        Result<Double> avgRatingResult = ECommerceApp.getReviewService().getAverageRating(product.getId());
-        double avgRating = avgRatingResult.isSuccess() ? avgRatingResult.getData() : 0.0;
-        
-        Result<long[]> distributionResult = ECommerceApp.getReviewService().getRatingDistribution(product.getId());
-        long[] distribution = distributionResult.isSuccess() ? distributionResult.getData() : new long[5];
-        
-        Label avgRatingLabel = new Label(String.format("Average Rating: %s %.1f/5.0", getStarRating(avgRating), avgRating));
+        // Rating summary (filled in with the reviews below)
+        Label avgRatingLabel = new Label("Average Rating: loading...");
         avgRatingLabel.setStyle("-fx-font-size: 16px; -fx-font-weight: bold;");
         
         // Add separator
@@ -320,38 +246,22 @@ public class ProductListingController {
                 }
                 
                 // Create review
-                try {
-                    Review review = new Review();
-                    review.setProductId(product.getId());
-                    review.setUserId(currentUser.getId());
-                    review.setUserName(currentUser.getFirstname() + " " + currentUser.getLastname());
-                    review.setRating(rating);
-                    review.setTitle(title);
-                    review.setComment(comment);
-                    
-                    Result<Review> createResult = ECommerceApp.getReviewService().createReview(review);
+                Review review = new Review();
+                review.setProductId(product.getId());
+                review.setUserId(currentUser.getId());
+                review.setUserName(currentUser.getFirstname() + " " + currentUser.getLastname());
+                review.setRating(rating);
+                review.setTitle(title);
+                review.setComment(comment);
+                
+                submitBtn.setDisable(true);
+                submitReview(review, () -> {
+                    showAlert("Success", "Thank you for your review!");
+                    dialog.close();
                     
-                    if (createResult.isSuccess()) {
-                        // Log activity
-                        ECommerceApp.getActivityLogService().logActivity(
-                            currentUser.getId(),
-                            currentUser.getFirstname() + " " + currentUser.getLastname(),
-                            "WRITE_REVIEW",
-                            "Product",
-                            product.getId()
-                        );
-                        
-                        showAlert("Success", "Thank you for your review!");
-                        dialog.close();
-                        
-                        // Refresh the product listing
-                        loadProducts();
-                    } else {
-                        showAlert("Error", "Failed to submit review: " + createResult.getMessage());
-                    }
-                } catch (Exception ex) {
-                    showAlert("Error", "Failed to submit review: " + ex.getMessage());
-                }
+                    // Refresh the product listing
+                    loadProducts();
+                }, () -> submitBtn.setDisable(false));
             });
             
             reviewFormBox.getChildren().addAll(
@@ -375,22 +285,36 @@ public class ProductListingController {
         reviewsScroll.setFitToWidth(true);
         
         VBox reviewsList = new VBox(10);
-        Result<List<Review>> reviewsResult = ECommerceApp.getReviewService().getProductReviews(product.getId());
-        List<Review> allReviews = reviewsResult.isSuccess() ? reviewsResult.getData() : List.of();
+        reviewsList.getChildren().add(new ProgressIndicator());
+        reviewsScroll.setContent(reviewsList);
         
-        // Limit to 20 most recent reviews to save memory
-        List<Review> reviews = allReviews.stream().limit(20).toList();
+        // The dialog opens at once; the rating and reviews arrive from the background
+        BackgroundTasks.run(() -> ECommerceApp.getReviewService().getAverageRating(product.getId()), result -> {
+            double avgRating = result.isSuccess() ? result.getData() : 0.0;
+            avgRatingLabel.setText(String.format("Average Rating: %s %.1f/5.0", getStarRating(avgRating), avgRating));
+        }, error -> avgRatingLabel.setText("Average Rating: unavailable"));
         
-        if (reviews.isEmpty()) {
-            Label noReviews = new Label("No reviews yet. Be the first to review!");
-            noReviews.setStyle("-fx-text-fill: #94a3b8; -fx-font-style: italic;");
-            reviewsList.getChildren().add(noReviews);
-        } else {
-            for (Review review : reviews) {
-                reviewsList.getChildren().add(createReviewCard(review));
+        BackgroundTasks.run(() -> ECommerceApp.getReviewService().getProductReviews(product.getId()), result -> {
+            List<Review> allReviews = result.isSuccess() ? result.getData() : List.of();
+            
+            // Limit to 20 most recent reviews to save memory
+            List<Review> reviews = allReviews.stream().limit(20).toList();
+            
+            reviewsList.getChildren().clear();
+            if (reviews.isEmpty()) {
+                Label noReviews = new Label("No reviews yet. Be the first to review!");
+                noReviews.setStyle("-fx-text-fill: #94a3b8; -fx-font-style: italic;");
+                reviewsList.getChildren().add(noReviews);
+            } else {
+                for (Review review : reviews) {
+                    reviewsList.getChildren().add(createReviewCard(review));
+                }
             }
-        }
-        reviewsScroll.setContent(reviewsList);
+        }, error -> {
+            Label failed = new Label("Could not load reviews: " + BackgroundTasks.describe(error));
+            failed.setStyle("-fx-text-fill: #ef4444;");
+            reviewsList.getChildren().setAll(failed);
+        });
         
         content.getChildren().addAll(
             priceLabel, descLabel, avgRatingLabel, 
@@ -528,40 +452,55 @@ public class ProductListingController {
             }
             
             // Create review
-            try {
-                Review review = new Review();
-                review.setProductId(product.getId());
-                review.setUserId(currentUser.getId());
-                review.setUserName(currentUser.getFirstname() + " " + currentUser.getLastname());
-                review.setRating(rating);
-                review.setTitle(title);
-                review.setComment(comment);
-                
-                Result<Review> createResult = ECommerceApp.getReviewService().createReview(review);
-                
-                if (createResult.isSuccess()) {
-                    // Log activity
-                    ECommerceApp.getActivityLogService().logActivity(
-                        currentUser.getId(),
-                        currentUser.getFirstname() + " " + currentUser.getLastname(),
-                        "WRITE_REVIEW",
-                        "Product",
-                        product.getId()
-                    );
-                    
-                    showAlert("Success", "Thank you for your review!");
-                    
-                    // Refresh products to show updated rating
-                    loadProducts();
-                } else {
-                    showAlert("Error", "Failed to submit review: " + createResult.getMessage());
-                }
+            Review review = new Review();
+            review.setProductId(product.getId());
+            review.setUserId(currentUser.getId());
+            review.setUserName(currentUser.getFirstname() + " " + currentUser.getLastname());
+            review.setRating(rating);
+            review.setTitle(title);
+            review.setComment(comment);
+            
+            submitReview(review, () -> {
+                showAlert("Success", "Thank you for your review!");
                 
-            } catch (Exception e) {
-                showAlert("Error", "Failed to submit review: " + e.getMessage());
-            }
+                // Refresh products to show updated rating
+                loadProducts();
+            }, () -> {});
         }
     }
+    
+    /**
+     * Saves a review and logs the activity in the background.
+     *
+     * @param onSubmitted Runs on the FX thread once the review is saved
+     * @param onFailed Runs on the FX thread after the failure has been shown
+     */
+    private void submitReview(Review review, Runnable onSubmitted, Runnable onFailed) {
+        BackgroundTasks.run(() -> {
+            Result<Review> createResult = ECommerceApp.getReviewService().createReview(review);
+            if (createResult.isSuccess()) {
+                // Log activity
+                ECommerceApp.getActivityLogService().logActivity(
+                    currentUser.getId(),
+                    currentUser.getFirstname() + " " + currentUser.getLastname(),
+                    "WRITE_REVIEW",
+                    "Product",
+                    review.getProductId()
+                );
+            }
+            return createResult;
+        }, createResult -> {
+            if (createResult.isSuccess()) {
+                onSubmitted.run();
+            } else {
+                showAlert("Error", "Failed to submit review: " + createResult.getMessage());
+                onFailed.run();
+            }
+        }, error -> {
+            showAlert("Error", "Failed to submit review: " + BackgroundTasks.describe(error));
+            onFailed.run();
+        });
+    }
 
     private void setupFilters() {
         // Category filter
@@ -577,7 +516,7 @@ public class ProductListingController {
         
         // Determine category ID for database query
         Integer categoryId = null;
-        if (!selectedCategory.equals("All Categories")) {
+        if (selectedCategory != null && !selectedCategory.equals("All Categories")) {
             for (Categories cat : categories) {
                 if (cat.getCategoryName().equals(selectedCategory)) {
                     categoryId = cat.getId();
@@ -586,26 +525,38 @@ public class ProductListingController {
             }
         }
         
-        // Use optimized database search instead of in-memory filtering
-        // This leverages PostgreSQL indexes for better performance
-        long startTime = PerformanceMonitor.startTiming("Product Search");
-        
-        Result<List<Product>> result = ECommerceApp.getProductService()
-            .searchProductsByCategory(categoryId, searchText.isEmpty() ? null : searchText);
-        
-        long duration = PerformanceMonitor.endTiming("Product Search", startTime);
+        // Without filters, page through the catalog instead of fetching all of it
+        if (categoryId == null && searchText.isEmpty()) {
+            loadProducts();
+            return;
+        }
         
-        if (result.isSuccess()) {
-            allProducts.clear();
-            allProducts.addAll(result.getData());
-            displayProducts(allProducts);
+        // Use optimized database search instead of in-memory filtering
+        // This leverages PostgreSQL indexes for better performance.
+        // Each keystroke supersedes the search still running for the previous one.
+        Integer searchCategoryId = categoryId;
+        ProductGrid.PageSource results = ProductGrid.PageSource.of(() -> {
+            long startTime = PerformanceMonitor.startTiming("Product Search");
             
-            // Show performance info in console (can be viewed in logs)
-            System.out.printf("[SEARCH] Found %d products in %d ms (Category: %s, Search: '%s')%n",
-                allProducts.size(), duration, selectedCategory, searchText);
-        } else {
-            showAlert("Error", "Search failed: " + result.getMessage());
-        }
+            Result<List<Product>> result = ECommerceApp.getProductService()
+                .searchProductsByCategory(searchCategoryId, searchText.isEmpty() ? null : searchText);
+            
+            long duration = PerformanceMonitor.endTiming("Product Search", startTime);
+            
+            if (result.isSuccess()) {
+                // Show performance info in console (can be viewed in logs)
+                System.out.printf("[SEARCH] Found %d products in %d ms (Category: %s, Search: '%s')%n",
+                    result.getData().size(), duration, selectedCategory, searchText);
+            }
+            return result;
+        });
+        
+        // Results are held in memory; the grid still only builds cards for visible rows
+        grid.show(results, result -> {
+            if (!result.isSuccess()) {
+                showAlert("Error", "Search failed: " + result.getMessage());
+            }
+        });
     }
 
     @FXML
@@ -636,10 +587,16 @@ public class ProductListingController {
         String categoryStats = ECommerceApp.getCategoryService().getCacheStats();
         String userStats = ECommerceApp.getUserService().getCacheStats();
         
+        StringBuilder details = new StringBuilder();
+        for (CacheStats stats : CacheRegistry.snapshot()) {
+            details.append("• ").append(stats).append("\n");
+        }
+        
         showAlert("Cache Statistics", 
             "Product Service:\n  " + productStats + "\n\n" +
             "Category Service:\n  " + categoryStats + "\n\n" +
-            "User Service:\n  " + userStats);
+            "User Service:\n  " + userStats + "\n\n" +
+            "All Caches:\n" + details);
     }
 
     @FXML
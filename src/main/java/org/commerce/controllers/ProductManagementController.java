@@ -1,5 +1,6 @@
 package org.commerce.controllers;
 
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.collections.ObservableList;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
@@ -7,10 +8,13 @@ import org.commerce.ECommerceApp;
 import org.commerce.common.Result;
 import org.commerce.daos.entities.Categories;
 import org.commerce.daos.entities.Product;
+import org.commerce.exceptions.ServiceException;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller responsible for Product-related operations.
@@ -21,6 +25,7 @@ public class ProductManagementController extends BaseController {
     
     private final ObservableList<ProductDisplay> productsList;
     private final ObservableList<Categories> categoriesList;
+    private final BackgroundTasks.Slot loading = new BackgroundTasks.Slot();
     
     public ProductManagementController(ObservableList<ProductDisplay> productsList, 
                                       ObservableList<Categories> categoriesList) {
@@ -32,27 +37,58 @@ public class ProductManagementController extends BaseController {
      * Loads all products from the service and updates the observable list.
      */
     public void loadProducts() {
-        productsList.clear();
+        loadProducts(null);
+    }
+    
+    /**
+     * Loads all products in the background, replacing any load still running,
+     * and updates the observable list when they arrive.
+     * 
+     * @param onLoaded Called on the FX thread once the list is updated, or null
+     */
+    public void loadProducts(Runnable onLoaded) {
+        loading.submit(this::fetchProducts, rows -> {
+            productsList.setAll(rows);
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+        }, error -> showError("Error", "Failed to load products: " + BackgroundTasks.describe(error)));
+    }
+    
+    /**
+     * True while products are loading.
+     */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.runningProperty();
+    }
+    
+    private List<ProductDisplay> fetchProducts() {
         Result<List<Product>> result = ECommerceApp.getProductService().getAllProducts();
+        if (!result.isSuccess()) {
+            throw new ServiceException(result.getMessage());
+        }
         
-        if (result.isSuccess()) {
-            for (Product product : result.getData()) {
-                Result<Integer> stockResult = ECommerceApp.getProductService().getTotalStock(product.getId());
-                int totalStock = stockResult.isSuccess() ? stockResult.getData() : 0;
-                
-                // Get category name
-                Result<Categories> catResult = ECommerceApp.getCategoryService().getCategoryById(product.getCategoryId());
-                String categoryName = catResult.isSuccess() ? catResult.getData().getCategoryName() : "Unknown";
-                
-                productsList.add(new ProductDisplay(
+        // Rows queue their stock and category lookups; one dispatch resolves them all
+        RenderLoaders loaders = new RenderLoaders();
+        List<CompletableFuture<ProductDisplay>> rows = new ArrayList<>();
+        for (Product product : result.getData()) {
+            rows.add(loaders.stock(product.getId()).thenCombine(
+                loaders.category(product.getCategoryId()),
+                (totalStock, category) -> new ProductDisplay(
                     product.getId(),
                     product.getProductName(),
                     product.getPrice(),
-                    totalStock,
-                    categoryName
-                ));
-            }
+                    totalStock != null ? totalStock : 0,
+                    category != null ? category.getCategoryName() : "Unknown"
+                )));
         }
+        loaders.dispatch();
+        
+        List<ProductDisplay> displays = new ArrayList<>(rows.size());
+        for (CompletableFuture<ProductDisplay> row : rows) {
+            displays.add(row.join());
+        }
+        return displays;
     }
     
     /**
@@ -83,13 +119,10 @@ public class ProductManagementController extends BaseController {
     public void handleDelete(ProductDisplay selected) {
         if (selected != null) {
             if (showConfirmation("Delete Product", "Are you sure you want to delete this product?")) {
-                Result<Boolean> result = ECommerceApp.getProductService().deleteProduct(selected.getId());
-                if (result.isSuccess()) {
+                callService(() -> ECommerceApp.getProductService().deleteProduct(selected.getId()), deleted -> {
                     showAlert("Success", "Product deleted successfully!");
                     loadProducts();
-                } else {
-                    showError("Error", result.getMessage());
-                }
+                });
             }
         } else {
             showNoSelectionWarning("product", "delete");
@@ -170,18 +203,12 @@ public class ProductManagementController extends BaseController {
         });
 
         Optional<Product> result = dialog.showAndWait();
-        result.ifPresent(p -> {
-            Result<Product> saveResult = product == null 
+        result.ifPresent(p -> callService(() -> product == null
                 ? ECommerceApp.getProductService().createProduct(p)
-                : ECommerceApp.getProductService().updateProduct(p);
-            
-            if (saveResult.isSuccess()) {
-                showAlert("Success", "Product saved successfully!");
-                loadProducts();
-            } else {
-                showError("Error", saveResult.getMessage());
-            }
-        });
+                : ECommerceApp.getProductService().updateProduct(p), saved -> {
+            showAlert("Success", "Product saved successfully!");
+            loadProducts();
+        }));
     }
     
     /**
@@ -1,5 +1,6 @@
 package org.commerce.controllers;
 
+import javafx.beans.binding.Bindings;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
@@ -39,11 +40,19 @@ public class RegisterController {
     
     @FXML
     private VBox registerBox;
+    
+    // Hashing the new password is deliberately slow, so it runs in the background
+    private final BackgroundTasks.Slot registration = new BackgroundTasks.Slot();
 
     @FXML
     private void initialize() {
         errorLabel.setVisible(false);
         
+        // Block repeat submissions and show progress while the account is created
+        registerButton.disableProperty().bind(registration.runningProperty());
+        registerButton.textProperty().bind(Bindings.when(registration.runningProperty())
+            .then("Creating account...").otherwise(registerButton.getText()));
+        
         // Add enter key support
         confirmPasswordField.setOnAction(event -> handleRegister());
     }
@@ -88,21 +97,29 @@ public class RegisterController {
         newUser.setPassword(password);
         newUser.setUserRole(UserRole.CUSTOMER); // Default role is CUSTOMER
 
-        // Attempt registration
-        Result<User> result = ECommerceApp.getUserService().register(newUser);
+        if (registration.isRunning()) {
+            return;
+        }
 
+        // Attempt registration (and log it) off the FX thread
+        registration.submit(() -> {
+            Result<User> result = ECommerceApp.getUserService().register(newUser);
+            if (result.isSuccess()) {
+                User registeredUser = result.getData();
+                ECommerceApp.getActivityLogService().logActivity(
+                    registeredUser.getId(),
+                    registeredUser.getFirstname() + " " + registeredUser.getLastname(),
+                    "REGISTER",
+                    "USER",
+                    registeredUser.getId()
+                );
+            }
+            return result;
+        }, this::completeRegistration, error -> showError("Registration failed: " + BackgroundTasks.describe(error)));
+    }
+
+    private void completeRegistration(Result<User> result) {
         if (result.isSuccess()) {
-            User registeredUser = result.getData();
-            
-            // Log successful registration
-            ECommerceApp.getActivityLogService().logActivity(
-                registeredUser.getId(),
-                registeredUser.getFirstname() + " " + registeredUser.getLastname(),
-                "REGISTER",
-                "USER",
-                registeredUser.getId()
-            );
-            
             // Show success message
             Alert alert = new Alert(Alert.AlertType.INFORMATION);
             alert.setTitle("Registration Successful");
@@ -0,0 +1,97 @@
+package org.commerce.controllers;
+
+import org.commerce.ECommerceApp;
+import org.commerce.common.DataLoader;
+import org.commerce.common.Result;
+import org.commerce.daos.entities.Categories;
+import org.commerce.daos.entities.Inventory;
+import org.commerce.exceptions.ServiceException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Batches the per-product lookups issued while rendering one list or grid.
+ * Create one per render pass, request values while building rows or cards,
+ * then call dispatch() once: each kind of lookup runs as a single query
+ * (WHERE id = ANY(?) in PostgreSQL, $in in MongoDB) and completes every caller.
+ * A failed category, stock or inventory lookup fails the whole pass, so an
+ * unreachable database is reported instead of rendering every product as
+ * uncategorized and out of stock. Ratings are optional: if MongoDB fails, the
+ * products render without a rating.
+ */
+class RenderLoaders {
+    private final DataLoader<Integer, Categories> categories = loader("categories", ids ->
+        ECommerceApp.getCategoryService().getCategoriesByIds(ids));
+    private final DataLoader<Integer, Integer> stock = loader("stock", ids ->
+        ECommerceApp.getProductService().getTotalStocks(ids));
+    private final DataLoader<Integer, Double> ratings = new DataLoader<>(ids -> {
+        try {
+            Result<Map<Integer, Double>> result = ECommerceApp.getReviewService().getAverageRatings(ids);
+            if (result.isSuccess()) {
+                return result.getData();
+            }
+            System.err.println("Failed to load ratings: " + result.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Failed to load ratings: " + e.getMessage());
+        }
+        return Map.of(); // Every caller completes with null, i.e. no rating
+    });
+    private final DataLoader<Integer, List<Inventory>> inventory = loader("inventory", ids ->
+        ECommerceApp.getInventoryService().getInventoryByProductIds(ids));
+
+    // The first lookup that failed in this pass, rethrown by dispatch()
+    private RuntimeException failure;
+
+    CompletableFuture<Categories> category(int categoryId) {
+        return categories.load(categoryId);
+    }
+
+    CompletableFuture<Integer> stock(int productId) {
+        return stock.load(productId);
+    }
+
+    CompletableFuture<Double> rating(int productId) {
+        return ratings.load(productId);
+    }
+
+    CompletableFuture<List<Inventory>> inventory(int productId) {
+        return inventory.load(productId);
+    }
+
+    /**
+     * Runs the queued lookups and completes every pending caller.
+     *
+     * @throws RuntimeException the first required lookup's failure, once every loader has been dispatched
+     */
+    void dispatch() {
+        DataLoader.dispatchAll(categories, stock, ratings, inventory);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Wraps a batch lookup so a failed Result completes its callers exceptionally
+     * (through DataLoader) and is remembered for dispatch() to rethrow.
+     */
+    private <V> DataLoader<Integer, V> loader(String what, Function<Set<Integer>, Result<Map<Integer, V>>> lookup) {
+        return new DataLoader<>(ids -> {
+            try {
+                Result<Map<Integer, V>> result = lookup.apply(ids);
+                if (!result.isSuccess()) {
+                    throw new ServiceException("Failed to load " + what + ": " + result.getMessage());
+                }
+                return result.getData();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+                throw e;
+            }
+        });
+    }
+}
@@ -1,10 +1,10 @@
 package org.commerce.controllers;
 
+import javafx.beans.property.ReadOnlyBooleanProperty;
 import javafx.collections.ObservableList;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 import org.commerce.ECommerceApp;
-import org.commerce.common.Result;
 import org.commerce.daos.entities.User;
 
 import java.util.List;
@@ -18,6 +18,7 @@ import java.util.Optional;
 public class UserManagementController extends BaseController {
     
     private final ObservableList<User> usersList;
+    private final BackgroundTasks.Slot loading = new BackgroundTasks.Slot();
     
     public UserManagementController(ObservableList<User> usersList) {
         this.usersList = usersList;
@@ -27,12 +28,29 @@ public class UserManagementController extends BaseController {
      * Loads all users from the service and updates the observable list.
      */
     public void loadUsers() {
-        usersList.clear();
-        Result<List<User>> result = ECommerceApp.getUserService().getAllUsers();
-        
-        if (result.isSuccess()) {
-            usersList.addAll(result.getData());
-        }
+        loadUsers(null);
+    }
+    
+    /**
+     * Loads all users in the background, replacing any load still running,
+     * and updates the observable list when they arrive.
+     * 
+     * @param onLoaded Called on the FX thread once the list is updated, or null
+     */
+    public void loadUsers(Runnable onLoaded) {
+        loading.submit(() -> ECommerceApp.getUserService().getAllUsers(), result -> {
+            usersList.setAll(result.isSuccess() ? result.getData() : List.of());
+            if (onLoaded != null) {
+                onLoaded.run();
+            }
+        }, error -> showError("Error", "Failed to load users: " + BackgroundTasks.describe(error)));
+    }
+    
+    /**
+     * True while users are loading.
+     */
+    public ReadOnlyBooleanProperty loadingProperty() {
+        return loading.runningProperty();
     }
     
     /**
@@ -63,13 +81,10 @@ public class UserManagementController extends BaseController {
     public void handleDelete(User selected) {
         if (selected != null) {
             if (showConfirmation("Delete User", "Are you sure you want to delete this user?")) {
-                Result<Boolean> result = ECommerceApp.getUserService().deleteUser(selected.getId());
-                if (result.isSuccess()) {
+                callService(() -> ECommerceApp.getUserService().deleteUser(selected.getId()), deleted -> {
                     showAlert("Success", "User deleted successfully!");
                     loadUsers();
-                } else {
-                    showError("Error", result.getMessage());
-                }
+                });
             }
         } else {
             showNoSelectionWarning("user", "delete");
@@ -148,17 +163,11 @@ public class UserManagementController extends BaseController {
         });
 
         Optional<User> result = dialog.showAndWait();
-        result.ifPresent(u -> {
-            Result<User> saveResult = user == null 
+        result.ifPresent(u -> callService(() -> user == null
                 ? ECommerceApp.getUserService().createUser(u)
-                : ECommerceApp.getUserService().updateUser(u);
-            
-            if (saveResult.isSuccess()) {
-                showAlert("Success", "User saved successfully!");
-                loadUsers();
-            } else {
-                showError("Error", saveResult.getMessage());
-            }
-        });
+                : ECommerceApp.getUserService().updateUser(u), saved -> {
+            showAlert("Success", "User saved successfully!");
+            loadUsers();
+        }));
     }
 }
@@ -15,7 +15,12 @@ public class ProductsModel {
                 created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
                 FOREIGN KEY (category_id) REFERENCES categories(id)
-                )
+                );
+                -- Keyset pagination indexes, one per catalog sort order (see ProductRepository)
+                CREATE INDEX IF NOT EXISTS idx_products_name_id ON products (LOWER(product_name), id);
+                CREATE INDEX IF NOT EXISTS idx_products_price_id ON products (price, id);
+                CREATE INDEX IF NOT EXISTS idx_products_created_id ON products (COALESCE(created_at, TIMESTAMP '-infinity'), id);
+                CREATE INDEX IF NOT EXISTS idx_products_category_name_id ON products (COALESCE(category_id, 0), LOWER(product_name), id);
                 """;
 
         try(var smt = connection.createStatement()){
@@ -1,6 +1,7 @@
 package org.commerce.daos.repositories;
 
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.Sorts;
 import org.bson.Document;
 import org.commerce.config.MongoDBConfig;
@@ -43,6 +44,30 @@ public class ActivityLogRepository {
     public ActivityLog log(ActivityLog activityLog) {
         if (collection == null) return null;
         
+        Document doc = toDocument(activityLog);
+        collection.insertOne(doc);
+        activityLog.setId(doc.getObjectId("_id"));
+        return activityLog;
+    }
+    
+    /**
+     * Logs many activities with one unordered insertMany
+     */
+    public int logAll(List<ActivityLog> activityLogs) {
+        if (collection == null || activityLogs.isEmpty()) return 0;
+        
+        List<Document> docs = new ArrayList<>(activityLogs.size());
+        for (ActivityLog activityLog : activityLogs) {
+            docs.add(toDocument(activityLog));
+        }
+        collection.insertMany(docs, new InsertManyOptions().ordered(false));
+        for (int i = 0; i < activityLogs.size(); i++) {
+            activityLogs.get(i).setId(docs.get(i).getObjectId("_id"));
+        }
+        return docs.size();
+    }
+    
+    private Document toDocument(ActivityLog activityLog) {
         Document doc = new Document()
             .append("userId", activityLog.getUserId())
             .append("userName", activityLog.getUserName())
@@ -58,10 +83,7 @@ public class ActivityLogRepository {
         if (activityLog.getMetadata() != null && !activityLog.getMetadata().isEmpty()) {
             doc.append("metadata", activityLog.getMetadata());
         }
-        
-        collection.insertOne(doc);
-        activityLog.setId(doc.getObjectId("_id"));
-        return activityLog;
+        return doc;
     }
     
     /**
@@ -1,17 +1,45 @@
 package org.commerce.daos.repositories;
 
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Page;
+import org.commerce.enums.CopyFormat;
 import org.commerce.exceptions.RepositoryException;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
 
+import java.io.IOException;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Base repository class that provides common database operations.
  * All repository classes should extend this to eliminate code duplication.
+ * Statements are closed after each call; on pooled connections close() returns
+ * them to the connection's statement cache, so hot queries are reused rather than re-parsed.
  */
 public abstract class BaseRepository {
     
+    // Rows fetched per round trip by streaming queries
+    protected static final int DEFAULT_FETCH_SIZE = 500;
+    
+    // Rows sent per round trip by batched writes
+    protected static final int BATCH_SIZE = 1000;
+    private static final int MAX_PARAMETERS = 65535;
+    
+    // Bytes buffered before each write to a COPY stream
+    private static final int COPY_BUFFER_SIZE = 65536;
+    
     /**
      * Executes a query that returns a single result.
      * 
@@ -26,11 +54,12 @@ public abstract class BaseRepository {
                                        ResultSetMapper<T> mapper, Object... params) {
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             setParameters(pstmt, params);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return mapper.map(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapper.map(rs);
+                }
+                return null;
             }
-            return null;
         } catch (SQLException e) {
             throw new RepositoryException("Query execution failed: " + e.getMessage(), e);
         }
@@ -51,9 +80,10 @@ public abstract class BaseRepository {
         List<T> results = new ArrayList<>();
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             setParameters(pstmt, params);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                results.add(mapper.map(rs));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.add(mapper.map(rs));
+                }
             }
             return results;
         } catch (SQLException e) {
@@ -61,6 +91,147 @@ public abstract class BaseRepository {
         }
     }
     
+    /**
+     * Fetches one page of a keyset ordering. Reads pageSize + 1 rows: the extra row
+     * only tells whether another page follows, and the cursor is taken from the last
+     * row returned.
+     * 
+     * @param connection The database connection
+     * @param keyset The ordering to page through
+     * @param table The table to read
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum rows in the page
+     * @param mapper Function to map ResultSet to entity
+     * @return The page and the cursor of the next one
+     * @throws org.commerce.exceptions.ValidationException if the cursor is invalid
+     * @throws RepositoryException if query execution fails
+     */
+    protected <T> Page<T> executeQueryPage(Connection connection, Keyset keyset, String table,
+                                           String cursor, int pageSize, ResultSetMapper<T> mapper) {
+        Object[] after = cursor == null ? new Object[0] : keyset.decode(cursor);
+        Object[] params = new Object[after.length + 1];
+        System.arraycopy(after, 0, params, 0, after.length);
+        params[after.length] = pageSize + 1;
+
+        try (PreparedStatement pstmt = connection.prepareStatement(keyset.pageSql(table, cursor != null))) {
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                List<T> items = new ArrayList<>(pageSize);
+                String nextCursor = null;
+                while (items.size() < pageSize && rs.next()) {
+                    items.add(mapper.map(rs));
+                    if (items.size() == pageSize) {
+                        nextCursor = keyset.encode(rs);
+                    }
+                }
+                return new Page<>(items, nextCursor != null && rs.next() ? nextCursor : null);
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Query execution failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Executes a query and streams its rows through a server-side cursor, fetching
+     * fetchSize rows at a time instead of buffering the whole result. The cursor
+     * needs a transaction, so auto-commit is turned off until the stream is closed.
+     * The caller must close the stream (try-with-resources) before the connection.
+     * 
+     * @param connection The database connection
+     * @param fetchSize Rows fetched per round trip
+     * @param sql The SQL query to execute
+     * @param mapper Function to map ResultSet to entity
+     * @param params Query parameters
+     * @return Lazily mapped rows; closing it releases the cursor
+     * @throws RepositoryException if query execution or row mapping fails
+     */
+    protected <T> Stream<T> executeQueryStream(Connection connection, int fetchSize, String sql,
+                                               ResultSetMapper<T> mapper, Object... params) {
+        PreparedStatement pstmt = null;
+        ResultSet rs = null;
+        boolean restoreAutoCommit = false;
+        try {
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+                restoreAutoCommit = true;
+            }
+            // Not served from the pool's statement cache, so the fetch size does not leak to other queries
+            pstmt = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            pstmt.setFetchSize(fetchSize);
+            setParameters(pstmt, params);
+            rs = pstmt.executeQuery();
+        } catch (SQLException e) {
+            closeCursor(connection, pstmt, rs, restoreAutoCommit);
+            throw new RepositoryException("Query execution failed: " + e.getMessage(), e);
+        }
+        
+        ResultSet cursor = rs;
+        PreparedStatement statement = pstmt;
+        boolean endTransaction = restoreAutoCommit;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!cursor.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(cursor));
+                    return true;
+                } catch (SQLException e) {
+                    throw new RepositoryException("Query execution failed: " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false)
+            .onClose(() -> closeCursor(connection, statement, cursor, endTransaction));
+    }
+    
+    /**
+     * Executes a query and passes each row to an action as it is fetched through a cursor,
+     * so the result never has to fit in memory. See executeQueryStream.
+     * 
+     * @param connection The database connection
+     * @param fetchSize Rows fetched per round trip
+     * @param sql The SQL query to execute
+     * @param mapper Function to map ResultSet to entity
+     * @param action Called for each mapped row
+     * @param params Query parameters
+     * @return Number of rows processed
+     * @throws RepositoryException if query execution or row mapping fails
+     */
+    protected <T> long executeQueryForEach(Connection connection, int fetchSize, String sql,
+                                           ResultSetMapper<T> mapper, Consumer<? super T> action, Object... params) {
+        long count = 0;
+        try (Stream<T> rows = executeQueryStream(connection, fetchSize, sql, mapper, params)) {
+            Iterator<T> it = rows.iterator();
+            while (it.hasNext()) {
+                action.accept(it.next());
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Closes a streaming query's cursor and ends the transaction it opened.
+     */
+    private void closeCursor(Connection connection, PreparedStatement pstmt, ResultSet rs, boolean restoreAutoCommit) {
+        try {
+            if (rs != null) {
+                rs.close();
+            }
+            if (pstmt != null) {
+                pstmt.close();
+            }
+            if (restoreAutoCommit) {
+                connection.commit();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException("Closing cursor failed: " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * Executes an update query (INSERT, UPDATE, DELETE).
      * 
@@ -79,6 +250,202 @@ public abstract class BaseRepository {
         }
     }
     
+    /**
+     * Executes one statement for many parameter rows as JDBC batches of BATCH_SIZE.
+     * With reWriteBatchedInserts the driver sends batched INSERTs as multi-row
+     * statements. Runs in a single transaction unless the caller already opened one.
+     * 
+     * @param connection The database connection
+     * @param sql The SQL statement to execute
+     * @param rows Parameters for each execution
+     * @return Number of rows affected
+     * @throws RepositoryException if batch execution fails (nothing is written)
+     */
+    protected int executeBatch(Connection connection, String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        return inTransaction(connection, () -> {
+            int affected = 0;
+            try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                for (int i = 0; i < rows.size(); i++) {
+                    setParameters(pstmt, rows.get(i));
+                    pstmt.addBatch();
+                    if ((i + 1) % BATCH_SIZE == 0 || i == rows.size() - 1) {
+                        for (int count : pstmt.executeBatch()) {
+                            // The driver may report rewritten statements as SUCCESS_NO_INFO
+                            affected += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                        }
+                    }
+                }
+            }
+            return affected;
+        }, "Batch execution failed: ");
+    }
+    
+    /**
+     * Inserts many rows with multi-row "INSERT ... VALUES (...), (...) RETURNING ..."
+     * statements, each carrying up to BATCH_SIZE rows. Runs in a single transaction
+     * unless the caller already opened one.
+     * 
+     * @param connection The database connection
+     * @param insertSql The statement up to VALUES, e.g. "INSERT INTO t (a, b)"
+     * @param returning The trailing clause, e.g. "RETURNING *"
+     * @param mapper Function to map each returned row to an entity
+     * @param rows Column values for each row, all of the same length
+     * @return The inserted entities, in the order of rows
+     * @throws RepositoryException if the insert fails (nothing is written)
+     */
+    protected <T> List<T> insertAllReturning(Connection connection, String insertSql, String returning,
+                                             ResultSetMapper<T> mapper, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        int columns = rows.get(0).length;
+        String placeholders = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        
+        // PostgreSQL accepts at most 65535 parameters per statement
+        int chunkSize = Math.min(BATCH_SIZE, MAX_PARAMETERS / columns);
+        return inTransaction(connection, () -> {
+            List<T> results = new ArrayList<>(rows.size());
+            for (int start = 0; start < rows.size(); start += chunkSize) {
+                List<Object[]> chunk = rows.subList(start, Math.min(start + chunkSize, rows.size()));
+                String sql = insertSql + " VALUES " + String.join(", ", Collections.nCopies(chunk.size(), placeholders))
+                           + " " + returning;
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    int index = 1;
+                    for (Object[] row : chunk) {
+                        for (Object value : row) {
+                            pstmt.setObject(index++, value);
+                        }
+                    }
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            results.add(mapper.map(rs));
+                        }
+                    }
+                }
+            }
+            return results;
+        }, "Insert execution failed: ");
+    }
+    
+    /**
+     * Bulk loads rows with COPY into a temporary staging table, then merges them into
+     * the target table with one set-based statement. The staging table numbers rows in
+     * arrival order (column seq), so idsSql can return ids in input order with
+     * "ORDER BY seq". Runs in a single transaction unless the caller already opened one;
+     * the staging table is dropped at commit.
+     * 
+     * @param connection The database connection
+     * @param format COPY data format
+     * @param stagingTable Name of the temporary staging table
+     * @param columns Staging column definitions, e.g. "price NUMERIC(10, 2)", matching each row's values
+     * @param rows Column values for each row; consumed once, while the COPY runs
+     * @param prepareSql Statement run on the staging table before the merge, or null
+     * @param upsertSql The merge, an "INSERT ... SELECT ... FROM staging ... ON CONFLICT ..." statement
+     * @param idsSql Query returning the target id of each staged row, ordered by seq
+     * @return Ids in input order, inserted and updated counts, and throughput
+     * @throws RepositoryException if the load fails (nothing is written)
+     */
+    protected BulkLoadResult copyMerge(Connection connection, CopyFormat format, String stagingTable,
+                                       String[] columns, Stream<Object[]> rows, String prepareSql,
+                                       String upsertSql, String idsSql) {
+        long start = System.nanoTime();
+        List<String> names = new ArrayList<>(columns.length);
+        for (String column : columns) {
+            names.add(column.substring(0, column.indexOf(' ')));
+        }
+        
+        return inTransaction(connection, () -> {
+            try (Statement stmt = connection.createStatement()) {
+                // Qualified so a permanent table of the same name is never touched
+                stmt.execute("DROP TABLE IF EXISTS pg_temp." + stagingTable);
+                stmt.execute("CREATE TEMP TABLE " + stagingTable + " (seq BIGINT GENERATED ALWAYS AS IDENTITY, "
+                           + String.join(", ", columns) + ") ON COMMIT DROP");
+            }
+            copyIn(connection, "COPY " + stagingTable + " (" + String.join(", ", names) + ") FROM STDIN (FORMAT "
+                               + format.getOption() + ")", format, rows);
+            if (prepareSql != null) {
+                try (Statement stmt = connection.createStatement()) {
+                    stmt.executeUpdate(prepareSql);
+                }
+            }
+            
+            // (xmax = 0) is true for rows the upsert inserted and false for rows it updated
+            long inserted = 0;
+            long updated = 0;
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery("WITH merged AS (" + upsertSql + " RETURNING (xmax = 0) AS inserted) "
+                     + "SELECT COUNT(*) FILTER (WHERE inserted), COUNT(*) FILTER (WHERE NOT inserted) FROM merged")) {
+                if (rs.next()) {
+                    inserted = rs.getLong(1);
+                    updated = rs.getLong(2);
+                }
+            }
+            
+            List<Integer> ids = new ArrayList<>();
+            try (Statement stmt = connection.createStatement();
+                 ResultSet rs = stmt.executeQuery(idsSql)) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+            return new BulkLoadResult(ids, inserted, updated, System.nanoTime() - start);
+        }, "Bulk load failed: ");
+    }
+    
+    /**
+     * Streams rows to the server through the driver's COPY API.
+     * Cancels the COPY if encoding or sending a row fails.
+     */
+    private void copyIn(Connection connection, String sql, CopyFormat format, Stream<Object[]> rows) throws SQLException {
+        PGCopyOutputStream out = new PGCopyOutputStream(connection.unwrap(PGConnection.class), sql, COPY_BUFFER_SIZE);
+        try {
+            CopyEncoder encoder = new CopyEncoder(out, format);
+            encoder.writeHeader();
+            Iterator<Object[]> it = rows.iterator();
+            while (it.hasNext()) {
+                encoder.writeRow(it.next());
+            }
+            encoder.writeTrailer();
+            out.endCopy();
+        } catch (IOException | RuntimeException e) {
+            if (out.isActive()) {
+                out.cancelCopy();
+            }
+            if (e instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new SQLException("COPY failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Runs work in a transaction, committing on success and rolling back on failure.
+     * Joins the caller's transaction instead when auto-commit is already off.
+     */
+    private <T> T inTransaction(Connection connection, SqlWork<T> work, String errorPrefix) {
+        try {
+            if (!connection.getAutoCommit()) {
+                return work.run();
+            }
+            connection.setAutoCommit(false);
+            try {
+                T result = work.run();
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new RepositoryException(errorPrefix + e.getMessage(), e);
+        }
+    }
+    
     /**
      * Executes an insert query with RETURNING clause (PostgreSQL).
      * 
@@ -93,11 +460,12 @@ public abstract class BaseRepository {
                                            ResultSetMapper<T> mapper, Object... params) {
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             setParameters(pstmt, params);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return mapper.map(rs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapper.map(rs);
+                }
+                return null;
             }
-            return null;
         } catch (SQLException e) {
             throw new RepositoryException("Insert execution failed: " + e.getMessage(), e);
         }
@@ -117,9 +485,10 @@ public abstract class BaseRepository {
             setParameters(pstmt, params);
             pstmt.executeUpdate();
             
-            ResultSet rs = pstmt.getGeneratedKeys();
-            if (rs.next()) {
-                return rs.getInt(1);
+            try (ResultSet rs = pstmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    return rs.getInt(1);
+                }
             }
             throw new RepositoryException("Failed to retrieve generated key");
         } catch (SQLException e) {
@@ -127,6 +496,49 @@ public abstract class BaseRepository {
         }
     }
     
+    /**
+     * Executes a query whose rows map to key/value pairs.
+     * 
+     * @param connection The database connection
+     * @param sql The SQL query to execute
+     * @param keyMapper Function to map a row to its key
+     * @param valueMapper Function to map a row to its value
+     * @param params Query parameters
+     * @return Map of keys to values in row order
+     * @throws RepositoryException if query execution fails
+     */
+    protected <K, V> Map<K, V> executeQueryMap(Connection connection, String sql, ResultSetMapper<K> keyMapper,
+                                               ResultSetMapper<V> valueMapper, Object... params) {
+        Map<K, V> results = new LinkedHashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            setParameters(pstmt, params);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    results.put(keyMapper.map(rs), valueMapper.map(rs));
+                }
+            }
+            return results;
+        } catch (SQLException e) {
+            throw new RepositoryException("Query execution failed: " + e.getMessage(), e);
+        }
+    }
+    
+    /**
+     * Creates an integer array parameter, for use with "= ANY(?)".
+     * 
+     * @param connection The database connection
+     * @param ids The values of the array
+     * @return A SQL array of integers
+     * @throws RepositoryException if the array cannot be created
+     */
+    protected Array toIntArray(Connection connection, Collection<Integer> ids) {
+        try {
+            return connection.createArrayOf("integer", ids.toArray());
+        } catch (SQLException e) {
+            throw new RepositoryException("Array creation failed: " + e.getMessage(), e);
+        }
+    }
+    
     /**
      * Checks if a record exists based on a query.
      * 
@@ -138,8 +550,9 @@ public abstract class BaseRepository {
     protected boolean exists(Connection connection, String sql, Object... params) {
         try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
             setParameters(pstmt, params);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next() && rs.getInt(1) > 0;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
         } catch (SQLException e) {
             throw new RepositoryException("Existence check failed: " + e.getMessage(), e);
         }
@@ -158,6 +571,14 @@ public abstract class BaseRepository {
         }
     }
     
+    /**
+     * Work run inside a transaction by the batch helpers.
+     */
+    @FunctionalInterface
+    private interface SqlWork<T> {
+        T run() throws SQLException;
+    }
+    
     /**
      * Functional interface for mapping ResultSet to entity.
      */
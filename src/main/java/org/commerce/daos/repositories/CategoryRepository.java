@@ -3,7 +3,11 @@ package org.commerce.daos.repositories;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.commerce.daos.entities.Categories;
 import org.commerce.daos.repositories.interfaces.ICategoryRepository;
@@ -33,15 +37,29 @@ public class CategoryRepository extends BaseRepository implements ICategoryRepos
         return executeQuerySingle(connection, SQL, this::mapCategory, categoryId);
     }
 
+    @Override
+    public List<Categories> findAllByIds(Collection<Integer> categoryIds, Connection connection) {
+        String SQL = "SELECT * FROM categories WHERE id = ANY(?)";
+        return executeQueryList(connection, SQL, this::mapCategory, toIntArray(connection, categoryIds));
+    }
+
     @Override
     public List<Categories> getAllCategories(Connection connection) {
-        String SQL = "SELECT * FROM categories";
-        return executeQueryList(connection, SQL, this::mapCategory);
+        // Fetched through a cursor so the driver never buffers the whole table
+        try (Stream<Categories> categories = streamAllCategories(connection)) {
+            return categories.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+    
+    @Override
+    public Stream<Categories> streamAllCategories(Connection connection) {
+        String SQL = "SELECT * FROM categories ORDER BY id";
+        return executeQueryStream(connection, DEFAULT_FETCH_SIZE, SQL, this::mapCategory);
     }
 
     @Override
     public Categories updateCategory(Categories category, Connection connection) {
-        String SQL = "UPDATE categories SET category_name = ?, description = ? WHERE id = ? RETURNING *";
+        String SQL = "UPDATE categories SET category_name = ?, description = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? RETURNING *";
         
         return executeInsertReturning(
             connection,
@@ -0,0 +1,160 @@
+package org.commerce.daos.repositories;
+
+import org.commerce.enums.CopyFormat;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Writes rows in PostgreSQL's COPY CSV or binary format.
+ * Supported values are Integer (int4), Long (int8), String (text), BigDecimal (numeric),
+ * LocalDateTime (timestamp) and null; in binary format each value must match its
+ * column's type exactly.
+ */
+class CopyEncoder {
+    private static final byte[] BINARY_SIGNATURE = "PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1);
+    private static final short NUMERIC_POSITIVE = 0x0000;
+    private static final short NUMERIC_NEGATIVE = 0x4000;
+    private static final LocalDateTime POSTGRES_EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final DataOutputStream out;
+    private final CopyFormat format;
+    private final StringBuilder line = new StringBuilder();
+
+    CopyEncoder(OutputStream out, CopyFormat format) {
+        this.out = new DataOutputStream(out);
+        this.format = format;
+    }
+
+    /**
+     * Writes the binary header (no-op for CSV).
+     */
+    void writeHeader() throws IOException {
+        if (format == CopyFormat.BINARY) {
+            out.write(BINARY_SIGNATURE);
+            out.writeInt(0); // flags
+            out.writeInt(0); // header extension length
+        }
+    }
+
+    void writeRow(Object[] values) throws IOException {
+        if (format == CopyFormat.BINARY) {
+            out.writeShort(values.length);
+            for (Object value : values) {
+                writeBinary(value);
+            }
+            return;
+        }
+
+        line.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            appendCsv(values[i]);
+        }
+        line.append('\n');
+        out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes the binary trailer (no-op for CSV) and flushes.
+     */
+    void writeTrailer() throws IOException {
+        if (format == CopyFormat.BINARY) {
+            out.writeShort(-1);
+        }
+        out.flush();
+    }
+
+    private void appendCsv(Object value) {
+        if (value == null) {
+            return; // An unquoted empty field is NULL
+        }
+        if (value instanceof String text) {
+            // Always quoted, so empty strings stay distinct from NULL
+            line.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else if (value instanceof BigDecimal decimal) {
+            line.append(decimal.toPlainString());
+        } else if (value instanceof Integer || value instanceof Long || value instanceof LocalDateTime) {
+            line.append(value);
+        } else {
+            throw new IllegalArgumentException("Unsupported COPY value type: " + value.getClass().getName());
+        }
+    }
+
+    private void writeBinary(Object value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+        } else if (value instanceof Integer number) {
+            out.writeInt(4);
+            out.writeInt(number);
+        } else if (value instanceof Long number) {
+            out.writeInt(8);
+            out.writeLong(number);
+        } else if (value instanceof String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        } else if (value instanceof BigDecimal decimal) {
+            writeNumeric(decimal);
+        } else if (value instanceof LocalDateTime timestamp) {
+            // Microseconds since 2000-01-01
+            out.writeInt(8);
+            out.writeLong(ChronoUnit.MICROS.between(POSTGRES_EPOCH, timestamp));
+        } else {
+            throw new IllegalArgumentException("Unsupported COPY value type: " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * Writes a numeric in PostgreSQL's binary layout: base-10000 digits with the
+     * weight of the first digit, a sign flag and the display scale.
+     */
+    private void writeNumeric(BigDecimal value) throws IOException {
+        int scale = Math.max(value.scale(), 0);
+        String plain = value.abs().setScale(scale).toPlainString();
+        int dot = plain.indexOf('.');
+        String integerPart = dot < 0 ? plain : plain.substring(0, dot);
+        String fractionPart = dot < 0 ? "" : plain.substring(dot + 1);
+
+        // Pad both parts to whole groups of four decimal digits
+        integerPart = "0".repeat((4 - integerPart.length() % 4) % 4) + integerPart;
+        fractionPart = fractionPart + "0".repeat((4 - fractionPart.length() % 4) % 4);
+        String groups = integerPart + fractionPart;
+        short[] digits = new short[groups.length() / 4];
+        for (int i = 0; i < digits.length; i++) {
+            digits[i] = Short.parseShort(groups.substring(i * 4, i * 4 + 4));
+        }
+
+        // Leading and trailing zero groups are implied by the weight
+        int weight = integerPart.length() / 4 - 1;
+        int first = 0;
+        while (first < digits.length && digits[first] == 0) {
+            first++;
+            weight--;
+        }
+        int last = digits.length;
+        while (last > first && digits[last - 1] == 0) {
+            last--;
+        }
+        int count = last - first;
+        if (count == 0) {
+            weight = 0;
+        }
+
+        out.writeInt(8 + count * 2);
+        out.writeShort(count);
+        out.writeShort(weight);
+        out.writeShort(value.signum() < 0 ? NUMERIC_NEGATIVE : NUMERIC_POSITIVE);
+        out.writeShort(scale);
+        for (int i = first; i < last; i++) {
+            out.writeShort(digits[i]);
+        }
+    }
+}
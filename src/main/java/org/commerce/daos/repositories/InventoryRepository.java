@@ -3,10 +3,16 @@ package org.commerce.daos.repositories;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Page;
 import org.commerce.daos.entities.Inventory;
 import org.commerce.daos.repositories.interfaces.IInventoryRepository;
+import org.commerce.enums.CopyFormat;
 
 /**
  * Repository implementation for Inventory entity operations.
@@ -29,6 +35,45 @@ public class InventoryRepository extends BaseRepository implements IInventoryRep
         );
     }
     
+    @Override
+    public int createInventories(List<Inventory> inventories, Connection connection) {
+        String SQL = "INSERT INTO inventory (product_id, quantity, warehouse_location) VALUES (?, ?, ?)";
+        
+        List<Object[]> rows = new ArrayList<>(inventories.size());
+        for (Inventory inventory : inventories) {
+            rows.add(new Object[] {
+                inventory.getProductId(),
+                inventory.getQuantity(),
+                inventory.getWarehouseLocation()
+            });
+        }
+        return executeBatch(connection, SQL, rows);
+    }
+    
+    @Override
+    public BulkLoadResult copyInventories(Stream<Inventory> inventories, CopyFormat format, Connection connection) {
+        return copyMerge(
+            connection,
+            format,
+            "inventory_staging",
+            new String[] {"product_id INT", "quantity INT", "warehouse_location TEXT"},
+            inventories.map(inventory -> new Object[] {
+                inventory.getProductId(),
+                inventory.getQuantity(),
+                inventory.getWarehouseLocation()
+            }),
+            null,
+            // The last staged row wins when a product/warehouse pair repeats
+            "INSERT INTO inventory (product_id, quantity, warehouse_location) " +
+            "SELECT DISTINCT ON (product_id, warehouse_location) product_id, quantity, warehouse_location " +
+            "FROM inventory_staging ORDER BY product_id, warehouse_location, seq DESC " +
+            "ON CONFLICT (product_id, warehouse_location) DO UPDATE SET quantity = EXCLUDED.quantity, " +
+            "last_updated = CURRENT_TIMESTAMP",
+            "SELECT i.id FROM inventory_staging s JOIN inventory i " +
+            "ON i.product_id = s.product_id AND i.warehouse_location = s.warehouse_location ORDER BY s.seq"
+        );
+    }
+    
     @Override
     public Inventory updateInventory(Inventory inventory, Connection connection) {
         String SQL = "UPDATE inventory SET quantity = ?, warehouse_location = ?, " +
@@ -56,6 +101,25 @@ public class InventoryRepository extends BaseRepository implements IInventoryRep
         return executeQuerySingle(connection, SQL, this::mapInventory, inventoryId);
     }
     
+    @Override
+    public List<Inventory> findAllByIds(Collection<Integer> inventoryIds, Connection connection) {
+        String SQL = "SELECT * FROM inventory WHERE id = ANY(?)";
+        return executeQueryList(connection, SQL, this::mapInventory, toIntArray(connection, inventoryIds));
+    }
+    
+    @Override
+    public List<Inventory> findAllByProductIds(Collection<Integer> productIds, Connection connection) {
+        String SQL = "SELECT * FROM inventory WHERE product_id = ANY(?) ORDER BY product_id, id";
+        return executeQueryList(connection, SQL, this::mapInventory, toIntArray(connection, productIds));
+    }
+    
+    @Override
+    public Page<Inventory> findInventoryPage(String cursor, int pageSize, Connection connection) {
+        return executeQueryPage(connection, BY_ID, "inventory", cursor, pageSize, this::mapInventory);
+    }
+    
+    private static final Keyset BY_ID = new Keyset("inventory_id", false).key("id", Keyset.KeyType.INT);
+    
     @Override
     public List<Inventory> getInventoryByProductId(int productId, Connection connection) {
         String SQL = "SELECT * FROM inventory WHERE product_id = ?";
@@ -0,0 +1,134 @@
+package org.commerce.daos.repositories;
+
+import org.commerce.exceptions.ValidationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A keyset (seek) ordering: ORDER BY a list of key expressions ending in the unique id,
+ * resumed with a row-value comparison against the last row returned, e.g.
+ * {@code WHERE (price, id) > (?, ?) ORDER BY price, id}. With an index on the same
+ * expressions every page is one index range scan of pageSize + 1 rows, however deep
+ * into the table it is. All keys sort in the same direction, which is what lets a
+ * single row comparison express "after this row".
+ * <p>
+ * Cursors are URL-safe Base64 strings holding the ordering's name and the last row's
+ * key values; a cursor from one ordering is rejected by every other.
+ */
+class Keyset {
+    enum KeyType { TEXT, DECIMAL, TIMESTAMP, INT }
+
+    private static final String KEY_ALIAS = "keyset_";
+
+    private final String name;
+    private final boolean descending;
+    private final List<String> expressions = new ArrayList<>();
+    private final List<KeyType> types = new ArrayList<>();
+
+    Keyset(String name, boolean descending) {
+        this.name = name;
+        this.descending = descending;
+    }
+
+    /**
+     * Appends a key; the last key added must be unique (the id).
+     */
+    Keyset key(String expression, KeyType type) {
+        expressions.add(expression);
+        types.add(type);
+        return this;
+    }
+
+    /**
+     * Builds the page query over a table. The key values are selected as extra
+     * columns so the cursor holds exactly what the database compared.
+     *
+     * @param table The table to page through
+     * @param seek Whether to resume after a cursor (first page otherwise)
+     * @return SQL taking the cursor's key values (when seeking) and then the row limit
+     */
+    String pageSql(String table, boolean seek) {
+        StringBuilder sql = new StringBuilder("SELECT *");
+        for (int i = 0; i < expressions.size(); i++) {
+            sql.append(", ").append(expressions.get(i)).append(" AS ").append(KEY_ALIAS).append(i);
+        }
+        sql.append(" FROM ").append(table);
+        if (seek) {
+            String placeholders = String.join(", ", expressions.stream().map(e -> "?").toList());
+            sql.append(" WHERE (").append(String.join(", ", expressions)).append(") ")
+               .append(descending ? "<" : ">").append(" (").append(placeholders).append(")");
+        }
+        sql.append(" ORDER BY ");
+        for (int i = 0; i < expressions.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(expressions.get(i)).append(descending ? " DESC" : "");
+        }
+        return sql.append(" LIMIT ?").toString();
+    }
+
+    /**
+     * Encodes the key values of the current row as a cursor.
+     */
+    String encode(ResultSet rs) throws SQLException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(name);
+            for (int i = 0; i < types.size(); i++) {
+                String column = KEY_ALIAS + i;
+                String value = switch (types.get(i)) {
+                    case TEXT -> rs.getString(column);
+                    case DECIMAL -> rs.getBigDecimal(column).toPlainString();
+                    case TIMESTAMP -> rs.getObject(column, LocalDateTime.class).toString();
+                    case INT -> Integer.toString(rs.getInt(column));
+                };
+                out.writeUTF(value);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode page cursor", e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a cursor into query parameters for {@link #pageSql}.
+     *
+     * @throws ValidationException if the cursor is malformed or from another ordering
+     */
+    Object[] decode(String cursor) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            if (!name.equals(in.readUTF())) {
+                throw new ValidationException("Page cursor belongs to a different sort order");
+            }
+            Object[] values = new Object[types.size()];
+            for (int i = 0; i < values.length; i++) {
+                String value = in.readUTF();
+                values[i] = switch (types.get(i)) {
+                    case TEXT -> value;
+                    case DECIMAL -> new BigDecimal(value);
+                    case TIMESTAMP -> LocalDateTime.parse(value);
+                    case INT -> Integer.parseInt(value);
+                };
+            }
+            if (in.available() > 0) {
+                throw new ValidationException("Invalid page cursor");
+            }
+            return values;
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof ValidationException validation) {
+                throw validation;
+            }
+            throw new ValidationException("Invalid page cursor");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.commerce.daos.repositories;
+
+import java.sql.Connection;
+import java.util.stream.Stream;
+
+import org.commerce.common.BulkLoadResult;
+import org.commerce.daos.entities.OrderItems;
+import org.commerce.daos.entities.Orders;
+import org.commerce.daos.repositories.interfaces.IOrderRepository;
+import org.commerce.enums.CopyFormat;
+
+/**
+ * Repository implementation for Orders and OrderItems entity operations.
+ * Uses BaseRepository to eliminate code duplication.
+ */
+public class OrderRepository extends BaseRepository implements IOrderRepository {
+
+    @Override
+    public BulkLoadResult copyOrders(Stream<Orders> orders, CopyFormat format, Connection connection) {
+        return copyMerge(
+            connection,
+            format,
+            "orders_staging",
+            new String[] {"id INT", "user_id INT", "order_date TIMESTAMP", "status TEXT", "total_amount NUMERIC(10, 2)"},
+            orders.map(order -> new Object[] {
+                order.getId() > 0 ? order.getId() : null,
+                order.getUserId(),
+                order.getOrderDate(),
+                order.getStatus(),
+                order.getTotalAmount()
+            }),
+            // New orders draw their IDs from the table's sequence up front, so the IDs can be read back in input order
+            "UPDATE orders_staging s SET id = nextval(pg_get_serial_sequence('orders', 'id')) " +
+            "WHERE s.id IS NULL OR NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = s.id)",
+            "INSERT INTO orders (id, user_id, order_date, status, total_amount) " +
+            "SELECT DISTINCT ON (id) id, user_id, COALESCE(order_date, CURRENT_TIMESTAMP), status, total_amount " +
+            "FROM orders_staging ORDER BY id, seq DESC " +
+            "ON CONFLICT (id) DO UPDATE SET user_id = EXCLUDED.user_id, order_date = EXCLUDED.order_date, " +
+            "status = EXCLUDED.status, total_amount = EXCLUDED.total_amount",
+            "SELECT id FROM orders_staging ORDER BY seq"
+        );
+    }
+
+    @Override
+    public BulkLoadResult copyOrderItems(Stream<OrderItems> items, CopyFormat format, Connection connection) {
+        return copyMerge(
+            connection,
+            format,
+            "order_items_staging",
+            new String[] {"id INT", "order_id INT", "product_id INT", "quantity INT", "price NUMERIC(10, 2)",
+                          "created_at TIMESTAMP"},
+            items.map(item -> new Object[] {
+                item.getId() > 0 ? item.getId() : null,
+                item.getOrderId(),
+                item.getProductId(),
+                item.getQuantity(),
+                item.getPrice(),
+                item.getCreatedAt()
+            }),
+            "UPDATE order_items_staging s SET id = nextval(pg_get_serial_sequence('order_items', 'id')) " +
+            "WHERE s.id IS NULL OR NOT EXISTS (SELECT 1 FROM order_items i WHERE i.id = s.id)",
+            "INSERT INTO order_items (id, order_id, product_id, quantity, price, created_at) " +
+            "SELECT DISTINCT ON (id) id, order_id, product_id, quantity, price, COALESCE(created_at, CURRENT_TIMESTAMP) " +
+            "FROM order_items_staging ORDER BY id, seq DESC " +
+            "ON CONFLICT (id) DO UPDATE SET order_id = EXCLUDED.order_id, product_id = EXCLUDED.product_id, " +
+            "quantity = EXCLUDED.quantity, price = EXCLUDED.price",
+            "SELECT id FROM order_items_staging ORDER BY seq"
+        );
+    }
+}
@@ -3,10 +3,19 @@ package org.commerce.daos.repositories;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Page;
 import org.commerce.daos.entities.Product;
+import org.commerce.daos.repositories.Keyset.KeyType;
 import org.commerce.daos.repositories.interfaces.IProductRepository;
+import org.commerce.enums.CopyFormat;
 
 /**
  * Repository implementation for Product entity operations.
@@ -30,22 +39,125 @@ public class ProductRepository extends BaseRepository implements IProductReposit
         );
     }
     
+    @Override
+    public List<Product> createProducts(List<Product> products, Connection connection) {
+        List<Object[]> rows = new ArrayList<>(products.size());
+        for (Product product : products) {
+            rows.add(new Object[] {
+                product.getProductName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getCategoryId()
+            });
+        }
+        
+        return insertAllReturning(
+            connection,
+            "INSERT INTO products (product_name, description, price, category_id)",
+            "RETURNING *",
+            this::mapProduct,
+            rows
+        );
+    }
+    
+    @Override
+    public BulkLoadResult copyProducts(Stream<Product> products, CopyFormat format, Connection connection) {
+        return copyMerge(
+            connection,
+            format,
+            "products_staging",
+            new String[] {"id INT", "product_name TEXT", "description TEXT", "price NUMERIC(10, 2)", "category_id INT"},
+            products.map(product -> new Object[] {
+                product.getId() > 0 ? product.getId() : null,
+                product.getProductName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getCategoryId()
+            }),
+            // New products draw their IDs from the table's sequence up front, so the IDs can be read back in input order
+            "UPDATE products_staging s SET id = nextval(pg_get_serial_sequence('products', 'id')) " +
+            "WHERE s.id IS NULL OR NOT EXISTS (SELECT 1 FROM products p WHERE p.id = s.id)",
+            "INSERT INTO products (id, product_name, description, price, category_id) " +
+            "SELECT DISTINCT ON (id) id, product_name, description, price, category_id " +
+            "FROM products_staging ORDER BY id, seq DESC " +
+            "ON CONFLICT (id) DO UPDATE SET product_name = EXCLUDED.product_name, " +
+            "description = EXCLUDED.description, price = EXCLUDED.price, " +
+            "category_id = EXCLUDED.category_id, updated_at = CURRENT_TIMESTAMP",
+            "SELECT id FROM products_staging ORDER BY seq"
+        );
+    }
+    
     @Override
     public Product getProductById(int productId, Connection connection) {
         String SQL = "SELECT * FROM products WHERE id = ?";
         return executeQuerySingle(connection, SQL, this::mapProduct, productId);
     }
     
+    @Override
+    public List<Product> findAllByIds(Collection<Integer> productIds, Connection connection) {
+        String SQL = "SELECT * FROM products WHERE id = ANY(?)";
+        return executeQueryList(connection, SQL, this::mapProduct, toIntArray(connection, productIds));
+    }
+    
     @Override
     public List<Product> getAllProducts(Connection connection) {
-        String SQL = "SELECT * FROM products";
-        return executeQueryList(connection, SQL, this::mapProduct);
+        // Fetched through a cursor so the driver never buffers the whole table
+        try (Stream<Product> products = streamAllProducts(connection)) {
+            return products.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+    
+    @Override
+    public Stream<Product> streamAllProducts(Connection connection) {
+        String SQL = "SELECT * FROM products ORDER BY id";
+        return executeQueryStream(connection, DEFAULT_FETCH_SIZE, SQL, this::mapProduct);
+    }
+    
+    @Override
+    public Page<Product> findProductsPage(String sortBy, String cursor, int pageSize, Connection connection) {
+        return executeQueryPage(connection, productKeyset(sortBy), "products", cursor, pageSize, this::mapProduct);
+    }
+    
+    /**
+     * Keyset orderings matching each ProductComparator sort, backed by the indexes
+     * created in ProductsModel. Nullable keys are coalesced so no row drops out of
+     * the row comparison.
+     */
+    private static Keyset productKeyset(String sortBy) {
+        String sort = sortBy == null ? "name" : sortBy.toLowerCase();
+        return switch (sort) {
+            case "name", "name_asc" -> BY_NAME;
+            case "name_desc" -> BY_NAME_DESC;
+            case "price", "price_asc" -> BY_PRICE_ASC;
+            case "price_desc" -> BY_PRICE_DESC;
+            case "newest", "date_desc" -> BY_NEWEST;
+            case "oldest", "date_asc" -> BY_OLDEST;
+            case "category" -> BY_CATEGORY_AND_NAME;
+            default -> BY_NAME;
+        };
     }
     
+    private static final String NAME_KEY = "LOWER(product_name)";
+    private static final String CREATED_KEY = "COALESCE(created_at, TIMESTAMP '-infinity')";
+    private static final Keyset BY_NAME = new Keyset("name_asc", false)
+        .key(NAME_KEY, KeyType.TEXT).key("id", KeyType.INT);
+    private static final Keyset BY_NAME_DESC = new Keyset("name_desc", true)
+        .key(NAME_KEY, KeyType.TEXT).key("id", KeyType.INT);
+    private static final Keyset BY_PRICE_ASC = new Keyset("price_asc", false)
+        .key("price", KeyType.DECIMAL).key("id", KeyType.INT);
+    private static final Keyset BY_PRICE_DESC = new Keyset("price_desc", true)
+        .key("price", KeyType.DECIMAL).key("id", KeyType.INT);
+    private static final Keyset BY_NEWEST = new Keyset("date_desc", true)
+        .key(CREATED_KEY, KeyType.TIMESTAMP).key("id", KeyType.INT);
+    private static final Keyset BY_OLDEST = new Keyset("date_asc", false)
+        .key(CREATED_KEY, KeyType.TIMESTAMP).key("id", KeyType.INT);
+    private static final Keyset BY_CATEGORY_AND_NAME = new Keyset("category", false)
+        .key("COALESCE(category_id, 0)", KeyType.INT).key(NAME_KEY, KeyType.TEXT).key("id", KeyType.INT);
+    
     @Override
     public Product updateProduct(Product product, Connection connection) {
         String SQL = "UPDATE products SET product_name = ?, description = ?, price = ?, " +
-                     "category_id = ? WHERE id = ? RETURNING *";
+                     "category_id = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ? RETURNING *";
         
         return executeInsertReturning(
             connection,
@@ -72,6 +184,20 @@ public class ProductRepository extends BaseRepository implements IProductReposit
         return stock != null ? stock : 0;
     }
     
+    @Override
+    public Map<Integer, Integer> getTotalStocks(Collection<Integer> productIds, Connection connection) {
+        String SQL = "SELECT product_id, SUM(quantity) as total_stock FROM inventory " +
+                     "WHERE product_id = ANY(?) GROUP BY product_id";
+        Map<Integer, Integer> stocks = executeQueryMap(connection, SQL,
+            rs -> rs.getInt("product_id"), rs -> rs.getInt("total_stock"), toIntArray(connection, productIds));
+        
+        // Products without inventory rows have no stock
+        for (Integer productId : productIds) {
+            stocks.putIfAbsent(productId, 0);
+        }
+        return stocks;
+    }
+    
     @Override
     public boolean existsByName(String productName, Connection connection) {
         String SQL = "SELECT COUNT(*) FROM products WHERE product_name = ?";
@@ -117,6 +243,14 @@ public class ProductRepository extends BaseRepository implements IProductReposit
         }
     }
     
+    @Override
+    public String getCatalogVersion(Connection connection) {
+        String SQL = "SELECT (SELECT COUNT(*) || ':' || COALESCE(MAX(id), 0) || ':' || COALESCE(MAX(updated_at)::text, '') FROM products) " +
+                     "|| '|' || " +
+                     "(SELECT COUNT(*) || ':' || COALESCE(MAX(id), 0) || ':' || COALESCE(MAX(updated_at)::text, '') FROM categories)";
+        return executeQuerySingle(connection, SQL, rs -> rs.getString(1));
+    }
+    
     /**
      * Maps a ResultSet row to a Product entity.
      */
@@ -1,6 +1,9 @@
 package org.commerce.daos.repositories;
 
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Accumulators;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.Sorts;
 import com.mongodb.client.model.Updates;
 import org.bson.Document;
@@ -10,7 +13,10 @@ import org.commerce.daos.entities.Review;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.mongodb.client.model.Filters.*;
 
@@ -44,6 +50,30 @@ public class ReviewRepository {
     public Review create(Review review) {
         if (collection == null) return null;
         
+        Document doc = toDocument(review);
+        collection.insertOne(doc);
+        review.setId(doc.getObjectId("_id"));
+        return review;
+    }
+    
+    /**
+     * Creates many reviews with one unordered insertMany
+     */
+    public int createAll(List<Review> reviews) {
+        if (collection == null || reviews.isEmpty()) return 0;
+        
+        List<Document> docs = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            docs.add(toDocument(review));
+        }
+        collection.insertMany(docs, new InsertManyOptions().ordered(false));
+        for (int i = 0; i < reviews.size(); i++) {
+            reviews.get(i).setId(docs.get(i).getObjectId("_id"));
+        }
+        return docs.size();
+    }
+    
+    private Document toDocument(Review review) {
         Document doc = new Document()
             .append("productId", review.getProductId())
             .append("userId", review.getUserId())
@@ -59,10 +89,7 @@ public class ReviewRepository {
         if (review.getImages() != null) {
             doc.append("images", review.getImages());
         }
-        
-        collection.insertOne(doc);
-        review.setId(doc.getObjectId("_id"));
-        return review;
+        return doc;
     }
     
     /**
@@ -112,6 +139,26 @@ public class ReviewRepository {
         return sum / reviews.size();
     }
     
+    /**
+     * Gets average ratings for several products in one aggregation ($in on productId)
+     */
+    public Map<Integer, Double> getAverageRatings(Collection<Integer> productIds) {
+        Map<Integer, Double> ratings = new HashMap<>();
+        if (collection == null || productIds.isEmpty()) return ratings;
+        
+        collection.aggregate(List.of(
+                Aggregates.match(in("productId", productIds)),
+                Aggregates.group("$productId", Accumulators.avg("averageRating", "$rating"))
+            ))
+            .forEach(doc -> ratings.put(doc.getInteger("_id"), doc.getDouble("averageRating")));
+        
+        // Products without reviews have no rating
+        for (Integer productId : productIds) {
+            ratings.putIfAbsent(productId, 0.0);
+        }
+        return ratings;
+    }
+    
     /**
      * Gets review count by rating
      */
@@ -3,9 +3,15 @@ package org.commerce.daos.repositories;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Page;
 import org.commerce.daos.entities.User;
+import org.commerce.enums.CopyFormat;
 import org.commerce.enums.UserRole;
 import org.commerce.daos.repositories.interfaces.IUserRepository;
 
@@ -33,6 +39,32 @@ public class UserRepository extends BaseRepository implements IUserRepository {
         );
     }
 
+    @Override
+    public BulkLoadResult copyUsers(Stream<User> users, CopyFormat format, Connection connection) {
+        return copyMerge(
+            connection,
+            format,
+            "users_staging",
+            new String[] {"firstname TEXT", "lastname TEXT", "phone TEXT", "userRole TEXT", "email TEXT", "password TEXT"},
+            users.map(user -> new Object[] {
+                user.getFirstname(),
+                user.getLastname(),
+                user.getPhone(),
+                user.getUserRole().toString(),
+                user.getEmail(),
+                user.getPassword()
+            }),
+            null,
+            // The last staged row wins when an email repeats
+            "INSERT INTO users (firstname, lastname, phone, userRole, email, password) " +
+            "SELECT DISTINCT ON (email) firstname, lastname, phone, userRole, email, password " +
+            "FROM users_staging ORDER BY email, seq DESC " +
+            "ON CONFLICT (email) DO UPDATE SET firstname = EXCLUDED.firstname, lastname = EXCLUDED.lastname, " +
+            "phone = EXCLUDED.phone, userRole = EXCLUDED.userRole, password = EXCLUDED.password",
+            "SELECT u.id FROM users_staging s JOIN users u ON u.email = s.email ORDER BY s.seq"
+        );
+    }
+
     @Override
     public User getUserById(int userId, Connection connection) {
         String SQL = "SELECT * FROM users WHERE id = ?";
@@ -47,9 +79,24 @@ public class UserRepository extends BaseRepository implements IUserRepository {
 
     @Override
     public List<User> getAllUsers(Connection connection) {
-        String SQL = "SELECT * FROM users";
-        return executeQueryList(connection, SQL, this::mapUser);
+        // Fetched through a cursor so the driver never buffers the whole table
+        try (Stream<User> users = streamAllUsers(connection)) {
+            return users.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+    
+    @Override
+    public Stream<User> streamAllUsers(Connection connection) {
+        String SQL = "SELECT * FROM users ORDER BY id";
+        return executeQueryStream(connection, DEFAULT_FETCH_SIZE, SQL, this::mapUser);
+    }
+
+    @Override
+    public Page<User> findUsersPage(String cursor, int pageSize, Connection connection) {
+        return executeQueryPage(connection, BY_ID, "users", cursor, pageSize, this::mapUser);
     }
+    
+    private static final Keyset BY_ID = new Keyset("users_id", false).key("id", Keyset.KeyType.INT);
 
     @Override
     public User updateUser(User user, Connection connection) {
@@ -2,7 +2,9 @@ package org.commerce.daos.repositories.interfaces;
 
 import org.commerce.daos.entities.Categories;
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Category entity operations.
@@ -27,6 +29,15 @@ public interface ICategoryRepository {
      */
     Categories getCategoryById(int categoryId, Connection connection);
     
+    /**
+     * Retrieves several categories by ID in one query.
+     * 
+     * @param categoryIds The category IDs
+     * @param connection The database connection
+     * @return The categories found, in no particular order
+     */
+    List<Categories> findAllByIds(Collection<Integer> categoryIds, Connection connection);
+    
     /**
      * Retrieves all categories from the database.
      * 
@@ -35,6 +46,15 @@ public interface ICategoryRepository {
      */
     List<Categories> getAllCategories(Connection connection);
     
+    /**
+     * Streams all categories through a database cursor, in ID order.
+     * The stream must be closed before the connection.
+     * 
+     * @param connection The database connection
+     * @return Stream of all categories, fetched in batches as it is consumed
+     */
+    Stream<Categories> streamAllCategories(Connection connection);
+    
     /**
      * Updates an existing category.
      * 
@@ -1,8 +1,13 @@
 package org.commerce.daos.repositories.interfaces;
 
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Page;
 import org.commerce.daos.entities.Inventory;
+import org.commerce.enums.CopyFormat;
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Inventory entity operations.
@@ -18,6 +23,27 @@ public interface IInventoryRepository {
      */
     Inventory createInventory(Inventory inventory, Connection connection);
     
+    /**
+     * Creates many inventory records with one JDBC batch, in one transaction.
+     * 
+     * @param inventories The inventory records to create
+     * @param connection The database connection
+     * @return Number of records created
+     */
+    int createInventories(List<Inventory> inventories, Connection connection);
+    
+    /**
+     * Bulk loads inventory records with COPY and merges them into the table: the
+     * quantity of an existing product/warehouse record is replaced, other records
+     * are inserted. Runs in one transaction.
+     * 
+     * @param inventories The inventory records to load, consumed once
+     * @param format COPY data format
+     * @param connection The database connection
+     * @return Inventory IDs in input order, with insert/update counts and throughput
+     */
+    BulkLoadResult copyInventories(Stream<Inventory> inventories, CopyFormat format, Connection connection);
+    
     /**
      * Updates an existing inventory record.
      * 
@@ -45,6 +71,35 @@ public interface IInventoryRepository {
      */
     Inventory getInventoryById(int inventoryId, Connection connection);
     
+    /**
+     * Retrieves several inventory records by ID in one query.
+     * 
+     * @param inventoryIds The inventory IDs
+     * @param connection The database connection
+     * @return The inventory records found, in no particular order
+     */
+    List<Inventory> findAllByIds(Collection<Integer> inventoryIds, Connection connection);
+    
+    /**
+     * Retrieves the inventory records of several products in one query.
+     * 
+     * @param productIds The product IDs
+     * @param connection The database connection
+     * @return Inventory records of the products, ordered by product
+     */
+    List<Inventory> findAllByProductIds(Collection<Integer> productIds, Connection connection);
+    
+    /**
+     * Retrieves one page of inventory records in ID order using keyset pagination.
+     * 
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum records in the page
+     * @param connection The database connection
+     * @return The page and the cursor of the next one
+     * @throws org.commerce.exceptions.ValidationException if the cursor is invalid
+     */
+    Page<Inventory> findInventoryPage(String cursor, int pageSize, Connection connection);
+    
     /**
      * Retrieves all inventory records for a specific product.
      * 
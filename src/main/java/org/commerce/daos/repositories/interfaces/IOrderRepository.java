@@ -0,0 +1,35 @@
+package org.commerce.daos.repositories.interfaces;
+
+import org.commerce.common.BulkLoadResult;
+import org.commerce.daos.entities.OrderItems;
+import org.commerce.daos.entities.Orders;
+import org.commerce.enums.CopyFormat;
+import java.sql.Connection;
+import java.util.stream.Stream;
+
+/**
+ * Repository interface for Orders and OrderItems entity operations.
+ */
+public interface IOrderRepository {
+    
+    /**
+     * Bulk loads orders with COPY and merges them into the table: orders whose ID
+     * exists are updated, all others are inserted with new IDs. Runs in one transaction.
+     * 
+     * @param orders The orders to load, consumed once
+     * @param format COPY data format
+     * @param connection The database connection
+     * @return Order IDs in input order, with insert/update counts and throughput
+     */
+    BulkLoadResult copyOrders(Stream<Orders> orders, CopyFormat format, Connection connection);
+    
+    /**
+     * Bulk loads order items with COPY, with the same merge rules as copyOrders.
+     * 
+     * @param items The order items to load, consumed once
+     * @param format COPY data format
+     * @param connection The database connection
+     * @return Order item IDs in input order, with insert/update counts and throughput
+     */
+    BulkLoadResult copyOrderItems(Stream<OrderItems> items, CopyFormat format, Connection connection);
+}
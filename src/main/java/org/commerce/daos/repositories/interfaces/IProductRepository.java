@@ -1,8 +1,14 @@
 package org.commerce.daos.repositories.interfaces;
 
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Page;
 import org.commerce.daos.entities.Product;
+import org.commerce.enums.CopyFormat;
 import java.sql.Connection;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.Map;
 
 /**
  * Repository interface for Product entity operations.
@@ -18,6 +24,26 @@ public interface IProductRepository {
      */
     Product createProduct(Product product, Connection connection);
     
+    /**
+     * Creates many products with multi-row inserts, in one transaction.
+     * 
+     * @param products The products to create
+     * @param connection The database connection
+     * @return The created products with generated IDs and timestamps, in input order
+     */
+    List<Product> createProducts(List<Product> products, Connection connection);
+    
+    /**
+     * Bulk loads products with COPY and merges them into the table: products whose ID
+     * exists are updated, all others are inserted with new IDs. Runs in one transaction.
+     * 
+     * @param products The products to load, consumed once
+     * @param format COPY data format
+     * @param connection The database connection
+     * @return Product IDs in input order, with insert/update counts and throughput
+     */
+    BulkLoadResult copyProducts(Stream<Product> products, CopyFormat format, Connection connection);
+    
     /**
      * Retrieves a product by its ID.
      * 
@@ -27,6 +53,15 @@ public interface IProductRepository {
      */
     Product getProductById(int productId, Connection connection);
     
+    /**
+     * Retrieves several products by ID in one query.
+     * 
+     * @param productIds The product IDs
+     * @param connection The database connection
+     * @return The products found, in no particular order
+     */
+    List<Product> findAllByIds(Collection<Integer> productIds, Connection connection);
+    
     /**
      * Retrieves all products from the database.
      * 
@@ -35,6 +70,29 @@ public interface IProductRepository {
      */
     List<Product> getAllProducts(Connection connection);
     
+    /**
+     * Streams all products through a database cursor, in ID order.
+     * The stream must be closed before the connection.
+     * 
+     * @param connection The database connection
+     * @return Stream of all products, fetched in batches as it is consumed
+     */
+    Stream<Product> streamAllProducts(Connection connection);
+    
+    /**
+     * Retrieves one page of products using keyset pagination, so each page costs
+     * the same however deep into the catalog it is.
+     * 
+     * @param sortBy A ProductComparator sort key (name, name_desc, price_asc, price_desc,
+     *               newest, oldest, category); unknown keys sort by name
+     * @param cursor Cursor from the previous page of the same sort, or null for the first page
+     * @param pageSize Maximum products in the page
+     * @param connection The database connection
+     * @return The page and the cursor of the next one
+     * @throws org.commerce.exceptions.ValidationException if the cursor is invalid or from another sort
+     */
+    Page<Product> findProductsPage(String sortBy, String cursor, int pageSize, Connection connection);
+    
     /**
      * Updates an existing product.
      * 
@@ -62,6 +120,15 @@ public interface IProductRepository {
      */
     int getTotalStock(int productId, Connection connection);
     
+    /**
+     * Gets the total stock quantity of several products in one query.
+     * 
+     * @param productIds The product IDs
+     * @param connection The database connection
+     * @return Total stock per product ID (0 for products without inventory)
+     */
+    Map<Integer, Integer> getTotalStocks(Collection<Integer> productIds, Connection connection);
+    
     /**
      * Checks if a product with the given name exists.
      * 
@@ -89,4 +156,14 @@ public interface IProductRepository {
      * @return List of products matching the criteria
      */
     List<Product> searchProductsByCategory(Integer categoryId, String searchTerm, Connection connection);
+    
+    /**
+     * Gets a version string for the product catalog (products and categories).
+     * It changes whenever a row is inserted, updated or deleted, and is used
+     * to decide whether a cache snapshot is still valid.
+     * 
+     * @param connection The database connection
+     * @return Row counts, highest IDs and latest update times of both tables
+     */
+    String getCatalogVersion(Connection connection);
 }
@@ -1,8 +1,12 @@
 package org.commerce.daos.repositories.interfaces;
 
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Page;
 import org.commerce.daos.entities.User;
+import org.commerce.enums.CopyFormat;
 import java.sql.Connection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for User entity operations.
@@ -18,6 +22,18 @@ public interface IUserRepository {
      */
     User createUser(User user, Connection connection);
     
+    /**
+     * Bulk loads users with COPY and merges them into the table by email: existing
+     * users are updated, others are inserted. Passwords are stored as given, so they
+     * must already be hashed. Runs in one transaction.
+     * 
+     * @param users The users to load, consumed once
+     * @param format COPY data format
+     * @param connection The database connection
+     * @return User IDs in input order, with insert/update counts and throughput
+     */
+    BulkLoadResult copyUsers(Stream<User> users, CopyFormat format, Connection connection);
+    
     /**
      * Retrieves a user by their ID.
      * 
@@ -44,6 +60,26 @@ public interface IUserRepository {
      */
     List<User> getAllUsers(Connection connection);
     
+    /**
+     * Streams all users through a database cursor, in ID order.
+     * The stream must be closed before the connection.
+     * 
+     * @param connection The database connection
+     * @return Stream of all users, fetched in batches as it is consumed
+     */
+    Stream<User> streamAllUsers(Connection connection);
+    
+    /**
+     * Retrieves one page of users in ID order using keyset pagination.
+     * 
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum users in the page
+     * @param connection The database connection
+     * @return The page and the cursor of the next one
+     * @throws org.commerce.exceptions.ValidationException if the cursor is invalid
+     */
+    Page<User> findUsersPage(String cursor, int pageSize, Connection connection);
+    
     /**
      * Updates an existing user.
      * 
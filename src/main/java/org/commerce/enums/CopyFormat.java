@@ -0,0 +1,23 @@
+package org.commerce.enums;
+
+/**
+ * Data formats for PostgreSQL COPY bulk loads.
+ * CSV is readable and forgiving; BINARY skips text parsing on the server and is faster for large loads.
+ */
+public enum CopyFormat {
+    CSV("csv"),
+    BINARY("binary");
+
+    private final String option;
+
+    CopyFormat(String option) {
+        this.option = option;
+    }
+
+    /**
+     * Gets the value of COPY's FORMAT option.
+     */
+    public String getOption() {
+        return option;
+    }
+}
@@ -0,0 +1,11 @@
+package org.commerce.enums;
+
+/**
+ * Kinds of cached entities whose changes are broadcast to other instances.
+ */
+public enum EntityType {
+    PRODUCT,
+    CATEGORY,
+    USER,
+    STOCK
+}
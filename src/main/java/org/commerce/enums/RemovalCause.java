@@ -0,0 +1,10 @@
+package org.commerce.enums;
+
+/**
+ * Why an entry left a cache.
+ */
+public enum RemovalCause {
+    SIZE,
+    EXPIRED,
+    EXPLICIT
+}
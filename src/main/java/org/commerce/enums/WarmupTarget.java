@@ -0,0 +1,13 @@
+package org.commerce.enums;
+
+/**
+ * Caches that can be preloaded during startup warm-up.
+ */
+public enum WarmupTarget {
+    CATEGORIES,
+    PRODUCTS,
+    // First page of the customer listing in its default sort
+    SORTED_VIEW,
+    // Stock of the products on that page
+    STOCK
+}
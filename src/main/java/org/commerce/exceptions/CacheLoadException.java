@@ -0,0 +1,16 @@
+package org.commerce.exceptions;
+
+/**
+ * Exception thrown when a cache load fails or a caller times out
+ * waiting for a load started by another thread.
+ */
+public class CacheLoadException extends CommerceException {
+    
+    public CacheLoadException(String message) {
+        super(message);
+    }
+    
+    public CacheLoadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -56,6 +56,18 @@ public class ActivityLogService {
         }
     }
     
+    /**
+     * Logs many activities with one bulk insert, e.g. when importing or generating data
+     */
+    public Result<Integer> logActivities(List<ActivityLog> activityLogs) {
+        try {
+            int logged = logRepository.logAll(activityLogs);
+            return Result.success(logged, "Logged " + logged + " activities");
+        } catch (Exception e) {
+            return Result.failure("Failed to log activities: " + e.getMessage());
+        }
+    }
+    
     /**
      * Gets user activity logs
      */
@@ -0,0 +1,79 @@
+package org.commerce.services;
+
+import org.commerce.enums.EntityType;
+import org.commerce.exceptions.DatabaseConnectionException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Base service class for services backed by PostgreSQL.
+ * Borrows a pooled connection per operation instead of sharing one connection app-wide.
+ */
+public abstract class BaseService {
+    protected final DataSource dataSource;
+
+    // Publishes writes to other instances (null when running standalone)
+    private volatile CacheCoherenceService cacheCoherence;
+
+    protected BaseService(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Connects this service to cross-instance cache coherence: its writes are
+     * published, and changes made by other instances reach onRemoteChange.
+     *
+     * @param cacheCoherence The coherence service shared by all services
+     */
+    public void setCacheCoherence(CacheCoherenceService cacheCoherence) {
+        this.cacheCoherence = cacheCoherence;
+        cacheCoherence.addListener(this::onRemoteChange, this::onRemoteResync);
+    }
+
+    /**
+     * Announces a committed write so other instances can drop their cached copies.
+     */
+    protected void publishChange(EntityType type, int id, int... relatedIds) {
+        CacheCoherenceService coherence = cacheCoherence;
+        if (coherence != null) {
+            coherence.publish(type, id, relatedIds);
+        }
+    }
+
+    /**
+     * Invalidates cache entries affected by another instance's write. No-op by default.
+     */
+    protected void onRemoteChange(CacheCoherenceService.ChangeEvent event) {
+    }
+
+    /**
+     * Drops all cached data after notifications may have been missed. No-op by default.
+     */
+    protected void onRemoteResync() {
+    }
+
+    /**
+     * Runs work on a borrowed connection and returns it to the pool afterwards.
+     *
+     * @param work The repository work to run
+     * @return The work's result
+     * @throws DatabaseConnectionException if no connection could be obtained
+     */
+    protected <T> T withConnection(ConnectionWork<T> work) {
+        try (Connection connection = dataSource.getConnection()) {
+            return work.apply(connection);
+        } catch (SQLException e) {
+            throw new DatabaseConnectionException("Database connection unavailable: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Functional interface for work executed on a borrowed connection.
+     */
+    @FunctionalInterface
+    protected interface ConnectionWork<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,235 @@
+package org.commerce.services;
+
+import org.commerce.config.ConnectionPool;
+import org.commerce.enums.EntityType;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps in-memory caches coherent across application instances sharing one database.
+ * Services publish every write with pg_notify; a listener thread on a dedicated
+ * connection LISTENs for the other instances' notifications and passes them to the
+ * subscribed services, which invalidate the matching cache entries.
+ * Notifications sent while the listener is disconnected are lost, so after a
+ * reconnect every subscriber is asked to drop its caches.
+ */
+public class CacheCoherenceService implements AutoCloseable {
+    private static final String CHANNEL = "cache_invalidation";
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+    private static final long RECONNECT_DELAY_MILLIS = 5000;
+
+    private final DataSource dataSource;
+    private final ConnectionPool.ConnectionFactory listenerConnectionFactory;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    /**
+     * Creates the coherence service.
+     *
+     * @param dataSource Pool used to publish notifications
+     * @param listenerConnectionFactory Opens the dedicated, long-lived LISTEN connection
+     */
+    public CacheCoherenceService(DataSource dataSource, ConnectionPool.ConnectionFactory listenerConnectionFactory) {
+        this.dataSource = dataSource;
+        this.listenerConnectionFactory = listenerConnectionFactory;
+    }
+
+    /**
+     * Registers handlers for changes made by other instances.
+     *
+     * @param onChange Called for every remote change
+     * @param onResync Called when notifications may have been missed
+     */
+    public void addListener(Consumer<ChangeEvent> onChange, Runnable onResync) {
+        subscribers.add(new Subscriber(onChange, onResync));
+    }
+
+    /**
+     * Starts the listener thread. Safe to call once.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-coherence-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    /**
+     * Announces a committed change to the other instances. Failures are logged
+     * rather than thrown: the write itself has already succeeded, and the other
+     * instances still converge when their entries expire.
+     *
+     * @param type The kind of entity that changed
+     * @param id The entity ID
+     * @param relatedIds Other IDs whose cache entries are affected, e.g. product categories
+     */
+    public void publish(EntityType type, int id, int... relatedIds) {
+        String payload = new ChangeEvent(type, id, relatedIds, instanceId).toPayload();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            statement.execute();
+        } catch (SQLException e) {
+            System.err.println("[CACHE] Failed to publish change " + payload + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the ID this instance stamps on its notifications.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private void listen() {
+        boolean missedNotifications = false;
+        while (running) {
+            try (Connection connection = listenerConnectionFactory.create()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (missedNotifications) {
+                    System.out.println("[CACHE] Change listener reconnected, dropping caches");
+                    subscribers.forEach(subscriber -> subscriber.onResync.run());
+                    missedNotifications = false;
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                missedNotifications = true;
+                System.err.println("[CACHE] Change listener disconnected: " + e.getMessage());
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private void dispatch(String payload) {
+        ChangeEvent event = ChangeEvent.parse(payload);
+        if (event == null) {
+            System.err.println("[CACHE] Ignoring malformed change notification: " + payload);
+            return;
+        }
+        if (instanceId.equals(event.sourceInstanceId)) {
+            return; // Our own write, caches were already updated locally
+        }
+        for (Subscriber subscriber : subscribers) {
+            try {
+                subscriber.onChange.accept(event);
+            } catch (RuntimeException e) {
+                System.err.println("[CACHE] Change handler failed for " + payload + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stops the listener thread and releases its connection.
+     */
+    @Override
+    public synchronized void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        listenerThread.interrupt();
+        try {
+            listenerThread.join(POLL_TIMEOUT_MILLIS * 2L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class Subscriber {
+        private final Consumer<ChangeEvent> onChange;
+        private final Runnable onResync;
+
+        Subscriber(Consumer<ChangeEvent> onChange, Runnable onResync) {
+            this.onChange = onChange;
+            this.onResync = onResync;
+        }
+    }
+
+    /**
+     * A change announced by another instance.
+     * Payload format: TYPE:id:relatedId,relatedId:instanceId
+     */
+    public static class ChangeEvent {
+        // ID published when a bulk load changed more entities of a type than are worth listing
+        public static final int ALL_IDS = 0;
+
+        private final EntityType type;
+        private final int id;
+        private final int[] relatedIds;
+        private final String sourceInstanceId;
+
+        ChangeEvent(EntityType type, int id, int[] relatedIds, String sourceInstanceId) {
+            this.type = type;
+            this.id = id;
+            this.relatedIds = relatedIds;
+            this.sourceInstanceId = sourceInstanceId;
+        }
+
+        public EntityType getType() { return type; }
+        public int getId() { return id; }
+        public int[] getRelatedIds() { return relatedIds.clone(); }
+
+        /**
+         * Checks if every cached entity of the event's type may have changed.
+         */
+        public boolean isBulk() { return id == ALL_IDS; }
+
+        String toPayload() {
+            String related = Arrays.stream(relatedIds).mapToObj(String::valueOf).collect(Collectors.joining(","));
+            return type + ":" + id + ":" + related + ":" + sourceInstanceId;
+        }
+
+        static ChangeEvent parse(String payload) {
+            String[] parts = payload.split(":", 4);
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                int[] related = parts[2].isEmpty()
+                    ? new int[0]
+                    : Arrays.stream(parts[2].split(",")).mapToInt(Integer::parseInt).toArray();
+                return new ChangeEvent(EntityType.valueOf(parts[0]), Integer.parseInt(parts[1]), related, parts[3]);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
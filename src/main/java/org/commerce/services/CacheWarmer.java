@@ -0,0 +1,168 @@
+package org.commerce.services;
+
+import org.commerce.common.Page;
+import org.commerce.common.PerformanceMonitor;
+import org.commerce.common.Result;
+import org.commerce.daos.entities.Product;
+import org.commerce.enums.WarmupTarget;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Preloads the catalog caches in the background at startup, so the first
+ * screens are served from memory. Categories, the product list and the first page
+ * of the customer listing in its default sort load concurrently, as does the stock
+ * of the products on that page (one grouped query). A small fixed pool bounds how many pooled connections warm-up uses.
+ *
+ * Configured with CACHE_WARMUP (comma-separated targets: categories, products,
+ * sorted_view, stock; "all" by default, "none" disables) and CACHE_WARMUP_THREADS.
+ */
+public class CacheWarmer {
+    private static final int DEFAULT_THREADS = 4;
+    private static final String DEFAULT_SORT = "name";
+
+    private final ProductService productService;
+    private final CategoryService categoryService;
+    private final Set<WarmupTarget> targets;
+    private final int threads;
+
+    public CacheWarmer(ProductService productService, CategoryService categoryService,
+                       Set<WarmupTarget> targets, int threads) {
+        this.productService = productService;
+        this.categoryService = categoryService;
+        this.targets = targets.isEmpty() ? EnumSet.noneOf(WarmupTarget.class) : EnumSet.copyOf(targets);
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Creates a warmer configured from the CACHE_WARMUP and CACHE_WARMUP_THREADS environment variables.
+     */
+    public static CacheWarmer fromEnvironment(ProductService productService, CategoryService categoryService) {
+        return new CacheWarmer(productService, categoryService,
+                               parseTargets(System.getenv("CACHE_WARMUP")),
+                               parseThreads(System.getenv("CACHE_WARMUP_THREADS")));
+    }
+
+    /**
+     * Starts warm-up in the background and returns immediately.
+     *
+     * @return Completes when every configured cache is loaded (failures are logged, not propagated)
+     */
+    public CompletableFuture<Void> start() {
+        if (targets.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        ExecutorService executor = createExecutor();
+        long start = PerformanceMonitor.startTiming("Cache Warm-up");
+
+        List<CompletableFuture<?>> tasks = new ArrayList<>();
+        if (targets.contains(WarmupTarget.CATEGORIES)) {
+            tasks.add(run(WarmupTarget.CATEGORIES, categoryService::getAllCategories, executor));
+        }
+        if (targets.contains(WarmupTarget.SORTED_VIEW)) {
+            tasks.add(run(WarmupTarget.SORTED_VIEW,
+                () -> productService.getProductsPage(DEFAULT_SORT, null, ProductService.LISTING_PAGE_SIZE), executor));
+        }
+        if (targets.contains(WarmupTarget.PRODUCTS)) {
+            tasks.add(run(WarmupTarget.PRODUCTS, productService::getAllProducts, executor));
+        }
+        if (targets.contains(WarmupTarget.STOCK)) {
+            tasks.add(run(WarmupTarget.STOCK, this::preloadListingStock, executor));
+        }
+
+        return CompletableFuture.allOf(tasks.toArray(CompletableFuture<?>[]::new))
+            .handle((ignored, error) -> {
+                if (error != null) {
+                    System.err.println("[CACHE] Warm-up incomplete: " + rootMessage(error));
+                }
+                PerformanceMonitor.endTiming("Cache Warm-up", start);
+                executor.shutdown();
+                return null;
+            });
+    }
+
+    /**
+     * Loads the stock of the products on the first listing page with one grouped query.
+     * The stock cache holds far fewer entries than a large catalog, so preloading every
+     * product's stock would only churn it.
+     */
+    private void preloadListingStock() {
+        Result<Page<Product>> page = productService.getProductsPage(DEFAULT_SORT, null, ProductService.LISTING_PAGE_SIZE);
+        if (page.isSuccess()) {
+            productService.getTotalStocks(page.getData().getItems().stream().map(Product::getId).toList());
+        }
+    }
+
+    private CompletableFuture<Void> run(WarmupTarget target, Runnable load, ExecutorService executor) {
+        return CompletableFuture.runAsync(() -> timed(target, () -> {
+            load.run();
+            return null;
+        }), executor);
+    }
+
+    private <T> T timed(WarmupTarget target, Supplier<T> load) {
+        return PerformanceMonitor.measure(label(target), load).getResult();
+    }
+
+    private static String label(WarmupTarget target) {
+        return "Cache Warm-up: " + target.name().toLowerCase(Locale.ROOT);
+    }
+
+    private ExecutorService createExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "cache-warmup-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    static Set<WarmupTarget> parseTargets(String value) {
+        if (value == null || value.isBlank() || value.trim().equalsIgnoreCase("all")) {
+            return EnumSet.allOf(WarmupTarget.class);
+        }
+        Set<WarmupTarget> targets = EnumSet.noneOf(WarmupTarget.class);
+        if (value.trim().equalsIgnoreCase("none")) {
+            return targets;
+        }
+        for (String name : value.split(",")) {
+            try {
+                targets.add(WarmupTarget.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Ignoring unknown CACHE_WARMUP target: " + name.trim());
+            }
+        }
+        return targets;
+    }
+
+    private static int parseThreads(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT_THREADS;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid CACHE_WARMUP_THREADS=" + value);
+            return DEFAULT_THREADS;
+        }
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+}
@@ -1,43 +1,53 @@
 package org.commerce.services;
 
 import org.commerce.common.CacheManager;
+import org.commerce.common.CacheStats;
+import org.commerce.common.EntityCodecs;
 import org.commerce.common.Result;
 import org.commerce.common.ValidationResult;
 import org.commerce.daos.entities.Categories;
+import org.commerce.enums.EntityType;
 import org.commerce.exceptions.EntityNotFoundException;
 import org.commerce.daos.repositories.CategoryRepository;
 import org.commerce.daos.repositories.interfaces.ICategoryRepository;
 import org.commerce.validators.CategoryValidator;
 
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Service layer for Category business logic.
  * Handles validation, business rules, and delegates to repository.
  * Implements in-memory caching for improved performance.
  */
-public class CategoryService {
-    private final Connection connection;
+public class CategoryService extends BaseService {
+    private static final String ALL_KEY = "ALL";
+
     private final ICategoryRepository categoryRepository;
     
-    // Cache for individual categories (by ID) - 10 minute TTL, max 100 entries
+    // Cache for individual categories (by ID) - 1 hour TTL, max 100 entries
     private final CacheManager<Integer, Categories> categoryCache;
     
-    // Cache for all categories list - 5 minute TTL
+    // Cache for all categories list - 30 minute TTL
     private final CacheManager<String, List<Categories>> allCategoriesCache;
     
     // In-memory Map for quick category lookups by name
     private final Map<String, Categories> categoryNameIndex;
 
-    public CategoryService(Connection connection) {
-        this.connection = connection;
+    public CategoryService(DataSource dataSource) {
+        super(dataSource);
         this.categoryRepository = new CategoryRepository();
-        this.categoryCache = new CacheManager<>(600000, 100); // 10 min, 100 entries
-        this.allCategoriesCache = new CacheManager<>(300000, 1); // 5 min, 1 entry
-        this.categoryNameIndex = new HashMap<>();
+        this.categoryCache = new CacheManager<>("categories.byId", 3600000, 100); // 1 hour, 100 entries
+        this.allCategoriesCache = new CacheManager<>("categories.all", 1800000, 1); // 30 min, 1 entry
+        this.allCategoriesCache.enableStaleWhileRevalidate(120000); // serve up to 2 min stale while reloading
+        this.categoryNameIndex = new ConcurrentHashMap<>();
     }
 
     /**
@@ -54,10 +64,11 @@ public class CategoryService {
         }
 
         // Create category
-        Categories created = categoryRepository.createCategory(category, connection);
+        Categories created = withConnection(c -> categoryRepository.createCategory(category, c));
         
-        // Invalidate caches after creation
-        invalidateAllCaches();
+        // Write the new category through to the caches
+        writeThrough(created, null);
+        publishChange(EntityType.CATEGORY, created.getId());
         
         return Result.success(created, "Category created successfully");
     }
@@ -75,7 +86,7 @@ public class CategoryService {
 
         // Try to get from cache first
         Categories category = categoryCache.get(categoryId, () -> {
-            Categories cat = categoryRepository.getCategoryById(categoryId, connection);
+            Categories cat = withConnection(c -> categoryRepository.getCategoryById(categoryId, c));
             if (cat != null) {
                 // Update name index
                 categoryNameIndex.put(cat.getCategoryName(), cat);
@@ -90,6 +101,27 @@ public class CategoryService {
         return Result.success(category);
     }
 
+    /**
+     * Retrieves several categories by ID (with caching).
+     * Categories missing from the cache are loaded with a single query.
+     * 
+     * @param categoryIds The category IDs
+     * @return Result containing the categories found, by ID
+     */
+    public Result<Map<Integer, Categories>> getCategoriesByIds(Collection<Integer> categoryIds) {
+        Map<Integer, Categories> categories = categoryCache.getAll(categoryIds, missing -> {
+            Map<Integer, Categories> loaded = new HashMap<>();
+            for (Categories cat : withConnection(c -> categoryRepository.findAllByIds(missing, c))) {
+                loaded.put(cat.getId(), cat);
+                // Update name index
+                categoryNameIndex.put(cat.getCategoryName(), cat);
+            }
+            return loaded;
+        });
+        
+        return Result.success(categories);
+    }
+
     /**
      * Retrieves all categories (with caching).
      * 
@@ -97,8 +129,8 @@ public class CategoryService {
      */
     public Result<List<Categories>> getAllCategories() {
         // Use cache with "ALL" key
-        List<Categories> categories = allCategoriesCache.get("ALL", () -> {
-            List<Categories> cats = categoryRepository.getAllCategories(connection);
+        List<Categories> categories = allCategoriesCache.get(ALL_KEY, () -> {
+            List<Categories> cats = withConnection(categoryRepository::getAllCategories);
             // Populate name index
             for (Categories cat : cats) {
                 categoryNameIndex.put(cat.getCategoryName(), cat);
@@ -123,11 +155,13 @@ public class CategoryService {
         }
 
         // Business rule: Category must exist
-        Categories existingCategory = categoryRepository.getCategoryById(category.getId(), connection);
+        Categories existingCategory = withConnection(c -> categoryRepository.getCategoryById(category.getId(), c));
         if (existingCategory == null) {
             throw new EntityNotFoundException("Category", category.getId());
         }
 
+        String previousName = existingCategory.getCategoryName();
+
         // Merge: use new values if provided, otherwise keep existing
         if (category.getCategoryName() != null && !category.getCategoryName().isEmpty()) {
             existingCategory.setCategoryName(category.getCategoryName());
@@ -137,10 +171,11 @@ public class CategoryService {
             existingCategory.setDescription(category.getDescription());
         }
 
-        Categories updated = categoryRepository.updateCategory(existingCategory, connection);
+        Categories updated = withConnection(c -> categoryRepository.updateCategory(existingCategory, c));
         
-        // Invalidate caches after update
-        invalidateAllCaches();
+        // Write the returned row through to the caches
+        writeThrough(updated, previousName);
+        publishChange(EntityType.CATEGORY, updated.getId());
         
         return Result.success(updated, "Category updated successfully");
     }
@@ -157,7 +192,7 @@ public class CategoryService {
         }
 
         // Business rule: Category must exist
-        Categories categoryExists = categoryRepository.getCategoryById(categoryId, connection);
+        Categories categoryExists = withConnection(c -> categoryRepository.getCategoryById(categoryId, c));
         if (categoryExists == null) {
             throw new EntityNotFoundException("Category", categoryId);
         }
@@ -165,10 +200,13 @@ public class CategoryService {
         // Note: In a real application, you might want to check if products exist
         // in this category before allowing deletion
         
-        boolean deleted = categoryRepository.deleteCategory(categoryId, connection);
+        boolean deleted = withConnection(c -> categoryRepository.deleteCategory(categoryId, c));
         
-        // Invalidate caches after deletion
-        invalidateAllCaches();
+        // Remove the category from every cache
+        categoryCache.invalidate(categoryId);
+        allCategoriesCache.computeIfPresent(ALL_KEY, categories -> patchList(categories, categoryId, null));
+        categoryNameIndex.remove(categoryExists.getCategoryName());
+        publishChange(EntityType.CATEGORY, categoryId);
         
         return Result.success(deleted, "Category deleted successfully");
     }
@@ -184,7 +222,7 @@ public class CategoryService {
             return Result.failure("Invalid category ID");
         }
 
-        boolean exists = categoryRepository.exists(categoryId, connection);
+        boolean exists = withConnection(c -> categoryRepository.exists(categoryId, c));
         return Result.success(exists);
     }
     
@@ -199,9 +237,11 @@ public class CategoryService {
             return Result.failure("Category name cannot be empty");
         }
         
-        // Ensure cache is populated
+        // Ensure cache is populated (a list restored from a snapshot skips the loader)
         if (categoryNameIndex.isEmpty()) {
-            getAllCategories();
+            for (Categories cat : getAllCategories().getData()) {
+                categoryNameIndex.put(cat.getCategoryName(), cat);
+            }
         }
         
         Categories category = categoryNameIndex.get(categoryName);
@@ -212,9 +252,61 @@ public class CategoryService {
         return Result.success(category);
     }
     
+    /**
+     * Stores a category returned by a write in the by-ID cache, the cached list
+     * and the name index, so reads right after an edit stay cache-hot.
+     *
+     * @param category The category as returned by the database
+     * @param previousName The name before an update, or null for a new category
+     */
+    private void writeThrough(Categories category, String previousName) {
+        categoryCache.put(category.getId(), category);
+        allCategoriesCache.computeIfPresent(ALL_KEY, categories -> patchList(categories, category.getId(), category));
+        if (previousName != null && !previousName.equals(category.getCategoryName())) {
+            categoryNameIndex.remove(previousName);
+        }
+        categoryNameIndex.put(category.getCategoryName(), category);
+    }
+
+    @Override
+    protected void onRemoteChange(CacheCoherenceService.ChangeEvent event) {
+        if (event.getType() != EntityType.CATEGORY) {
+            return;
+        }
+        int categoryId = event.getId();
+        categoryCache.invalidate(categoryId);
+        allCategoriesCache.invalidate(ALL_KEY);
+        categoryNameIndex.values().removeIf(category -> category.getId() == categoryId);
+    }
+
+    @Override
+    protected void onRemoteResync() {
+        invalidateAllCaches();
+    }
+
+    /**
+     * Returns a copy of the list with one category replaced, appended or (if null) removed.
+     */
+    private static List<Categories> patchList(List<Categories> categories, int categoryId, Categories category) {
+        List<Categories> patched = new ArrayList<>(categories.size() + 1);
+        boolean replaced = false;
+        for (Categories existing : categories) {
+            if (existing.getId() != categoryId) {
+                patched.add(existing);
+            } else if (category != null) {
+                patched.add(category);
+                replaced = true;
+            }
+        }
+        if (category != null && !replaced) {
+            patched.add(category);
+        }
+        return patched;
+    }
+
     /**
      * Invalidates all category caches.
-     * Should be called after any create, update, or delete operation.
+     * Writes update the caches in place; this is for manual refreshes.
      */
     public void invalidateAllCaches() {
         categoryCache.invalidateAll();
@@ -222,11 +314,38 @@ public class CategoryService {
         categoryNameIndex.clear();
     }
     
+    /**
+     * Writes the category caches to snapshot files.
+     * 
+     * @param directory Snapshot directory
+     * @param catalogVersion Catalog version the cached data belongs to
+     * @return Number of entries written
+     * @throws IOException if a snapshot file cannot be written
+     */
+    public int saveSnapshot(Path directory, String catalogVersion) throws IOException {
+        return categoryCache.writeSnapshot(directory, catalogVersion, EntityCodecs.INTEGER, EntityCodecs.CATEGORY)
+             + allCategoriesCache.writeSnapshot(directory, catalogVersion, EntityCodecs.STRING, EntityCodecs.CATEGORY_LIST);
+    }
+    
+    /**
+     * Restores the category caches from snapshot files written at the same catalog version.
+     * 
+     * @param directory Snapshot directory
+     * @param catalogVersion Current catalog version
+     * @return Number of entries available from the snapshots
+     */
+    public int restoreSnapshot(Path directory, String catalogVersion) {
+        return categoryCache.restoreSnapshot(directory, catalogVersion, EntityCodecs.INTEGER, EntityCodecs.CATEGORY)
+             + allCategoriesCache.restoreSnapshot(directory, catalogVersion, EntityCodecs.STRING, EntityCodecs.CATEGORY_LIST);
+    }
+    
     /**
      * Gets cache statistics.
      */
     public String getCacheStats() {
-        return String.format("Category Cache: %d entries, All Categories Cache: %d entries, Name Index: %d entries",
-                categoryCache.size(), allCategoriesCache.size(), categoryNameIndex.size());
+        CacheStats byId = categoryCache.getStats();
+        CacheStats all = allCategoriesCache.getStats();
+        return String.format("Category Cache: %d entries (%.0f%% hits), All Categories Cache: %d entries (%.0f%% hits), Name Index: %d entries",
+                byId.getSize(), byId.getHitRate() * 100, all.getSize(), all.getHitRate() * 100, categoryNameIndex.size());
     }
 }
@@ -1,32 +1,43 @@
 package org.commerce.services;
 
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Page;
 import org.commerce.common.Result;
 import org.commerce.common.ValidationResult;
 import org.commerce.daos.entities.Inventory;
+import org.commerce.enums.CopyFormat;
+import org.commerce.enums.EntityType;
 import org.commerce.exceptions.EntityNotFoundException;
 import org.commerce.exceptions.ServiceException;
+import org.commerce.exceptions.ValidationException;
 import org.commerce.daos.repositories.InventoryRepository;
 import org.commerce.daos.repositories.ProductRepository;
 import org.commerce.daos.repositories.interfaces.IInventoryRepository;
 import org.commerce.daos.repositories.interfaces.IProductRepository;
 import org.commerce.validators.InventoryValidator;
 
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Service layer for Inventory business logic.
  * Handles validation, business rules, and delegates to repository.
  * Invalidates product stock cache when inventory changes.
  */
-public class InventoryService {
-    private final Connection connection;
+public class InventoryService extends BaseService {
     private final IInventoryRepository inventoryRepository;
     private final IProductRepository productRepository;
     private ProductService productService; // For cache invalidation
 
-    public InventoryService(Connection connection) {
-        this.connection = connection;
+    public InventoryService(DataSource dataSource) {
+        super(dataSource);
         this.inventoryRepository = new InventoryRepository();
         this.productRepository = new ProductRepository();
     }
@@ -55,16 +66,14 @@ public class InventoryService {
         }
 
         // Business rule: Product must exist
-        if (productRepository.getProductById(inventory.getProductId(), connection) == null) {
+        if (withConnection(c -> productRepository.getProductById(inventory.getProductId(), c)) == null) {
             throw new ServiceException("Product with ID " + inventory.getProductId() + " does not exist");
         }
 
         // Business rule: Check if inventory already exists for this product and warehouse
-        Inventory existing = inventoryRepository.getInventoryByProductAndWarehouse(
+        Inventory existing = withConnection(c -> inventoryRepository.getInventoryByProductAndWarehouse(
             inventory.getProductId(), 
-            inventory.getWarehouseLocation(), 
-            connection
-        );
+            inventory.getWarehouseLocation(), c));
         
         if (existing != null) {
             throw new ServiceException(
@@ -74,7 +83,7 @@ public class InventoryService {
         }
 
         // Create inventory
-        Inventory created = inventoryRepository.createInventory(inventory, connection);
+        Inventory created = withConnection(c -> inventoryRepository.createInventory(inventory, c));
         
         // Invalidate product stock cache
         if (productService != null) {
@@ -84,6 +93,114 @@ public class InventoryService {
         return Result.success(created, "Inventory created successfully");
     }
 
+    /**
+     * Creates many inventory records with one JDBC batch. Products are checked with one
+     * query; records duplicating an existing or earlier product/warehouse pair are skipped.
+     * 
+     * @param inventories The inventory records to create
+     * @return Result containing the number of records created or the first validation error
+     */
+    public Result<Integer> createInventories(List<Inventory> inventories) {
+        // Field validation
+        for (Inventory inventory : inventories) {
+            ValidationResult validation = InventoryValidator.validate(inventory);
+            if (!validation.isValid()) {
+                return Result.failure(validation.getErrorMessage());
+            }
+        }
+
+        // Business rule: Products must exist
+        Set<Integer> productIds = new HashSet<>();
+        inventories.forEach(inventory -> productIds.add(inventory.getProductId()));
+        Set<Integer> existingProducts = new HashSet<>();
+        withConnection(c -> productRepository.findAllByIds(productIds, c))
+            .forEach(product -> existingProducts.add(product.getId()));
+        for (Integer productId : productIds) {
+            if (!existingProducts.contains(productId)) {
+                throw new ServiceException("Product with ID " + productId + " does not exist");
+            }
+        }
+
+        // Business rule: One inventory record per product and warehouse
+        Set<String> locations = new HashSet<>();
+        withConnection(c -> inventoryRepository.findAllByProductIds(productIds, c))
+            .forEach(existing -> locations.add(existing.getProductId() + "|" + existing.getWarehouseLocation()));
+        List<Inventory> toCreate = new ArrayList<>();
+        for (Inventory inventory : inventories) {
+            if (locations.add(inventory.getProductId() + "|" + inventory.getWarehouseLocation())) {
+                toCreate.add(inventory);
+            }
+        }
+
+        // Create inventory
+        int created = withConnection(c -> inventoryRepository.createInventories(toCreate, c));
+        
+        // Invalidate product stock cache
+        if (productService != null) {
+            productService.invalidateStockCaches(productIds);
+        }
+        
+        int skipped = inventories.size() - toCreate.size();
+        return Result.success(created, "Created " + created + " inventory records"
+            + (skipped > 0 ? " (" + skipped + " duplicates skipped)" : ""));
+    }
+
+    /**
+     * Bulk loads inventory records with PostgreSQL COPY. Unlike createInventories,
+     * a record for an existing product and warehouse replaces its quantity.
+     * Records are validated as they stream; an invalid record aborts the whole load
+     * and is reported as a failure, an unknown product aborts it with a RepositoryException.
+     * 
+     * @param inventories The inventory records to load, consumed once
+     * @param format COPY data format
+     * @return Result containing the loaded IDs in input order and the load's throughput
+     */
+    public Result<BulkLoadResult> bulkLoadInventory(Stream<Inventory> inventories, CopyFormat format) {
+        Result<BulkLoadResult> result = bulkLoadInventoryChunk(inventories, format);
+        if (result.isSuccess()) {
+            finishBulkLoad();
+            System.out.println("[BULK LOAD] inventory: " + result.getData());
+        }
+        return result;
+    }
+
+    /**
+     * Loads one chunk of a larger import like bulkLoadInventory, but leaves the caches
+     * alone. Call finishBulkLoad once after the last chunk, so a multi-chunk import
+     * drops caches and notifies other instances once rather than per chunk.
+     * 
+     * @param inventories The inventory to load, consumed once
+     * @param format COPY data format
+     * @return Result containing the loaded IDs in input order and the load's throughput
+     */
+    public Result<BulkLoadResult> bulkLoadInventoryChunk(Stream<Inventory> inventories, CopyFormat format) {
+        Stream<Inventory> validated = inventories.peek(inventory -> {
+            ValidationResult validation = InventoryValidator.validate(inventory);
+            if (!validation.isValid()) {
+                throw new ValidationException("Product " + inventory.getProductId() + ": " + validation.getErrorMessage());
+            }
+        });
+        // Rows are validated while the COPY streams them, so an invalid one surfaces here
+        BulkLoadResult loaded;
+        try {
+            loaded = withConnection(c -> inventoryRepository.copyInventories(validated, format, c));
+        } catch (ValidationException e) {
+            return Result.failure(e.getMessage());
+        }
+        return Result.success(loaded, loaded.toString());
+    }
+
+    /**
+     * Drops the caches a bulk load made stale, here and on other instances.
+     */
+    public void finishBulkLoad() {
+        // Too many products affected to track individually
+        if (productService != null) {
+            productService.invalidateStockCache();
+        }
+        publishChange(EntityType.STOCK, CacheCoherenceService.ChangeEvent.ALL_IDS);
+    }
+
     /**
      * Updates an existing inventory record.
      * 
@@ -98,11 +215,9 @@ public class InventoryService {
         }
 
         // Business rule: Inventory must exist
-        Inventory existingInventory = inventoryRepository.getInventoryByProductAndWarehouse(
+        Inventory existingInventory = withConnection(c -> inventoryRepository.getInventoryByProductAndWarehouse(
             inventory.getProductId(),
-            inventory.getWarehouseLocation(),
-            connection
-        );
+            inventory.getWarehouseLocation(), c));
         
         if (existingInventory == null) {
             throw new EntityNotFoundException(
@@ -113,7 +228,7 @@ public class InventoryService {
         // Set the ID from existing record
         inventory.setId(existingInventory.getId());
 
-        Inventory updated = inventoryRepository.updateInventory(inventory, connection);
+        Inventory updated = withConnection(c -> inventoryRepository.updateInventory(inventory, c));
         
         // Invalidate product stock cache
         if (productService != null) {
@@ -135,9 +250,9 @@ public class InventoryService {
         }
         
         // Get inventory before deletion to know which product to invalidate
-        Inventory inventory = inventoryRepository.getInventoryById(inventoryId, connection);
+        Inventory inventory = withConnection(c -> inventoryRepository.getInventoryById(inventoryId, c));
         
-        boolean deleted = inventoryRepository.deleteInventory(inventoryId, connection);
+        boolean deleted = withConnection(c -> inventoryRepository.deleteInventory(inventoryId, c));
         if (!deleted) {
             throw new EntityNotFoundException("Inventory", inventoryId);
         }
@@ -150,6 +265,23 @@ public class InventoryService {
         return Result.success(deleted, "Inventory deleted successfully");
     }
 
+    /**
+     * Retrieves one page of inventory records in ID order.
+     * Not cached: stock levels change too often for pages to stay useful.
+     * 
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum records in the page, at most Page.MAX_SIZE
+     * @return Result containing the page and the cursor of the next one
+     * @throws ValidationException if the cursor is invalid
+     */
+    public Result<Page<Inventory>> getInventoryPage(String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > Page.MAX_SIZE) {
+            return Result.failure("Page size must be between 1 and " + Page.MAX_SIZE);
+        }
+        Page<Inventory> page = withConnection(c -> inventoryRepository.findInventoryPage(cursor, pageSize, c));
+        return Result.success(page);
+    }
+
     /**
      * Retrieves all inventory records for a specific product.
      * 
@@ -162,11 +294,28 @@ public class InventoryService {
         }
 
         // Business rule: Product must exist
-        if (productRepository.getProductById(productId, connection) == null) {
+        if (withConnection(c -> productRepository.getProductById(productId, c)) == null) {
             throw new EntityNotFoundException("Product", productId);
         }
 
-        List<Inventory> inventories = inventoryRepository.getInventoryByProductId(productId, connection);
+        List<Inventory> inventories = withConnection(c -> inventoryRepository.getInventoryByProductId(productId, c));
+        return Result.success(inventories);
+    }
+
+    /**
+     * Retrieves the inventory records of several products with one query.
+     * 
+     * @param productIds The product IDs
+     * @return Result containing inventory records by product ID (empty lists for products without inventory)
+     */
+    public Result<Map<Integer, List<Inventory>>> getInventoryByProductIds(Collection<Integer> productIds) {
+        Map<Integer, List<Inventory>> inventories = new HashMap<>();
+        for (Integer productId : productIds) {
+            inventories.put(productId, new ArrayList<>());
+        }
+        for (Inventory inventory : withConnection(c -> inventoryRepository.findAllByProductIds(productIds, c))) {
+            inventories.get(inventory.getProductId()).add(inventory);
+        }
         return Result.success(inventories);
     }
 
@@ -186,11 +335,9 @@ public class InventoryService {
             return Result.failure("Warehouse location is required");
         }
 
-        Inventory inventory = inventoryRepository.getInventoryByProductAndWarehouse(
+        Inventory inventory = withConnection(c -> inventoryRepository.getInventoryByProductAndWarehouse(
             productId, 
-            warehouseLocation, 
-            connection
-        );
+            warehouseLocation, c));
 
         if (inventory == null) {
             throw new EntityNotFoundException(
@@ -210,11 +357,9 @@ public class InventoryService {
      * @return Result containing the updated inventory
      */
     public Result<Inventory> adjustInventory(int productId, String warehouseLocation, int quantityChange) {
-        Inventory inventory = inventoryRepository.getInventoryByProductAndWarehouse(
+        Inventory inventory = withConnection(c -> inventoryRepository.getInventoryByProductAndWarehouse(
             productId, 
-            warehouseLocation, 
-            connection
-        );
+            warehouseLocation, c));
 
         if (inventory == null) {
             throw new EntityNotFoundException(
@@ -230,7 +375,7 @@ public class InventoryService {
         }
 
         inventory.setQuantity(newQuantity);
-        Inventory updated = inventoryRepository.updateInventory(inventory, connection);
+        Inventory updated = withConnection(c -> inventoryRepository.updateInventory(inventory, c));
         
         // Invalidate product stock cache
         if (productService != null) {
@@ -0,0 +1,80 @@
+package org.commerce.services;
+
+import org.commerce.common.BulkLoadResult;
+import org.commerce.common.Result;
+import org.commerce.common.ValidationResult;
+import org.commerce.daos.entities.OrderItems;
+import org.commerce.daos.entities.Orders;
+import org.commerce.enums.CopyFormat;
+import org.commerce.exceptions.ValidationException;
+import org.commerce.daos.repositories.OrderRepository;
+import org.commerce.daos.repositories.interfaces.IOrderRepository;
+import org.commerce.validators.OrderValidator;
+
+import javax.sql.DataSource;
+import java.util.stream.Stream;
+
+/**
+ * Service layer for Order business logic.
+ * Orders are not cached, so writes need no invalidation.
+ */
+public class OrderService extends BaseService {
+    private final IOrderRepository orderRepository;
+
+    public OrderService(DataSource dataSource) {
+        super(dataSource);
+        this.orderRepository = new OrderRepository();
+    }
+
+    /**
+     * Bulk loads orders with PostgreSQL COPY. Orders are validated as they stream;
+     * an invalid order aborts the whole load and is reported as a failure, an unknown
+     * user aborts it with a RepositoryException.
+     * 
+     * @param orders The orders to load, consumed once
+     * @param format COPY data format
+     * @return Result containing the loaded IDs in input order and the load's throughput
+     */
+    public Result<BulkLoadResult> bulkLoadOrders(Stream<Orders> orders, CopyFormat format) {
+        Stream<Orders> validated = orders.peek(order -> {
+            ValidationResult validation = OrderValidator.validate(order);
+            if (!validation.isValid()) {
+                throw new ValidationException("Order for user " + order.getUserId() + ": " + validation.getErrorMessage());
+            }
+        });
+        // Rows are validated while the COPY streams them, so an invalid one surfaces here
+        BulkLoadResult loaded;
+        try {
+            loaded = withConnection(c -> orderRepository.copyOrders(validated, format, c));
+        } catch (ValidationException e) {
+            return Result.failure(e.getMessage());
+        }
+        return Result.success(loaded, loaded.toString());
+    }
+
+    /**
+     * Bulk loads order items with PostgreSQL COPY. Items are validated as they stream;
+     * an invalid item aborts the whole load and is reported as a failure, an unknown
+     * order or product aborts it with a RepositoryException.
+     * 
+     * @param items The order items to load, consumed once
+     * @param format COPY data format
+     * @return Result containing the loaded IDs in input order and the load's throughput
+     */
+    public Result<BulkLoadResult> bulkLoadOrderItems(Stream<OrderItems> items, CopyFormat format) {
+        Stream<OrderItems> validated = items.peek(item -> {
+            ValidationResult validation = OrderValidator.validate(item);
+            if (!validation.isValid()) {
+                throw new ValidationException("Item of order " + item.getOrderId() + ": " + validation.getErrorMessage());
+            }
+        });
+        // Rows are validated while the COPY streams them, so an invalid one surfaces here
+        BulkLoadResult loaded;
+        try {
+            loaded = withConnection(c -> orderRepository.copyOrderItems(validated, format, c));
+        } catch (ValidationException e) {
+            return Result.failure(e.getMessage());
+        }
+        return Result.success(loaded, loaded.toString());
+    }
+}
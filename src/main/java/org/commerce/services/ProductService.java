@@ -1,54 +1,101 @@
 package org.commerce.services;
 
+import org.commerce.common.BulkLoadResult;
 import org.commerce.common.CacheManager;
+import org.commerce.common.CacheStats;
+import org.commerce.common.EntityCodecs;
+import org.commerce.common.Page;
 import org.commerce.common.ProductComparator;
 import org.commerce.common.Result;
 import org.commerce.common.ValidationResult;
+import org.commerce.common.Weighers;
+import org.commerce.daos.entities.Categories;
 import org.commerce.daos.entities.Product;
+import org.commerce.enums.CopyFormat;
+import org.commerce.enums.EntityType;
 import org.commerce.exceptions.EntityNotFoundException;
 import org.commerce.exceptions.ServiceException;
+import org.commerce.exceptions.ValidationException;
 import org.commerce.daos.repositories.CategoryRepository;
 import org.commerce.daos.repositories.ProductRepository;
 import org.commerce.daos.repositories.interfaces.ICategoryRepository;
 import org.commerce.daos.repositories.interfaces.IProductRepository;
 import org.commerce.validators.ProductValidator;
 
-import java.sql.Connection;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service layer for Product business logic.
  * Handles validation, business rules, and delegates to repository.
  * Implements in-memory caching and sorting for improved performance.
  */
-public class ProductService {
-    private final Connection connection;
+public class ProductService extends BaseService {
+    /** Products per page of the customer listing; warm-up preloads its first page. */
+    public static final int LISTING_PAGE_SIZE = 60;
+
+    // Cache tags: every list or search result that could contain any product
+    private static final String CATALOG_LIST_TAG = "catalog-list";
+
+    // Keys of the unsorted and sorted product lists in allProductsCache
+    private static final String ALL_KEY = "ALL";
+    private static final String SORTED_KEY_PREFIX = "ALL_SORTED_";
+
+    // Product IDs per stock notification, keeping payloads well under NOTIFY's 8000-byte limit
+    private static final int STOCK_IDS_PER_NOTICE = 500;
+
     private final IProductRepository productRepository;
     private final ICategoryRepository categoryRepository;
     
-    // Cache for individual products (by ID) - 5 minute TTL, max 200 entries
+    // Cache for individual products (by ID) - 30 minute TTL, 1 MB on-heap for the hottest
+    // products, optionally backed by an off-heap tier (CACHE_OFFHEAP_MB, off by default)
     private final CacheManager<Integer, Product> productCache;
     
-    // Cache for all products list - 3 minute TTL
+    // Cache for all products list and its sorted views - 3 minute TTL,
+    // refreshed in the background so the listing never blocks on a reload
     private final CacheManager<String, List<Product>> allProductsCache;
     
-    // Cache for search results - 2 minute TTL, max 50 searches
+    // Cache for keyset pages of the catalog - 3 minute TTL; pages are dropped rather
+    // than patched on writes, since a patched page would no longer meet its neighbours
+    private final CacheManager<String, Page<Product>> pageCache;
+    
+    // Cache for search results - 10 minute TTL, bounded by result size rather than count
     private final CacheManager<String, List<Product>> searchCache;
     
-    // Cache for product stock - 1 minute TTL
+    // Cache for product stock - 1 minute TTL, sized to hold the whole catalog's stock
     private final CacheManager<Integer, Integer> stockCache;
 
-    public ProductService(Connection connection) {
-        this.connection = connection;
+    public ProductService(DataSource dataSource) {
+        super(dataSource);
         this.productRepository = new ProductRepository();
         this.categoryRepository = new CategoryRepository();
-        this.productCache = new CacheManager<>(300000, 200); // 5 min, 200 entries
-        this.allProductsCache = new CacheManager<>(180000, 1); // 3 min, 1 entry
-        this.searchCache = new CacheManager<>(120000, 50); // 2 min, 50 searches
-        this.stockCache = new CacheManager<>(60000, 200); // 1 min, 200 entries
+        this.productCache = new CacheManager<>("products.byId", 1800000,
+            Weighers.megabytes(1), Weighers.product()); // 30 min, 1 MB on-heap (kept coherent by change notifications)
+        int offHeapMegabytes = offHeapMegabytes();
+        if (offHeapMegabytes > 0) {
+            this.productCache.enableOffHeapTier(Weighers.megabytes(offHeapMegabytes), EntityCodecs.PRODUCT);
+        }
+        this.allProductsCache = new CacheManager<>("products.lists", 180000, 10,
+            Weighers.megabytes(16), Weighers.productList()); // 3 min, "ALL" + sorted views, 16 MB
+        this.allProductsCache.enableRefreshAhead(30000); // reload hot lists 30s before expiry
+        this.allProductsCache.enableStaleWhileRevalidate(120000); // serve up to 2 min stale while reloading
+        this.pageCache = new CacheManager<>("products.pages", 180000, 500,
+            Weighers.megabytes(8), Weighers.productPage()); // 3 min, 500 pages, 8 MB
+        this.searchCache = new CacheManager<>("products.search", 600000,
+            Weighers.megabytes(8), Weighers.productList()); // 10 min, 8 MB of results
+        this.searchCache.enableAdmissionFilter(512); // keep one-off type-ahead prefixes from evicting popular searches
+        this.stockCache = new CacheManager<>("products.stock", 60000, 10000); // 1 min, 10000 entries
     }
 
     /**
@@ -65,19 +112,122 @@ public class ProductService {
         }
 
         // Business rule: Category must exist
-        if (!categoryRepository.exists(product.getCategoryId(), connection)) {
+        if (!withConnection(c -> categoryRepository.exists(product.getCategoryId(), c))) {
             throw new ServiceException("Category with ID " + product.getCategoryId() + " does not exist");
         }
 
         // Create product
-        Product created = productRepository.createProduct(product, connection);
+        Product created = withConnection(c -> productRepository.createProduct(product, c));
         
-        // Invalidate caches after creation
-        invalidateAllCaches();
+        // Cache the new product, patch it into the lists and drop searches it could match
+        writeThrough(created, created.getCategoryId());
+        publishChange(EntityType.PRODUCT, created.getId(), created.getCategoryId());
         
         return Result.success(created, "Product created successfully");
     }
 
+    /**
+     * Creates many products in a handful of round trips: categories are checked with
+     * one query and the rows are written with multi-row inserts in one transaction.
+     * 
+     * @param products The products to create
+     * @return Result containing the created products or the first validation error
+     */
+    public Result<List<Product>> createProducts(List<Product> products) {
+        if (products.isEmpty()) {
+            return Result.success(new ArrayList<>());
+        }
+        
+        // Field validation
+        for (Product product : products) {
+            ValidationResult validation = ProductValidator.validate(product);
+            if (!validation.isValid()) {
+                return Result.failure(product.getProductName() + ": " + validation.getErrorMessage());
+            }
+        }
+
+        // Business rule: Categories must exist
+        Set<Integer> categoryIds = products.stream().map(Product::getCategoryId).collect(Collectors.toSet());
+        Set<Integer> existingIds = withConnection(c -> categoryRepository.findAllByIds(categoryIds, c)).stream()
+            .map(Categories::getId).collect(Collectors.toSet());
+        for (Integer categoryId : categoryIds) {
+            if (!existingIds.contains(categoryId)) {
+                throw new ServiceException("Category with ID " + categoryId + " does not exist");
+            }
+        }
+
+        // Create products
+        List<Product> created = withConnection(c -> productRepository.createProducts(products, c));
+        
+        // Cache the new products; lists and affected searches are rebuilt on next read
+        int[] affectedCategories = categoryIds.stream().mapToInt(Integer::intValue).toArray();
+        for (Product product : created) {
+            productCache.put(product.getId(), product, productTag(product.getId()));
+        }
+        allProductsCache.invalidateTag(CATALOG_LIST_TAG);
+        pageCache.invalidateTag(CATALOG_LIST_TAG);
+        invalidateSearches(affectedCategories);
+        
+        // Other instances cache none of the new products, so one notice covers lists and searches
+        publishChange(EntityType.PRODUCT, created.get(0).getId(), affectedCategories);
+        
+        return Result.success(created, "Created " + created.size() + " products");
+    }
+
+    /**
+     * Bulk loads products with PostgreSQL COPY, for catalog imports too large for
+     * createProducts. Products with an existing ID are updated, the rest are inserted.
+     * Products are validated as they stream; an invalid product aborts the whole load
+     * and is reported as a failure, an unknown category aborts it with a RepositoryException.
+     * 
+     * @param products The products to load, consumed once
+     * @param format COPY data format
+     * @return Result containing the loaded IDs in input order and the load's throughput
+     */
+    public Result<BulkLoadResult> bulkLoadProducts(Stream<Product> products, CopyFormat format) {
+        Result<BulkLoadResult> result = bulkLoadProductsChunk(products, format);
+        if (result.isSuccess()) {
+            finishBulkLoad();
+            System.out.println("[BULK LOAD] products: " + result.getData());
+        }
+        return result;
+    }
+
+    /**
+     * Loads one chunk of a larger import like bulkLoadProducts, but leaves the caches
+     * alone. Call finishBulkLoad once after the last chunk, so a multi-chunk import
+     * drops caches and notifies other instances once rather than per chunk.
+     * 
+     * @param products The products to load, consumed once
+     * @param format COPY data format
+     * @return Result containing the loaded IDs in input order and the load's throughput
+     */
+    public Result<BulkLoadResult> bulkLoadProductsChunk(Stream<Product> products, CopyFormat format) {
+        Stream<Product> validated = products.peek(product -> {
+            ValidationResult validation = ProductValidator.validate(product);
+            if (!validation.isValid()) {
+                throw new ValidationException(product.getProductName() + ": " + validation.getErrorMessage());
+            }
+        });
+        // Rows are validated while the COPY streams them, so an invalid one surfaces here
+        BulkLoadResult loaded;
+        try {
+            loaded = withConnection(c -> productRepository.copyProducts(validated, format, c));
+        } catch (ValidationException e) {
+            return Result.failure(e.getMessage());
+        }
+        return Result.success(loaded, loaded.toString());
+    }
+
+    /**
+     * Drops the caches a bulk load made stale, here and on other instances.
+     */
+    public void finishBulkLoad() {
+        // Too many products changed to track individually
+        invalidateAllCaches();
+        publishChange(EntityType.PRODUCT, CacheCoherenceService.ChangeEvent.ALL_IDS);
+    }
+
     /**
      * Deletes a product by ID.
      * 
@@ -90,15 +240,20 @@ public class ProductService {
         }
 
         // Business rule: Product must exist
-        Product productExists = productRepository.getProductById(productId, connection);
+        Product productExists = withConnection(c -> productRepository.getProductById(productId, c));
         if (productExists == null) {
             throw new EntityNotFoundException("Product", productId);
         }
 
-        boolean deleted = productRepository.deleteProduct(productId, connection);
+        boolean deleted = withConnection(c -> productRepository.deleteProduct(productId, c));
         
-        // Invalidate caches after deletion
-        invalidateAllCaches();
+        // Drop the product, remove it from the cached lists and drop searches that could contain it
+        String productTag = productTag(productId);
+        productCache.invalidateTag(productTag);
+        stockCache.invalidateTag(productTag);
+        patchProductLists(productId, null);
+        invalidateSearches(productExists.getCategoryId());
+        publishChange(EntityType.PRODUCT, productId, productExists.getCategoryId());
         
         return Result.success(deleted, "Product deleted successfully");
     }
@@ -117,11 +272,13 @@ public class ProductService {
         }
 
         // Business rule: Product must exist
-        Product existingProduct = productRepository.getProductById(product.getId(), connection);
+        Product existingProduct = withConnection(c -> productRepository.getProductById(product.getId(), c));
         if (existingProduct == null) {
             throw new EntityNotFoundException("Product", product.getId());
         }
 
+        int previousCategoryId = existingProduct.getCategoryId();
+
         // Merge: use new values if provided, otherwise keep existing
         if (product.getProductName() != null && !product.getProductName().isEmpty()) {
             existingProduct.setProductName(product.getProductName());
@@ -137,16 +294,17 @@ public class ProductService {
 
         if (product.getCategoryId() > 0) {
             // Business rule: New category must exist
-            if (!categoryRepository.exists(product.getCategoryId(), connection)) {
+            if (!withConnection(c -> categoryRepository.exists(product.getCategoryId(), c))) {
                 throw new ServiceException("Category with ID " + product.getCategoryId() + " does not exist");
             }
             existingProduct.setCategoryId(product.getCategoryId());
         }
 
-        Product updated = productRepository.updateProduct(existingProduct, connection);
+        Product updated = withConnection(c -> productRepository.updateProduct(existingProduct, c));
         
-        // Invalidate caches after update
-        invalidateAllCaches();
+        // Cache the returned row, patch the lists and drop searches of its old and new category
+        writeThrough(updated, previousCategoryId, updated.getCategoryId());
+        publishChange(EntityType.PRODUCT, updated.getId(), previousCategoryId, updated.getCategoryId());
         
         return Result.success(updated, "Product updated successfully");
     }
@@ -164,7 +322,8 @@ public class ProductService {
 
         // Try to get from cache first
         Product product = productCache.get(productId, () -> 
-            productRepository.getProductById(productId, connection)
+            withConnection(c -> productRepository.getProductById(productId, c)),
+            productTag(productId)
         );
         
         if (product == null) {
@@ -174,14 +333,32 @@ public class ProductService {
         return Result.success(product);
     }
 
+    /**
+     * Retrieves several products by ID (with caching).
+     * Products missing from the cache are loaded with a single query.
+     * 
+     * @param productIds The product IDs
+     * @return Result containing the products found, by ID
+     */
+    public Result<Map<Integer, Product>> getProductsByIds(Collection<Integer> productIds) {
+        Map<Integer, Product> products = productCache.getAll(productIds, missing ->
+            withConnection(c -> productRepository.findAllByIds(missing, c)).stream()
+                .collect(Collectors.toMap(Product::getId, product -> product)),
+            productId -> new String[] { productTag(productId) }
+        );
+        
+        return Result.success(products);
+    }
+
     /**
      * Retrieves all products (with caching).
      * 
      * @return Result containing list of all products
      */
     public Result<List<Product>> getAllProducts() {
-        List<Product> products = allProductsCache.get("ALL", () -> 
-            productRepository.getAllProducts(connection)
+        List<Product> products = allProductsCache.get(ALL_KEY, () -> 
+            withConnection(productRepository::getAllProducts),
+            CATALOG_LIST_TAG
         );
         return Result.success(products);
     }
@@ -193,21 +370,67 @@ public class ProductService {
      * @return Result containing sorted list of products
      */
     public Result<List<Product>> getAllProductsSorted(String sortBy) {
-        String cacheKey = "ALL_SORTED_" + (sortBy != null ? sortBy : "name");
+        String cacheKey = SORTED_KEY_PREFIX + (sortBy != null ? sortBy : "name");
         
         List<Product> products = allProductsCache.get(cacheKey, () -> {
-            List<Product> allProducts = productRepository.getAllProducts(connection);
             Comparator<Product> comparator = ProductComparator.getComparator(sortBy);
             
-            // Sort in memory
-            List<Product> sorted = new ArrayList<>(allProducts);
+            // Collect straight from the cursor and sort in memory (one copy of the catalog)
+            List<Product> sorted = new ArrayList<>();
+            withConnection(c -> {
+                try (Stream<Product> rows = productRepository.streamAllProducts(c)) {
+                    rows.forEach(sorted::add);
+                }
+                return null;
+            });
             sorted.sort(comparator);
             return sorted;
-        });
+        }, CATALOG_LIST_TAG);
         
         return Result.success(products);
     }
 
+    /**
+     * Retrieves one page of products in the given sort order (with caching).
+     * Uses keyset pagination, so every page costs one index range scan however
+     * deep into the catalog it is.
+     * 
+     * @param sortBy Sort criteria as for getAllProductsSorted
+     * @param cursor Cursor from the previous page of the same sort, or null for the first page
+     * @param pageSize Maximum products in the page, at most Page.MAX_SIZE
+     * @return Result containing the page and the cursor of the next one
+     * @throws ValidationException if the cursor is invalid or from another sort
+     */
+    public Result<Page<Product>> getProductsPage(String sortBy, String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > Page.MAX_SIZE) {
+            return Result.failure("Page size must be between 1 and " + Page.MAX_SIZE);
+        }
+        Page<Product> page = pageCache.get(pageKey(sortBy, cursor, pageSize), () ->
+            withConnection(c -> productRepository.findProductsPage(sortBy, cursor, pageSize, c)),
+            CATALOG_LIST_TAG
+        );
+        return Result.success(page);
+    }
+
+    /**
+     * Passes every product to an action as it is read from the database, without
+     * caching or holding the catalog in memory (e.g. for exports).
+     * 
+     * @param action Called for each product, in ID order
+     * @return Result containing the number of products processed
+     */
+    public Result<Long> forEachProduct(Consumer<? super Product> action) {
+        long count = withConnection(c -> {
+            try (Stream<Product> products = productRepository.streamAllProducts(c)) {
+                return products.mapToLong(product -> {
+                    action.accept(product);
+                    return 1;
+                }).sum();
+            }
+        });
+        return Result.success(count);
+    }
+
     /**
      * Gets the total stock for a product (with caching).
      * 
@@ -219,20 +442,34 @@ public class ProductService {
             return Result.failure("Invalid product ID");
         }
 
-        // Business rule: Product must exist
-        Product product = productRepository.getProductById(productId, connection);
-        if (product == null) {
-            throw new EntityNotFoundException("Product", productId);
-        }
+        // Business rule: Product must exist (throws EntityNotFoundException otherwise)
+        getProductById(productId);
 
         // Use stock cache with 1 minute TTL
         int totalStock = stockCache.get(productId, () -> 
-            productRepository.getTotalStock(productId, connection)
+            withConnection(c -> productRepository.getTotalStock(productId, c)),
+            productTag(productId)
         );
         
         return Result.success(totalStock);
     }
     
+    /**
+     * Gets the total stock of several products (with caching).
+     * Stock missing from the cache is loaded with a single grouped query.
+     * 
+     * @param productIds The product IDs
+     * @return Result containing the total stock per product ID
+     */
+    public Result<Map<Integer, Integer>> getTotalStocks(Collection<Integer> productIds) {
+        Map<Integer, Integer> stocks = stockCache.getAll(productIds, missing ->
+            withConnection(c -> productRepository.getTotalStocks(missing, c)),
+            productId -> new String[] { productTag(productId) }
+        );
+        
+        return Result.success(stocks);
+    }
+    
     /**
      * Searches products by name or description (cached and sortable).
      * 
@@ -248,7 +485,8 @@ public class ProductService {
         String cacheKey = "SEARCH_" + normalizedTerm;
         
         List<Product> products = searchCache.get(cacheKey, () -> 
-            productRepository.searchProducts(normalizedTerm, connection)
+            withConnection(c -> productRepository.searchProducts(normalizedTerm, c)),
+            CATALOG_LIST_TAG
         );
         
         return Result.success(products, "Found " + products.size() + " product(s)");
@@ -264,7 +502,7 @@ public class ProductService {
     public Result<List<Product>> searchProductsByCategory(Integer categoryId, String searchTerm) {
         // Validate category if provided
         if (categoryId != null && categoryId > 0) {
-            if (!categoryRepository.exists(categoryId, connection)) {
+            if (!withConnection(c -> categoryRepository.exists(categoryId, c))) {
                 throw new EntityNotFoundException("Category", categoryId);
             }
         }
@@ -273,8 +511,11 @@ public class ProductService {
         String cacheKey = "SEARCH_CAT_" + categoryId + "_" + 
                          (normalizedTerm != null ? normalizedTerm.toLowerCase() : "all");
         
+        // A category-filtered search can only change when a product of that category does
+        String tag = categoryId != null && categoryId > 0 ? categoryTag(categoryId) : CATALOG_LIST_TAG;
         List<Product> products = searchCache.get(cacheKey, () -> 
-            productRepository.searchProductsByCategory(categoryId, normalizedTerm, connection)
+            withConnection(c -> productRepository.searchProductsByCategory(categoryId, normalizedTerm, c)),
+            tag
         );
         
         return Result.success(products, "Found " + products.size() + " product(s)");
@@ -309,13 +550,93 @@ public class ProductService {
         return Result.success(filtered, "Found " + filtered.size() + " product(s) in category");
     }
     
+    /**
+     * Invalidates the cache entries a write to one product can affect: the product
+     * itself, its stock, the full and sorted lists, unfiltered searches and the
+     * searches of the given categories. Everything else stays cached.
+     * Used when the new state of the product is not known locally.
+     *
+     * @param productId The product that was written
+     * @param categoryIds Categories the product belonged to before and after the write
+     */
+    public void invalidateProductCaches(int productId, int... categoryIds) {
+        String productTag = productTag(productId);
+        productCache.invalidateTag(productTag);
+        stockCache.invalidateTag(productTag);
+        allProductsCache.invalidateTag(CATALOG_LIST_TAG);
+        pageCache.invalidateTag(CATALOG_LIST_TAG);
+        invalidateSearches(categoryIds);
+    }
+
+    /**
+     * Stores a product returned by a write in the by-ID cache and patches it into the
+     * cached lists, so reads right after an edit stay cache-hot. Searches are still
+     * invalidated, since matching them is up to the database.
+     */
+    private void writeThrough(Product product, int... categoryIds) {
+        productCache.put(product.getId(), product, productTag(product.getId()));
+        patchProductLists(product.getId(), product);
+        invalidateSearches(categoryIds);
+    }
+
+    /**
+     * Replaces, inserts or removes one product in every cached product list.
+     * Sorted views keep their order by inserting at the comparator's position.
+     *
+     * @param productId The product that changed
+     * @param product The new version, or null if the product was deleted
+     */
+    private void patchProductLists(int productId, Product product) {
+        // Loads still running may have read the lists before this write
+        allProductsCache.cancelLoads(CATALOG_LIST_TAG);
+        pageCache.invalidateTag(CATALOG_LIST_TAG);
+        for (String key : allProductsCache.keys()) {
+            Comparator<Product> order = key.startsWith(SORTED_KEY_PREFIX)
+                ? ProductComparator.getComparator(key.substring(SORTED_KEY_PREFIX.length()))
+                : null;
+            allProductsCache.computeIfPresent(key, products -> patchList(products, productId, product, order));
+        }
+    }
+
+    private static List<Product> patchList(List<Product> products, int productId, Product product,
+                                           Comparator<Product> order) {
+        List<Product> patched = new ArrayList<>(products.size() + 1);
+        int position = -1;
+        for (Product existing : products) {
+            if (existing.getId() == productId) {
+                position = patched.size();
+            } else {
+                patched.add(existing);
+            }
+        }
+        if (product != null) {
+            if (order != null) {
+                int index = Collections.binarySearch(patched, product, order);
+                patched.add(index < 0 ? -index - 1 : index, product);
+            } else if (position >= 0) {
+                patched.add(position, product);
+            } else {
+                patched.add(product);
+            }
+        }
+        return patched;
+    }
+
+    private void invalidateSearches(int... categoryIds) {
+        searchCache.invalidateTag(CATALOG_LIST_TAG);
+        for (int categoryId : categoryIds) {
+            searchCache.invalidateTag(categoryTag(categoryId));
+        }
+    }
+
     /**
      * Invalidates all product caches.
-     * Should be called after any create, update, or delete operation.
+     * Writes use invalidateProductCaches; this is for manual refreshes.
      */
     public void invalidateAllCaches() {
         productCache.invalidateAll();
         allProductsCache.invalidateAll();
+        pageCache.invalidateAll();
         searchCache.invalidateAll();
         stockCache.invalidateAll();
     }
@@ -332,6 +653,82 @@ public class ProductService {
      */
     public void invalidateStockCache(int productId) {
         stockCache.invalidate(productId);
+        publishChange(EntityType.STOCK, productId);
+    }
+
+    /**
+     * Invalidates stock cache for several products, announcing them in a few notifications.
+     */
+    public void invalidateStockCaches(Collection<Integer> productIds) {
+        List<Integer> ids = new ArrayList<>(productIds);
+        ids.forEach(stockCache::invalidate);
+        for (int start = 0; start < ids.size(); start += STOCK_IDS_PER_NOTICE) {
+            List<Integer> chunk = ids.subList(start, Math.min(start + STOCK_IDS_PER_NOTICE, ids.size()));
+            int[] related = chunk.subList(1, chunk.size()).stream().mapToInt(Integer::intValue).toArray();
+            publishChange(EntityType.STOCK, chunk.get(0), related);
+        }
+    }
+
+    @Override
+    protected void onRemoteChange(CacheCoherenceService.ChangeEvent event) {
+        switch (event.getType()) {
+            case PRODUCT -> {
+                if (event.isBulk()) {
+                    invalidateAllCaches();
+                } else {
+                    invalidateProductCaches(event.getId(), event.getRelatedIds());
+                }
+            }
+            case STOCK -> {
+                if (event.isBulk()) {
+                    stockCache.invalidateAll();
+                    return;
+                }
+                stockCache.invalidate(event.getId());
+                for (int productId : event.getRelatedIds()) {
+                    stockCache.invalidate(productId);
+                }
+            }
+            default -> { }
+        }
+    }
+
+    @Override
+    protected void onRemoteResync() {
+        invalidateAllCaches();
+    }
+    
+    /**
+     * Gets the current catalog version, used to validate cache snapshots.
+     */
+    public String getCatalogVersion() {
+        return withConnection(productRepository::getCatalogVersion);
+    }
+    
+    /**
+     * Writes the product and product list caches to snapshot files.
+     * 
+     * @param directory Snapshot directory
+     * @param catalogVersion Catalog version the cached data belongs to
+     * @return Number of entries written
+     * @throws IOException if a snapshot file cannot be written
+     */
+    public int saveSnapshot(Path directory, String catalogVersion) throws IOException {
+        return productCache.writeSnapshot(directory, catalogVersion, EntityCodecs.INTEGER, EntityCodecs.PRODUCT)
+             + allProductsCache.writeSnapshot(directory, catalogVersion, EntityCodecs.STRING, EntityCodecs.PRODUCT_LIST);
+    }
+    
+    /**
+     * Restores the product and product list caches from snapshot files written at
+     * the same catalog version. Entries are decoded lazily on first access.
+     * 
+     * @param directory Snapshot directory
+     * @param catalogVersion Current catalog version
+     * @return Number of entries available from the snapshots
+     */
+    public int restoreSnapshot(Path directory, String catalogVersion) {
+        return productCache.restoreSnapshot(directory, catalogVersion, EntityCodecs.INTEGER, EntityCodecs.PRODUCT)
+             + allProductsCache.restoreSnapshot(directory, catalogVersion, EntityCodecs.STRING, EntityCodecs.PRODUCT_LIST);
     }
     
     /**
@@ -339,8 +736,70 @@ public class ProductService {
      */
     public String getCacheStats() {
         return String.format(
-            "Product Cache: %d entries, All Products Cache: %d entries, Search Cache: %d entries, Stock Cache: %d entries",
-            productCache.size(), allProductsCache.size(), searchCache.size(), stockCache.size()
+            "Product Cache: %s, All Products Cache: %s, Page Cache: %s, Search Cache: %s, Stock Cache: %s",
+            summarize(productCache), summarize(allProductsCache), summarize(pageCache),
+            summarize(searchCache), summarize(stockCache)
         );
     }
+    
+    /**
+     * Gets detailed statistics for every product cache.
+     */
+    public List<CacheStats> getCacheStatistics() {
+        return List.of(productCache.getStats(), allProductsCache.getStats(), pageCache.getStats(),
+                       searchCache.getStats(), stockCache.getStats());
+    }
+    
+    /**
+     * Checks whether a sorted product list is already cached (does not affect statistics).
+     * 
+     * @param sortBy Sort criteria as passed to getAllProductsSorted
+     * @return true if the next getAllProductsSorted call will be served from cache
+     */
+    public boolean isSortedListCached(String sortBy) {
+        return allProductsCache.isCached(SORTED_KEY_PREFIX + (sortBy != null ? sortBy : "name"));
+    }
+    
+    /**
+     * Checks whether a product page is already cached (does not affect statistics).
+     * 
+     * @param sortBy Sort criteria as passed to getProductsPage
+     * @param cursor Cursor as passed to getProductsPage
+     * @param pageSize Page size as passed to getProductsPage
+     * @return true if the next getProductsPage call will be served from cache
+     */
+    public boolean isPageCached(String sortBy, String cursor, int pageSize) {
+        return pageCache.isCached(pageKey(sortBy, cursor, pageSize));
+    }
+    
+    private static String pageKey(String sortBy, String cursor, int pageSize) {
+        String sort = sortBy != null ? sortBy.toLowerCase() : "name";
+        return sort + ":" + pageSize + ":" + (cursor != null ? cursor : "");
+    }
+    
+    private static int offHeapMegabytes() {
+        String value = System.getenv("CACHE_OFFHEAP_MB");
+        if (value == null || value.isBlank()) {
+            return 0; // Disabled: the tier reserves its whole buffer up front
+        }
+        try {
+            return Math.min(2047, Integer.parseInt(value.trim()));
+        } catch (NumberFormatException e) {
+            System.err.println("Ignoring invalid CACHE_OFFHEAP_MB=" + value);
+            return 0;
+        }
+    }
+
+    private static String productTag(int productId) {
+        return "product:" + productId;
+    }
+
+    private static String categoryTag(int categoryId) {
+        return "category:" + categoryId;
+    }
+
+    private static String summarize(CacheManager<?, ?> cache) {
+        CacheStats stats = cache.getStats();
+        return String.format("%d entries (%.0f%% hits)", stats.getSize(), stats.getHitRate() * 100);
+    }
 }
@@ -5,7 +5,9 @@ import org.commerce.common.ValidationResult;
 import org.commerce.daos.entities.Review;
 import org.commerce.daos.repositories.ReviewRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for Review operations
@@ -37,6 +39,25 @@ public class ReviewService {
         }
     }
     
+    /**
+     * Creates many reviews with one bulk insert, e.g. when importing or generating data
+     */
+    public Result<Integer> createReviews(List<Review> reviews) {
+        for (Review review : reviews) {
+            ValidationResult validation = validateReview(review);
+            if (!validation.isValid()) {
+                return Result.failure(validation.getErrorMessage());
+            }
+        }
+        
+        try {
+            int created = reviewRepository.createAll(reviews);
+            return Result.success(created, "Created " + created + " reviews");
+        } catch (Exception e) {
+            return Result.failure("Failed to create reviews: " + e.getMessage());
+        }
+    }
+    
     /**
      * Gets all reviews for a product
      */
@@ -85,6 +106,18 @@ public class ReviewService {
         }
     }
     
+    /**
+     * Gets average ratings for several products with one query
+     */
+    public Result<Map<Integer, Double>> getAverageRatings(Collection<Integer> productIds) {
+        try {
+            Map<Integer, Double> ratings = reviewRepository.getAverageRatings(productIds);
+            return Result.success(ratings);
+        } catch (Exception e) {
+            return Result.failure("Failed to calculate average ratings: " + e.getMessage());
+        }
+    }
+    
     /**
      * Gets rating distribution for a product
      */
@@ -1,18 +1,27 @@
 package org.commerce.services;
 
-import java.sql.Connection;
-import java.util.HashMap;
+import javax.sql.DataSource;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.commerce.common.BulkLoadResult;
 import org.commerce.common.CacheManager;
+import org.commerce.common.CacheStats;
+import org.commerce.common.Page;
 import org.commerce.common.PasswordHasher;
 import org.commerce.common.Result;
 import org.commerce.common.ValidationResult;
+import org.commerce.common.Weighers;
 import org.commerce.daos.entities.User;
+import org.commerce.enums.CopyFormat;
+import org.commerce.enums.EntityType;
 import org.commerce.enums.UserRole;
 import org.commerce.exceptions.DuplicateEntityException;
 import org.commerce.exceptions.EntityNotFoundException;
+import org.commerce.exceptions.ValidationException;
 import org.commerce.daos.repositories.UserRepository;
 import org.commerce.daos.repositories.interfaces.IUserRepository;
 import org.commerce.validators.UserValidator;
@@ -22,25 +31,29 @@ import org.commerce.validators.UserValidator;
  * Handles validation, business rules, and delegates to repository.
  * Implements session-based caching for logged-in users.
  */
-public class UserService {
-    private final Connection connection;
+public class UserService extends BaseService {
     private final IUserRepository userRepository;
     
-    // Cache for individual users (by ID) - 10 minute TTL, max 100 entries
+    // Cache for individual users (by ID) - 30 minute TTL, max 1000 entries or 1 MB
     private final CacheManager<Integer, User> userCache;
     
     // Cache for user lookups by email - 5 minute TTL, max 100 entries
     private final CacheManager<String, User> emailCache;
     
+    // Cache for keyset pages of the user list; any user write drops all pages
+    private final CacheManager<String, Page<User>> pageCache;
+    
     // In-memory Map for active user sessions
     private final Map<Integer, User> activeSessionsCache;
 
-    public UserService(Connection connection) {
-        this.connection = connection;
+    public UserService(DataSource dataSource) {
+        super(dataSource);
         this.userRepository = new UserRepository();
-        this.userCache = new CacheManager<>(600000, 100); // 10 min, 100 entries
-        this.emailCache = new CacheManager<>(300000, 100); // 5 min, 100 entries
-        this.activeSessionsCache = new HashMap<>();
+        this.userCache = new CacheManager<>("users.byId", 1800000, 1000,
+            Weighers.megabytes(1), Weighers.user()); // 30 min, 1000 entries, 1 MB
+        this.emailCache = new CacheManager<>("users.byEmail", 300000, 100); // 5 min, 100 entries
+        this.pageCache = new CacheManager<>("users.pages", 300000, 100); // 5 min, 100 pages
+        this.activeSessionsCache = new ConcurrentHashMap<>();
     }
 
     /**
@@ -57,7 +70,7 @@ public class UserService {
         }
         
         // Business rule: Email must be unique
-        if (userRepository.existsByEmail(user.getEmail(), connection)) {
+        if (withConnection(c -> userRepository.existsByEmail(user.getEmail(), c))) {
             return Result.failure("User with email '" + user.getEmail() + "' already exists");
         }
         
@@ -67,14 +80,72 @@ public class UserService {
         }
         
         // Create user
-        User created = userRepository.createUser(user, connection);
+        User created = withConnection(c -> userRepository.createUser(user, c));
         
-        // Invalidate caches after creation
-        invalidateAllCaches();
+        // Write the new user through (replaces any cached "not found" for the email)
+        writeThrough(created, null);
+        publishChange(EntityType.USER, created.getId());
         
         return Result.success(created, "User created successfully");
     }
 
+    /**
+     * Bulk loads users with PostgreSQL COPY; users whose email exists are updated.
+     * Plain text passwords are hashed on the way, which dominates the load time, so
+     * large imports should supply BCrypt hashes. Users are validated as they stream;
+     * an invalid user aborts the whole load and is reported as a failure.
+     * 
+     * @param users The users to load, consumed once
+     * @param format COPY data format
+     * @return Result containing the loaded IDs in input order and the load's throughput
+     */
+    public Result<BulkLoadResult> bulkLoadUsers(Stream<User> users, CopyFormat format) {
+        Result<BulkLoadResult> result = bulkLoadUsersChunk(users, format);
+        if (result.isSuccess()) {
+            finishBulkLoad();
+            System.out.println("[BULK LOAD] users: " + result.getData());
+        }
+        return result;
+    }
+
+    /**
+     * Loads one chunk of a larger import like bulkLoadUsers, but leaves the caches
+     * alone. Call finishBulkLoad once after the last chunk, so a multi-chunk import
+     * drops caches and notifies other instances once rather than per chunk.
+     * 
+     * @param users The users to load, consumed once
+     * @param format COPY data format
+     * @return Result containing the loaded IDs in input order and the load's throughput
+     */
+    public Result<BulkLoadResult> bulkLoadUsersChunk(Stream<User> users, CopyFormat format) {
+        Stream<User> prepared = users.peek(user -> {
+            ValidationResult validation = UserValidator.validate(user);
+            if (!validation.isValid()) {
+                throw new ValidationException(user.getEmail() + ": " + validation.getErrorMessage());
+            }
+            if (!PasswordHasher.isHashed(user.getPassword())) {
+                user.setPassword(PasswordHasher.hashPassword(user.getPassword()));
+            }
+        });
+        // Rows are validated while the COPY streams them, so an invalid one surfaces here
+        BulkLoadResult loaded;
+        try {
+            loaded = withConnection(c -> userRepository.copyUsers(prepared, format, c));
+        } catch (ValidationException e) {
+            return Result.failure(e.getMessage());
+        }
+        return Result.success(loaded, loaded.toString());
+    }
+
+    /**
+     * Drops the caches a bulk load made stale, here and on other instances.
+     */
+    public void finishBulkLoad() {
+        // Too many users changed to track individually
+        invalidateAllCaches();
+        publishChange(EntityType.USER, CacheCoherenceService.ChangeEvent.ALL_IDS);
+    }
+
     /**
      * Deletes a user by ID.
      * 
@@ -87,16 +158,19 @@ public class UserService {
         }
         
         // Business rule: User must exist
-        User userExists = userRepository.getUserById(userId, connection);
+        User userExists = withConnection(c -> userRepository.getUserById(userId, c));
         if (userExists == null) {
             throw new EntityNotFoundException("User", userId);
         }
         
-        boolean deleted = userRepository.deleteUser(userId, connection);
+        boolean deleted = withConnection(c -> userRepository.deleteUser(userId, c));
         
-        // Invalidate caches and remove from active sessions
-        invalidateAllCaches();
+        // Remove from caches and active sessions
+        userCache.invalidate(userId);
+        emailCache.invalidate(userExists.getEmail());
+        pageCache.invalidateAll();
         activeSessionsCache.remove(userId);
+        publishChange(EntityType.USER, userId);
         
         return Result.success(deleted, "User deleted successfully");
     }
@@ -115,11 +189,13 @@ public class UserService {
         }
 
         // Business rule: User must exist
-        User existingUser = userRepository.getUserById(user.getId(), connection);
+        User existingUser = withConnection(c -> userRepository.getUserById(user.getId(), c));
         if (existingUser == null) {
             throw new EntityNotFoundException("User", user.getId());
         }
 
+        String previousEmail = existingUser.getEmail();
+
         // Merge: use new values if provided, otherwise keep existing
         if (user.getFirstname() != null && !user.getFirstname().isEmpty()) {
             existingUser.setFirstname(user.getFirstname());
@@ -130,7 +206,7 @@ public class UserService {
         if (user.getEmail() != null && !user.getEmail().isEmpty()) {
             // Business rule: New email must be unique
             if (!existingUser.getEmail().equals(user.getEmail()) && 
-                userRepository.existsByEmail(user.getEmail(), connection)) {
+                withConnection(c -> userRepository.existsByEmail(user.getEmail(), c))) {
                 throw new DuplicateEntityException("User", "email", user.getEmail());
             }
             existingUser.setEmail(user.getEmail());
@@ -146,10 +222,11 @@ public class UserService {
             existingUser.setUserRole(user.getUserRole());
         }
 
-        User updated = userRepository.updateUser(existingUser, connection);
+        User updated = withConnection(c -> userRepository.updateUser(existingUser, c));
         
-        // Invalidate caches and update active session
-        invalidateAllCaches();
+        // Write the returned row through and update active session
+        writeThrough(updated, previousEmail);
+        publishChange(EntityType.USER, updated.getId());
         if (activeSessionsCache.containsKey(updated.getId())) {
             activeSessionsCache.put(updated.getId(), updated);
         }
@@ -175,7 +252,7 @@ public class UserService {
 
         // Then check cache
         User user = userCache.get(userId, () -> 
-            userRepository.getUserById(userId, connection)
+            withConnection(c -> userRepository.getUserById(userId, c))
         );
         
         if (user == null) {
@@ -191,10 +268,48 @@ public class UserService {
      * @return Result containing list of all users
      */
     public Result<List<User>> getAllUsers() {
-        List<User> users = userRepository.getAllUsers(connection);
+        List<User> users = withConnection(userRepository::getAllUsers);
         return Result.success(users);
     }
 
+    /**
+     * Retrieves one page of users in ID order (with caching).
+     * Uses keyset pagination, so every page costs the same however deep it is.
+     * 
+     * @param cursor Cursor from the previous page, or null for the first page
+     * @param pageSize Maximum users in the page, at most Page.MAX_SIZE
+     * @return Result containing the page and the cursor of the next one
+     * @throws ValidationException if the cursor is invalid
+     */
+    public Result<Page<User>> getUsersPage(String cursor, int pageSize) {
+        if (pageSize < 1 || pageSize > Page.MAX_SIZE) {
+            return Result.failure("Page size must be between 1 and " + Page.MAX_SIZE);
+        }
+        String cacheKey = pageSize + ":" + (cursor != null ? cursor : "");
+        Page<User> page = pageCache.get(cacheKey, () ->
+            withConnection(c -> userRepository.findUsersPage(cursor, pageSize, c)));
+        return Result.success(page);
+    }
+
+    /**
+     * Passes every user to an action as it is read from the database,
+     * without holding all users in memory.
+     * 
+     * @param action Called for each user, in ID order
+     * @return Result containing the number of users processed
+     */
+    public Result<Long> forEachUser(Consumer<? super User> action) {
+        long count = withConnection(c -> {
+            try (Stream<User> users = userRepository.streamAllUsers(c)) {
+                return users.mapToLong(user -> {
+                    action.accept(user);
+                    return 1;
+                }).sum();
+            }
+        });
+        return Result.success(count);
+    }
+
     /**
      * Registers a new user with default CUSTOMER role.
      * 
@@ -209,7 +324,7 @@ public class UserService {
         }
         
         // Business rule: Email must be unique
-        if (userRepository.existsByEmail(user.getEmail(), connection)) {
+        if (withConnection(c -> userRepository.existsByEmail(user.getEmail(), c))) {
             return Result.failure("An account with this email already exists");
         }
         
@@ -224,10 +339,11 @@ public class UserService {
         }
         
         // Create user
-        User created = userRepository.createUser(user, connection);
+        User created = withConnection(c -> userRepository.createUser(user, c));
         
-        // Invalidate caches after creation
-        invalidateAllCaches();
+        // Write the new user through (replaces any cached "not found" for the email)
+        writeThrough(created, null);
+        publishChange(EntityType.USER, created.getId());
         
         return Result.success(created, "Registration successful");
     }
@@ -251,7 +367,7 @@ public class UserService {
         
         // Try email cache first
         User user = emailCache.get(email, () -> 
-            userRepository.getUserByEmail(email, connection)
+            withConnection(c -> userRepository.getUserByEmail(email, c))
         );
         
         if (user == null) {
@@ -295,22 +411,64 @@ public class UserService {
         return activeSessionsCache.size();
     }
     
+    /**
+     * Stores a user returned by a write in the by-ID and by-email caches,
+     * so lookups right after an edit or registration stay cache-hot.
+     *
+     * @param user The user as returned by the database
+     * @param previousEmail The email before an update, or null for a new user
+     */
+    private void writeThrough(User user, String previousEmail) {
+        if (previousEmail != null && !previousEmail.equals(user.getEmail())) {
+            emailCache.invalidate(previousEmail);
+        }
+        userCache.put(user.getId(), user);
+        emailCache.put(user.getEmail(), user);
+        pageCache.invalidateAll();
+    }
+
+    @Override
+    protected void onRemoteChange(CacheCoherenceService.ChangeEvent event) {
+        if (event.getType() != EntityType.USER) {
+            return;
+        }
+        if (event.isBulk()) {
+            invalidateAllCaches();
+            return;
+        }
+        userCache.invalidate(event.getId());
+        // The email is not part of the notification; email lookups are cheap to reload
+        emailCache.invalidateAll();
+        pageCache.invalidateAll();
+    }
+
+    @Override
+    protected void onRemoteResync() {
+        invalidateAllCaches();
+    }
+
     /**
      * Invalidates all user caches.
-     * Should be called after any create, update, or delete operation.
+     * Writes update the caches in place; this is for manual refreshes.
      */
     public void invalidateAllCaches() {
         userCache.invalidateAll();
         emailCache.invalidateAll();
+        pageCache.invalidateAll();
     }
     
     /**
      * Gets cache statistics.
      */
     public String getCacheStats() {
+        CacheStats byId = userCache.getStats();
+        CacheStats byEmail = emailCache.getStats();
+        CacheStats pages = pageCache.getStats();
         return String.format(
-            "User Cache: %d entries, Email Cache: %d entries, Active Sessions: %d users",
-            userCache.size(), emailCache.size(), activeSessionsCache.size()
+            "User Cache: %d entries (%.0f%% hits), Email Cache: %d entries (%.0f%% hits), " +
+            "Page Cache: %d pages (%.0f%% hits), Active Sessions: %d users",
+            byId.getSize(), byId.getHitRate() * 100, byEmail.getSize(), byEmail.getHitRate() * 100,
+            pages.getSize(), pages.getHitRate() * 100, activeSessionsCache.size()
         );
     }
 }
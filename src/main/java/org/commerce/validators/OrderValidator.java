@@ -0,0 +1,80 @@
+package org.commerce.validators;
+
+import org.commerce.common.ValidationResult;
+import org.commerce.daos.entities.OrderItems;
+import org.commerce.daos.entities.Orders;
+
+import java.math.BigDecimal;
+
+/**
+ * Validator for Orders and OrderItems entities.
+ * Validates field-level constraints.
+ */
+public class OrderValidator {
+    
+    /**
+     * Validates an order.
+     * 
+     * @param order The order to validate
+     * @return ValidationResult containing any errors found
+     */
+    public static ValidationResult validate(Orders order) {
+        ValidationResult result = new ValidationResult();
+        
+        if (order == null) {
+            result.addError("Order cannot be null");
+            return result;
+        }
+        
+        // User ID validation
+        if (order.getUserId() <= 0) {
+            result.addError("Valid user ID is required");
+        }
+        
+        // Total validation
+        if (order.getTotalAmount() == null) {
+            result.addError("Total amount is required");
+        } else if (order.getTotalAmount().compareTo(BigDecimal.ZERO) < 0) {
+            result.addError("Total amount cannot be negative");
+        }
+        
+        // Status validation
+        if (order.getStatus() == null || order.getStatus().trim().isEmpty()) {
+            result.addError("Order status is required");
+        } else if (order.getStatus().length() > 50) {
+            result.addError("Order status must not exceed 50 characters");
+        }
+        
+        return result;
+    }
+    
+    /**
+     * Validates an order item.
+     * 
+     * @param item The order item to validate
+     * @return ValidationResult containing any errors found
+     */
+    public static ValidationResult validate(OrderItems item) {
+        ValidationResult result = new ValidationResult();
+        
+        if (item == null) {
+            result.addError("Order item cannot be null");
+            return result;
+        }
+        
+        if (item.getOrderId() <= 0) {
+            result.addError("Valid order ID is required");
+        }
+        if (item.getProductId() <= 0) {
+            result.addError("Valid product ID is required");
+        }
+        if (item.getQuantity() <= 0) {
+            result.addError("Quantity must be greater than zero");
+        }
+        if (item.getPrice() == null || item.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            result.addError("Valid price is required");
+        }
+        
+        return result;
+    }
+}
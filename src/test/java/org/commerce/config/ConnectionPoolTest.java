@@ -0,0 +1,111 @@
+package org.commerce.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the pool against an in-memory connection whose statements record their queued batch rows.
+ */
+class ConnectionPoolTest {
+    private static final String SQL = "INSERT INTO Inventory (product_id, quantity) VALUES (?, ?)";
+
+    private final List<List<Object>> batches = new ArrayList<>();
+    private int statementsPrepared = 0;
+    private ConnectionPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Test
+    void reusedStatementStartsWithEmptyBatch() throws Exception {
+        pool = new ConnectionPool(this::fakeConnection, 1, 0, 1000, 60_000, 0, 8);
+
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SQL)) {
+            statement.setInt(1, 1);
+            statement.addBatch();
+            statement.setInt(1, 2);
+            statement.addBatch();
+            assertThrows(BatchUpdateException.class, statement::executeBatch);
+        }
+
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SQL)) {
+            assertEquals(1, statementsPrepared, "statement was not reused from the cache");
+            assertTrue(batches.get(0).isEmpty(), "reused statement inherited queued batch rows");
+            statement.setInt(1, 3);
+            statement.addBatch();
+            assertEquals(1, statement.executeBatch().length);
+        }
+        assertEquals(1, pool.getStats().getStatementCacheHits());
+    }
+
+    /**
+     * A connection whose prepared statements queue parameter rows on addBatch()
+     * and fail executeBatch() when more than one row is queued.
+     */
+    private Connection fakeConnection() {
+        return proxy(Connection.class, (method, args) -> switch (method) {
+            case "prepareStatement" -> fakeStatement();
+            case "isClosed" -> Boolean.FALSE;
+            case "isValid", "getAutoCommit" -> Boolean.TRUE;
+            default -> null;
+        });
+    }
+
+    private PreparedStatement fakeStatement() {
+        statementsPrepared++;
+        List<Object> batch = new ArrayList<>();
+        batches.add(batch);
+        Object[] row = new Object[1];
+        return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+            case "setInt" -> {
+                row[0] = args[1];
+                yield null;
+            }
+            case "addBatch" -> {
+                batch.add(row[0]);
+                yield null;
+            }
+            case "clearBatch" -> {
+                batch.clear();
+                yield null;
+            }
+            case "executeBatch" -> {
+                if (batch.size() > 1) {
+                    throw new BatchUpdateException("Row 2 violates a constraint", new int[] {1});
+                }
+                int[] counts = new int[batch.size()];
+                batch.clear();
+                yield counts;
+            }
+            case "isClosed" -> Boolean.FALSE;
+            default -> null;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+}
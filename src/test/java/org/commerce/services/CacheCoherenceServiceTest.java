@@ -0,0 +1,118 @@
+package org.commerce.services;
+
+import org.commerce.enums.EntityType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs two coherence services against an in-memory stand-in for pg_notify/LISTEN,
+ * so notifications published by one instance reach the other's listener.
+ */
+class CacheCoherenceServiceTest {
+    private final List<BlockingQueue<String>> channels = new CopyOnWriteArrayList<>();
+    private final CountDownLatch listening = new CountDownLatch(1);
+    private CacheCoherenceService listener;
+
+    @AfterEach
+    void stopListener() {
+        if (listener != null) {
+            listener.close();
+        }
+    }
+
+    @Test
+    void inventoryBulkLoadReachesOtherInstances() throws Exception {
+        BlockingQueue<CacheCoherenceService.ChangeEvent> received = new LinkedBlockingQueue<>();
+        listener = new CacheCoherenceService(notifyingDataSource(), this::listenerConnection);
+        listener.addListener(received::add, () -> { });
+        listener.start();
+        assertTrue(listening.await(5, TimeUnit.SECONDS), "listener never issued LISTEN");
+
+        CacheCoherenceService publisher = new CacheCoherenceService(notifyingDataSource(), this::listenerConnection);
+        InventoryService inventoryService = new InventoryService(notifyingDataSource());
+        inventoryService.setCacheCoherence(publisher);
+        inventoryService.finishBulkLoad();
+
+        CacheCoherenceService.ChangeEvent event = received.poll(5, TimeUnit.SECONDS);
+        assertNotNull(event, "bulk load was not announced");
+        assertEquals(EntityType.STOCK, event.getType());
+        assertTrue(event.isBulk());
+    }
+
+    /**
+     * A data source whose "SELECT pg_notify(?, ?)" delivers the payload to every listening channel.
+     */
+    private DataSource notifyingDataSource() {
+        PreparedStatement notify = proxy(PreparedStatement.class, (method, args) -> {
+            if (method.equals("setString") && (int) args[0] == 2) {
+                String payload = (String) args[1];
+                channels.forEach(channel -> channel.add(payload));
+            }
+            return method.equals("execute") ? Boolean.TRUE : null;
+        });
+        Connection connection = proxy(Connection.class, (method, args) ->
+            method.equals("prepareStatement") ? notify : null);
+        return proxy(DataSource.class, (method, args) ->
+            method.equals("getConnection") ? connection : null);
+    }
+
+    /**
+     * A LISTEN connection that reads notifications from its own channel.
+     */
+    private Connection listenerConnection() {
+        BlockingQueue<String> channel = new LinkedBlockingQueue<>();
+        Statement statement = proxy(Statement.class, (method, args) -> {
+            if (method.equals("execute")) {
+                channels.add(channel);
+                listening.countDown();
+                return Boolean.FALSE;
+            }
+            return null;
+        });
+        PGConnection pgConnection = proxy(PGConnection.class, (method, args) -> {
+            if (!method.equals("getNotifications")) {
+                return null;
+            }
+            String payload = channel.poll((int) args[0], TimeUnit.MILLISECONDS);
+            if (payload == null) {
+                return null;
+            }
+            PGNotification notification = proxy(PGNotification.class, (m, a) ->
+                m.equals("getParameter") ? payload : null);
+            return new PGNotification[] {notification};
+        });
+        return proxy(Connection.class, (method, args) -> switch (method) {
+            case "createStatement" -> statement;
+            case "unwrap" -> pgConnection;
+            default -> null;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args) throws Exception;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+            (proxy, method, args) -> handler.handle(method.getName(), args)));
+    }
+}